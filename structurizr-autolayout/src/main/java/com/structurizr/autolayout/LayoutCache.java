@@ -0,0 +1,259 @@
+package com.structurizr.autolayout;
+
+import com.structurizr.model.Element;
+import com.structurizr.model.GroupableElement;
+import com.structurizr.view.*;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * A local, on-disk cache of automatic layouts, so that views that haven't changed since they were last laid out
+ * don't need to be laid out again.
+ *
+ * Layouts are keyed by a SHA-256 hash of the view's structure (element IDs, parents, groups and dimensions from the
+ * styles, relationship IDs with their source and destination element IDs, and automatic layout settings), along with
+ * any parameters supplied by the layout implementation. For each key, the cache directory contains a file
+ * ({hash}.properties) with the element positions, relationship vertices, dimensions and paper size that were produced
+ * by the layout.
+ * Files are written atomically, so the cache can be shared between concurrent builds.
+ */
+public class LayoutCache {
+
+    private static final Log log = LogFactory.getLog(LayoutCache.class);
+
+    // incremented when the key or the file format changes, so that old entries are ignored
+    private static final String VERSION = "2";
+
+    private static final String FILE_EXTENSION = ".properties";
+    private static final String ELEMENT_PROPERTY_PREFIX = "element.";
+    private static final String RELATIONSHIP_PROPERTY_PREFIX = "relationship.";
+    private static final String DIMENSIONS_PROPERTY = "dimensions";
+    private static final String PAPER_SIZE_PROPERTY = "paperSize";
+
+    private final File directory;
+
+    public LayoutCache(File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("A directory must be specified.");
+        }
+
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the cache key for the specified view.
+     *
+     * @param view          a ModelView
+     * @param parameters    anything else that affects the layout (e.g. layout implementation settings)
+     * @return  a hex encoded SHA-256 hash
+     */
+    public String getKey(ModelView view, String... parameters) {
+        if (view == null) {
+            throw new IllegalArgumentException("A view must be specified.");
+        }
+
+        Styles styles = view.getViewSet().getConfiguration().getStyles();
+
+        // elements and relationships are sorted, so that the key doesn't depend on the order they were added in
+        List<String> elements = new ArrayList<>();
+        for (ElementView elementView : view.getElements()) {
+            Element element = elementView.getElement();
+            ElementStyle style = styles.findElementStyle(element);
+            String group = element instanceof GroupableElement ? ((GroupableElement)element).getGroup() : null;
+            elements.add(String.join("|",
+                    element.getId(),
+                    element.getParent() != null ? element.getParent().getId() : "",
+                    group != null ? group : "",
+                    String.valueOf(style.getWidth()),
+                    String.valueOf(style.getHeight())));
+        }
+        Collections.sort(elements);
+
+        List<String> relationships = new ArrayList<>();
+        for (RelationshipView relationshipView : view.getRelationships()) {
+            // the source and destination are included, since relationship IDs don't change if they are re-pointed
+            relationships.add(String.join("|",
+                    getRelationshipKey(relationshipView),
+                    relationshipView.getRelationship().getSource().getId(),
+                    relationshipView.getRelationship().getDestination().getId(),
+                    String.valueOf(relationshipView.isResponse())));
+        }
+        Collections.sort(relationships);
+
+        StringBuilder buf = new StringBuilder();
+        buf.append("version|").append(VERSION).append('\n');
+        buf.append("view|").append(view.getClass().getSimpleName()).append('|').append(view.getKey()).append('\n');
+
+        AutomaticLayout automaticLayout = view.getAutomaticLayout();
+        if (automaticLayout != null) {
+            buf.append("automaticLayout|")
+                    .append(automaticLayout.getImplementation()).append('|')
+                    .append(automaticLayout.getRankDirection()).append('|')
+                    .append(automaticLayout.getRankSeparation()).append('|')
+                    .append(automaticLayout.getNodeSeparation()).append('|')
+                    .append(automaticLayout.getEdgeSeparation()).append('|')
+                    .append(automaticLayout.isVertices()).append('\n');
+        }
+
+        for (String element : elements) {
+            buf.append("element|").append(element).append('\n');
+        }
+
+        for (String relationship : relationships) {
+            buf.append("relationship|").append(relationship).append('\n');
+        }
+
+        for (String parameter : parameters) {
+            buf.append("parameter|").append(parameter).append('\n');
+        }
+
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(buf.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Applies the cached layout with the specified key (if there is one) to the view.
+     *
+     * @param view      a ModelView
+     * @param key       the cache key, from {@link #getKey(ModelView, String...)}
+     * @return  true if a cached layout was applied, false otherwise
+     */
+    public boolean load(ModelView view, String key) {
+        File file = getFile(key);
+        if (!file.exists()) {
+            return false;
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            Properties properties = new Properties();
+            properties.load(in);
+
+            // everything is read before the view is modified, so that a partial entry is never applied
+            Map<ElementView, int[]> positions = new LinkedHashMap<>();
+            for (ElementView elementView : view.getElements()) {
+                String value = properties.getProperty(ELEMENT_PROPERTY_PREFIX + elementView.getId());
+                if (value == null) {
+                    log.warn("Cached layout " + file.getAbsolutePath() + " does not contain element with ID " + elementView.getId());
+                    return false;
+                }
+
+                positions.put(elementView, parse(value));
+            }
+
+            Map<RelationshipView, Set<Vertex>> vertices = new LinkedHashMap<>();
+            for (RelationshipView relationshipView : view.getRelationships()) {
+                String value = properties.getProperty(RELATIONSHIP_PROPERTY_PREFIX + getRelationshipKey(relationshipView));
+                if (value == null) {
+                    log.warn("Cached layout " + file.getAbsolutePath() + " does not contain relationship with ID " + relationshipView.getId());
+                    return false;
+                }
+
+                Set<Vertex> set = new LinkedHashSet<>();
+                if (!value.isEmpty()) {
+                    for (String vertex : value.split(";")) {
+                        int[] point = parse(vertex);
+                        set.add(new Vertex(point[0], point[1]));
+                    }
+                }
+                vertices.put(relationshipView, set);
+            }
+
+            String dimensions = properties.getProperty(DIMENSIONS_PROPERTY);
+            String paperSize = properties.getProperty(PAPER_SIZE_PROPERTY);
+
+            for (Map.Entry<ElementView, int[]> entry : positions.entrySet()) {
+                entry.getKey().setX(entry.getValue()[0]);
+                entry.getKey().setY(entry.getValue()[1]);
+            }
+
+            for (Map.Entry<RelationshipView, Set<Vertex>> entry : vertices.entrySet()) {
+                entry.getKey().setVertices(entry.getValue());
+            }
+
+            if (dimensions != null) {
+                int[] size = parse(dimensions);
+                view.setDimensions(new Dimensions(size[0], size[1]));
+                view.setPaperSize(paperSize != null ? PaperSize.valueOf(paperSize) : null);
+            }
+
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not read cached layout " + file.getAbsolutePath(), e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Stores the current layout of the view in the cache, with the specified key.
+     *
+     * @param view      a ModelView
+     * @param key       the cache key, from {@link #getKey(ModelView, String...)}
+     */
+    public void save(ModelView view, String key) {
+        try {
+            directory.mkdirs();
+
+            Properties properties = new Properties();
+            for (ElementView elementView : view.getElements()) {
+                properties.setProperty(ELEMENT_PROPERTY_PREFIX + elementView.getId(), elementView.getX() + "," + elementView.getY());
+            }
+
+            for (RelationshipView relationshipView : view.getRelationships()) {
+                StringJoiner vertices = new StringJoiner(";");
+                for (Vertex vertex : relationshipView.getVertices()) {
+                    vertices.add(vertex.getX() + "," + vertex.getY());
+                }
+                properties.setProperty(RELATIONSHIP_PROPERTY_PREFIX + getRelationshipKey(relationshipView), vertices.toString());
+            }
+
+            if (view.getDimensions() != null) {
+                properties.setProperty(DIMENSIONS_PROPERTY, view.getDimensions().getWidth() + "," + view.getDimensions().getHeight());
+                if (view.getPaperSize() != null) {
+                    properties.setProperty(PAPER_SIZE_PROPERTY, view.getPaperSize().name());
+                }
+            }
+
+            File tempFile = File.createTempFile("structurizr-layout-", ".tmp", directory);
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.warn("Could not cache layout for view with key " + view.getKey() + " in " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    private String getRelationshipKey(RelationshipView relationshipView) {
+        // the same relationship can appear more than once in a dynamic view
+        if (relationshipView.getOrder() != null) {
+            return relationshipView.getId() + "/" + relationshipView.getOrder();
+        } else {
+            return relationshipView.getId();
+        }
+    }
+
+    private int[] parse(String value) {
+        String[] parts = value.split(",");
+        return new int[] { Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()) };
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + FILE_EXTENSION);
+    }
+
+}
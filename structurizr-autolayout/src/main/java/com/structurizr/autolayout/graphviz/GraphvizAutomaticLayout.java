@@ -1,22 +1,33 @@
 package com.structurizr.autolayout.graphviz;
 
 import com.structurizr.Workspace;
+import com.structurizr.autolayout.LayoutCache;
 import com.structurizr.export.Diagram;
 import com.structurizr.view.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.io.BufferedWriter;
-import java.io.File;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.List;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Applies the graphviz automatic layout to views in a Structurizr workspace.
  *
  * Note: this class assumes that the "dot" command is available.
+ *
+ * By default, views are laid out one at a time. Since the time taken is usually dominated by starting a "dot"
+ * process per view, {@link #setNumberOfThreads(int)} can be used to run several "dot" processes concurrently when
+ * laying out all views in a workspace; in this mode each view is laid out in its own temporary directory
+ * (beneath the specified path), and the layout is applied to the views in order once the processes have completed.
+ *
+ * Alternatively, {@link #setInMemory(boolean)} can be used to pipe the DOT definition to "dot" and read the SVG
+ * output back from it, so that no files are written at all.
+ *
+ * If a {@link LayoutCache} is specified, views whose DOT definition (and structure) haven't changed since they
+ * were last laid out have the cached layout applied, and "dot" isn't run for them.
  */
 public class GraphvizAutomaticLayout {
 
@@ -26,6 +37,9 @@ public class GraphvizAutomaticLayout {
     private static final String USE_SVG_OUTPUT_FORMAT_OPTION = "-Tsvg";
     private static final String AUTOMATICALLY_GENERATE_OUTPUT_FILE_OPTION = "-O";
     private static final String DOT_FILE_EXTENSION = ".dot";
+    private static final String SVG_FILE_EXTENSION = ".dot.svg";
+    private static final String LOG_FILE_EXTENSION = ".dot.log";
+    private static final String TEMPORARY_DIRECTORY_PREFIX = "graphviz-";
 
     private final File path;
 
@@ -38,6 +52,12 @@ public class GraphvizAutomaticLayout {
 
     private Locale locale = Locale.US;
 
+    private String dotExecutable = DOT_EXECUTABLE;
+    private int numberOfThreads = 1;
+    private long timeoutInMilliseconds = 0;
+    private boolean inMemory = false;
+    private LayoutCache layoutCache;
+
     public GraphvizAutomaticLayout() {
         this(new File("."));
     }
@@ -75,6 +95,74 @@ public class GraphvizAutomaticLayout {
         this.locale = locale;
     }
 
+    /**
+     * Sets the name of (or path to) the "dot" executable.
+     *
+     * @param dotExecutable     the executable, defaults to "dot"
+     */
+    public void setDotExecutable(String dotExecutable) {
+        if (dotExecutable == null || dotExecutable.trim().length() == 0) {
+            throw new IllegalArgumentException("The dot executable must be specified.");
+        }
+
+        this.dotExecutable = dotExecutable;
+    }
+
+    /**
+     * Sets the maximum number of "dot" processes that are run concurrently by {@link #apply(Workspace)}.
+     *
+     * @param numberOfThreads   the number of threads, defaults to 1 (views are laid out one at a time)
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("The number of threads must be a positive integer.");
+        }
+
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Sets the maximum time that the "dot" process for a single view is allowed to run for; processes that
+     * don't complete within this time are killed, and a TimeoutException is thrown.
+     *
+     * @param timeoutInMilliseconds     the timeout, in milliseconds (0 means no timeout, which is the default)
+     */
+    public void setTimeout(long timeoutInMilliseconds) {
+        if (timeoutInMilliseconds < 0) {
+            throw new IllegalArgumentException("The timeout must not be negative.");
+        }
+
+        this.timeoutInMilliseconds = timeoutInMilliseconds;
+    }
+
+    /**
+     * Specifies whether the DOT definition should be piped to "dot" (with the SVG output being read back from it),
+     * rather than using DOT and SVG files in the specified path.
+     *
+     * @param inMemory      true to avoid writing/reading files, false otherwise (the default)
+     */
+    public void setInMemory(boolean inMemory) {
+        this.inMemory = inMemory;
+    }
+
+    /**
+     * Sets the cache used to store layouts, so that unchanged views aren't laid out again.
+     *
+     * @param layoutCache   a LayoutCache instance, or null to disable caching (the default)
+     */
+    public void setLayoutCache(LayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
+
+    private String getCacheKey(ModelView view, Diagram diagram) {
+        // the DOT definition includes the rank direction/separation, node sizes and clusters
+        return layoutCache.getKey(view,
+                GraphvizAutomaticLayout.class.getName(),
+                "margin=" + margin,
+                "changePaperSize=" + changePaperSize,
+                diagram.getDefinition());
+    }
+
     private DOTExporter createDOTExporter() {
         DOTExporter exporter = new DOTExporter(rankDirection, rankSeparation, nodeSeparation);
         exporter.setLocale(locale);
@@ -83,7 +171,11 @@ public class GraphvizAutomaticLayout {
     }
 
     private void writeFile(Diagram diagram) throws Exception {
-        File file = new File(path, diagram.getKey() + DOT_FILE_EXTENSION);
+        writeFile(path, diagram);
+    }
+
+    private void writeFile(File directory, Diagram diagram) throws Exception {
+        File file = new File(directory, diagram.getKey() + DOT_FILE_EXTENSION);
         log.debug("Writing " + file.getAbsolutePath());
         BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
         writer.write(diagram.getDefinition());
@@ -95,96 +187,216 @@ public class GraphvizAutomaticLayout {
         }
     }
 
-    private SVGReader createSVGReader() {
-        return new SVGReader(path, margin, changePaperSize);
+    private void runGraphviz(View view) throws Exception {
+        runGraphviz(path, view.getKey(), null);
     }
 
-    private void runGraphviz(View view) throws Exception {
-        ProcessBuilder processBuilder = new ProcessBuilder().inheritIO();
+    private void runGraphviz(File directory, String key, File logFile) throws Exception {
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        if (logFile == null) {
+            processBuilder.inheritIO();
+        } else {
+            // output from concurrent processes is captured per view, rather than being interleaved
+            processBuilder.redirectErrorStream(true);
+            processBuilder.redirectOutput(logFile);
+        }
+
         List<String> command = List.of(
-                DOT_EXECUTABLE,
-                new File(path, view.getKey() + DOT_FILE_EXTENSION).getAbsolutePath(),
+                dotExecutable,
+                new File(directory, key + DOT_FILE_EXTENSION).getAbsolutePath(),
                 USE_SVG_OUTPUT_FORMAT_OPTION,
                 AUTOMATICALLY_GENERATE_OUTPUT_FILE_OPTION
         );
 
         processBuilder.command(command);
+        log.debug(String.join(" ", command));
 
-        StringBuilder buf = new StringBuilder();
-        for (String s : command) {
-            buf.append(s);
-            buf.append(" ");
+        Process process = processBuilder.start();
+        try {
+            waitFor(process, key);
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
         }
-        log.debug(buf);
 
-        Process process = processBuilder.start();
-        int exitCode = process.waitFor();
-        assert exitCode == 0;
+        int exitCode = process.exitValue();
+        String output = null;
+        if (logFile != null && logFile.exists()) {
+            output = Files.readString(logFile.toPath(), StandardCharsets.UTF_8);
+        }
 
-        String input = new String(process.getInputStream().readAllBytes());
-        String error = new String(process.getErrorStream().readAllBytes());
+        if (exitCode != 0) {
+            // the log file is deleted along with the temporary directory, so this is the only record of why
+            log.error("Graphviz exited with code " + exitCode + " for view with key " + key + (output != null ? "; output: " + output : ""));
+        } else if (output != null) {
+            log.debug("output: " + output);
+        }
+    }
 
-        log.debug("stdout: " + input);
-        log.debug("stderr: " + error);
+    private byte[] runGraphviz(Diagram diagram) throws Exception {
+        List<String> command = List.of(
+                dotExecutable,
+                USE_SVG_OUTPUT_FORMAT_OPTION
+        );
+        log.debug(String.join(" ", command));
+
+        Process process = new ProcessBuilder(command).start();
+        try {
+            // stdin is written, and stdout/stderr are read, on separate threads, so that "dot" never blocks on a
+            // full pipe, and the timeout also applies to writing the DOT definition (which "dot" may not be reading)
+            FutureTask<Void> input = write(process.getOutputStream(), diagram.getDefinition().getBytes(StandardCharsets.UTF_8));
+            FutureTask<byte[]> output = read(process.getInputStream());
+            FutureTask<byte[]> error = read(process.getErrorStream());
+
+            waitFor(process, diagram.getKey());
+
+            String stderr = new String(error.get(), StandardCharsets.UTF_8);
+            if (process.exitValue() != 0) {
+                log.error("Graphviz exited with code " + process.exitValue() + "; layout not applied to view with key " + diagram.getKey() + "; stderr: " + stderr);
+                return null;
+            }
+
+            log.debug("stderr: " + stderr);
+            input.get();
+
+            return output.get();
+        } finally {
+            if (process.isAlive()) {
+                // Process.destroyForcibly() closes stdin first, which blocks while the DOT definition is still being
+                // written; so the process (and anything it started) is killed first, which unblocks the write
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.toHandle().destroyForcibly();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private FutureTask<byte[]> read(InputStream inputStream) {
+        FutureTask<byte[]> task = new FutureTask<>(inputStream::readAllBytes);
+        start(task);
+
+        return task;
+    }
+
+    private FutureTask<Void> write(OutputStream outputStream, byte[] bytes) {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try (outputStream) {
+                outputStream.write(bytes);
+            }
+
+            return null;
+        });
+        start(task);
+
+        return task;
+    }
+
+    private void start(FutureTask<?> task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void waitFor(Process process, String key) throws Exception {
+        if (timeoutInMilliseconds > 0) {
+            if (!process.waitFor(timeoutInMilliseconds, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("Graphviz did not complete within " + timeoutInMilliseconds + "ms for view with key " + key);
+            }
+        } else {
+            process.waitFor();
+        }
+    }
+
+    private byte[] readSVGFile(File directory, String key) throws Exception {
+        File file = new File(directory, key + SVG_FILE_EXTENSION);
+        if (file.exists()) {
+            return Files.readAllBytes(file.toPath());
+        } else {
+            log.error(file.getAbsolutePath() + " does not exist; layout not applied to view with key " + key);
+            return null;
+        }
+    }
+
+    private void applyLayout(ModelView view, Diagram diagram) throws Exception {
+        String cacheKey = null;
+        if (layoutCache != null) {
+            cacheKey = getCacheKey(view, diagram);
+            if (layoutCache.load(view, cacheKey)) {
+                log.debug("Cached layout applied to view with key " + view.getKey());
+                return;
+            }
+        }
+
+        byte[] svg;
+        if (inMemory) {
+            svg = runGraphviz(diagram);
+        } else {
+            writeFile(diagram);
+            runGraphviz(view);
+            svg = readSVGFile(path, view.getKey());
+        }
+
+        if (svg == null) {
+            // the layout hasn't been applied, so there's nothing to cache
+            return;
+        }
+
+        new SVGReader(margin, changePaperSize).parseAndApplyLayout(view, new ByteArrayInputStream(svg));
+
+        if (layoutCache != null) {
+            layoutCache.save(view, cacheKey);
+        }
     }
 
     public void apply(CustomView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(SystemLandscapeView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(SystemContextView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(ContainerView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(ComponentView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(DynamicView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(DeploymentView view) throws Exception {
         log.debug("Running Graphviz for view with key " + view.getKey());
         Diagram diagram = createDOTExporter().export(view);
-        writeFile(diagram);
-        runGraphviz(view);
-        createSVGReader().parseAndApplyLayout(view);
+        applyLayout(view, diagram);
     }
 
     public void apply(Workspace workspace) throws Exception {
+        if (numberOfThreads > 1) {
+            applyConcurrently(workspace);
+            return;
+        }
+
         for (CustomView view : workspace.getViews().getCustomViews()) {
             apply(view);
         }
@@ -214,4 +426,123 @@ public class GraphvizAutomaticLayout {
         }
     }
 
+    private void applyConcurrently(Workspace workspace) throws Exception {
+        // the DOT definitions are created up front, so that the views are only read/modified by this thread
+        Map<ModelView, Diagram> diagrams = new LinkedHashMap<>();
+        for (CustomView view : workspace.getViews().getCustomViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (SystemLandscapeView view : workspace.getViews().getSystemLandscapeViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (SystemContextView view : workspace.getViews().getSystemContextViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (ContainerView view : workspace.getViews().getContainerViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (ComponentView view : workspace.getViews().getComponentViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (DynamicView view : workspace.getViews().getDynamicViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        for (DeploymentView view : workspace.getViews().getDeploymentViews()) {
+            diagrams.put(view, createDOTExporter().export(view));
+        }
+
+        if (diagrams.isEmpty()) {
+            return;
+        }
+
+        List<File> directories = new ArrayList<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(numberOfThreads, diagrams.size()));
+        try {
+            Map<ModelView, Future<byte[]>> results = new LinkedHashMap<>();
+            Map<ModelView, String> cacheKeys = new HashMap<>();
+            for (Map.Entry<ModelView, Diagram> entry : diagrams.entrySet()) {
+                Diagram diagram = entry.getValue();
+                if (layoutCache != null) {
+                    String cacheKey = getCacheKey(entry.getKey(), diagram);
+                    if (layoutCache.load(entry.getKey(), cacheKey)) {
+                        log.debug("Cached layout applied to view with key " + diagram.getKey());
+                        continue;
+                    }
+
+                    cacheKeys.put(entry.getKey(), cacheKey);
+                }
+
+                Callable<byte[]> task;
+                if (inMemory) {
+                    task = () -> runGraphviz(diagram);
+                } else {
+                    File directory = Files.createTempDirectory(path.toPath(), TEMPORARY_DIRECTORY_PREFIX).toFile();
+                    directories.add(directory);
+
+                    task = () -> {
+                        writeFile(directory, diagram);
+                        runGraphviz(directory, diagram.getKey(), new File(directory, diagram.getKey() + LOG_FILE_EXTENSION));
+
+                        return readSVGFile(directory, diagram.getKey());
+                    };
+                }
+
+                log.debug("Running Graphviz for view with key " + diagram.getKey());
+                results.put(entry.getKey(), executorService.submit(task));
+            }
+
+            for (Map.Entry<ModelView, Future<byte[]>> result : results.entrySet()) {
+                byte[] svg;
+                try {
+                    svg = result.getValue().get();
+                } catch (ExecutionException ee) {
+                    if (ee.getCause() instanceof Exception) {
+                        throw (Exception)ee.getCause();
+                    } else {
+                        throw ee;
+                    }
+                }
+
+                if (svg != null) {
+                    new SVGReader(margin, changePaperSize).parseAndApplyLayout(result.getKey(), new ByteArrayInputStream(svg));
+
+                    if (layoutCache != null) {
+                        layoutCache.save(result.getKey(), cacheKeys.get(result.getKey()));
+                    }
+                }
+            }
+        } finally {
+            // this kills any "dot" processes that are still running
+            executorService.shutdownNow();
+            if (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Timed out waiting for Graphviz processes to be stopped");
+            }
+
+            for (File directory : directories) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private void deleteDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    log.warn("Could not delete " + file.getAbsolutePath());
+                }
+            }
+        }
+
+        if (!directory.delete()) {
+            log.warn("Could not delete " + directory.getAbsolutePath());
+        }
+    }
+
 }
\ No newline at end of file
@@ -1,22 +1,18 @@
 package com.structurizr.autolayout.graphviz;
 
+import com.structurizr.model.ContainerInstance;
 import com.structurizr.model.DeploymentNode;
 import com.structurizr.model.Element;
+import com.structurizr.model.SoftwareSystemInstance;
 import com.structurizr.view.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-import java.io.File;
-import java.io.FileInputStream;
-import java.util.LinkedHashSet;
-import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.*;
 
 /**
  * Parses an SVG file created by graphviz, extracts the layout information, and applies it to a Structurizr view.
@@ -25,179 +21,239 @@ class SVGReader {
 
     private static final Log log = LogFactory.getLog(GraphvizAutomaticLayout.class);
 
-    private final File path;
     private final int margin;
     private final boolean changePaperSize;
 
-    SVGReader(File path, int margin, boolean changePaperSize) {
-        this.path = path;
+    SVGReader(int margin, boolean changePaperSize) {
         this.margin = margin;
         this.changePaperSize = changePaperSize;
     }
 
-    void parseAndApplyLayout(ModelView view) throws Exception {
-        File file = new File(path, view.getKey() + ".dot.svg");
-        log.debug("Reading " + file.getAbsolutePath());
-
-        if (file.exists()) {
-            FileInputStream fileIS = new FileInputStream(file);
-            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-            builderFactory.setNamespaceAware(false);
-            builderFactory.setValidating(false);
-            builderFactory.setFeature("http://xml.org/sax/features/namespaces", false);
-            builderFactory.setFeature("http://xml.org/sax/features/validation", false);
-            builderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-            builderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-
-            DocumentBuilder builder = builderFactory.newDocumentBuilder();
-            Document xmlDocument = builder.parse(fileIS);
-            XPath xPath = XPathFactory.newInstance().newXPath();
-            NodeList nodeList = (NodeList) xPath.compile("/svg/g[@class=\"graph\"]").evaluate(xmlDocument, XPathConstants.NODESET);
-            String transform = nodeList.item(0).getAttributes().getNamedItem("transform").getNodeValue();
-            String translate = transform.substring(transform.indexOf("translate"));
-            String numbers = translate.substring(translate.indexOf("(") + 1, translate.indexOf(")"));
-            int transformX = (int) Double.parseDouble(numbers.split(" ")[0]);
-            int transformY = (int) Double.parseDouble(numbers.split(" ")[1]);
-
-            int minimumX = Integer.MAX_VALUE;
-            int minimumY = Integer.MAX_VALUE;
-            int maximumX = Integer.MIN_VALUE;
-            int maximumY = Integer.MIN_VALUE;
-
-            for (ElementView elementView : view.getElements()) {
-                if (elementView.getElement() instanceof DeploymentNode) {
-                    // deployment nodes are clusters, so positioned automatically
-                    continue;
-                }
+    void parseAndApplyLayout(ModelView view, InputStream inputStream) throws Exception {
+        GraphvizSVG svg = parse(inputStream);
+        String transform = svg.transform;
+        String translate = transform.substring(transform.indexOf("translate"));
+        String numbers = translate.substring(translate.indexOf("(") + 1, translate.indexOf(")"));
+        int transformX = (int) Double.parseDouble(numbers.split(" ")[0]);
+        int transformY = (int) Double.parseDouble(numbers.split(" ")[1]);
+
+        int minimumX = Integer.MAX_VALUE;
+        int minimumY = Integer.MAX_VALUE;
+        int maximumX = Integer.MIN_VALUE;
+        int maximumY = Integer.MIN_VALUE;
+
+        Map<String, ElementStyle> stylesByTags = new HashMap<>();
+        Styles styles = view.getViewSet().getConfiguration().getStyles();
+
+        for (ElementView elementView : view.getElements()) {
+            if (elementView.getElement() instanceof DeploymentNode) {
+                // deployment nodes are clusters, so positioned automatically
+                continue;
+            }
 
-                String expression = String.format("/svg/g/g[@id=\"%s\"]/polygon", elementView.getId());
-                nodeList = (NodeList) xPath.compile(expression).evaluate(xmlDocument, XPathConstants.NODESET);
-                if (nodeList.getLength() == 0) {
-                    continue;
-                }
+            String pointsAsString = svg.polygons.get(elementView.getId());
+            if (pointsAsString == null) {
+                continue;
+            }
 
-                String pointsAsString = nodeList.item(0).getAttributes().getNamedItem("points").getNodeValue();
-                String[] points = pointsAsString.split(" ");
-                String[] coordinates = points[1].split(",");
+            String[] points = pointsAsString.split(" ");
+            String[] coordinates = points[1].split(",");
 
-                double x = Double.parseDouble(coordinates[0]) + transformX;
-                double y = Double.parseDouble(coordinates[1]) + transformY;
+            double x = Double.parseDouble(coordinates[0]) + transformX;
+            double y = Double.parseDouble(coordinates[1]) + transformY;
 
-                elementView.setX((int) (x * Constants.DPI_RATIO));
-                elementView.setY((int) (y * Constants.DPI_RATIO));
+            elementView.setX((int) (x * Constants.DPI_RATIO));
+            elementView.setY((int) (y * Constants.DPI_RATIO));
 
-                minimumX = Math.min(elementView.getX(), minimumX);
-                minimumY = Math.min(elementView.getY(), minimumY);
+            minimumX = Math.min(elementView.getX(), minimumX);
+            minimumY = Math.min(elementView.getY(), minimumY);
 
-                ElementStyle style = view.getViewSet().getConfiguration().getStyles().findElementStyle(view.getModel().getElement(elementView.getId()));
+            // the width and height of an element style only depend upon the tags used to find it
+            Element element = view.getModel().getElement(elementView.getId());
+            ElementStyle style = stylesByTags.computeIfAbsent(getTags(element), tags -> styles.findElementStyle(element));
 
-                maximumX = Math.max(elementView.getX() + style.getWidth(), maximumX);
-                maximumY = Math.max(elementView.getY() + style.getHeight(), maximumY);
-            }
+            maximumX = Math.max(elementView.getX() + style.getWidth(), maximumX);
+            maximumY = Math.max(elementView.getY() + style.getHeight(), maximumY);
+        }
 
-            for (RelationshipView relationshipView : view.getRelationships()) {
-                String expression = String.format("/svg/g/g[@id=\"%s\"]/path", relationshipView.getId());
-                nodeList = (NodeList) xPath.compile(expression).evaluate(xmlDocument, XPathConstants.NODESET);
-                if (nodeList.getLength() == 0) {
-                    continue;
-                }
+        for (RelationshipView relationshipView : view.getRelationships()) {
+            String dAsString = svg.paths.get(relationshipView.getId());
+            if (dAsString == null) {
+                continue;
+            }
 
-                String dAsString = nodeList.item(0).getAttributes().getNamedItem("d").getNodeValue();
-                String[] d = dAsString.split(" ");
+            String[] d = dAsString.split(" ");
 
-                Set<Vertex> vertices = new LinkedHashSet<>();
+            Set<Vertex> vertices = new LinkedHashSet<>();
 
-                if (d.length == 3) {
-                    relationshipView.setVertices(vertices);
-                } else {
-                    for (int i = 1; i < d.length - 2; i++) {
-                        double x = Double.parseDouble(d[i].split(",")[0]) + transformX;
-                        double y = Double.parseDouble(d[i].split(",")[1]) + transformY;
-                        Vertex vertex = new Vertex((int) (x * Constants.DPI_RATIO), (int) (y * Constants.DPI_RATIO));
-                        vertices.add(vertex);
+            if (d.length == 3) {
+                relationshipView.setVertices(vertices);
+            } else {
+                for (int i = 1; i < d.length - 2; i++) {
+                    double x = Double.parseDouble(d[i].split(",")[0]) + transformX;
+                    double y = Double.parseDouble(d[i].split(",")[1]) + transformY;
+                    Vertex vertex = new Vertex((int) (x * Constants.DPI_RATIO), (int) (y * Constants.DPI_RATIO));
+                    vertices.add(vertex);
 
-                        minimumX = Math.min(vertex.getX(), minimumX);
-                        minimumY = Math.min(vertex.getY(), minimumY);
-                        maximumX = Math.max(vertex.getX(), maximumX);
-                        maximumY = Math.max(vertex.getY(), maximumY);
-                    }
-                    relationshipView.setVertices(vertices);
+                    minimumX = Math.min(vertex.getX(), minimumX);
+                    minimumY = Math.min(vertex.getY(), minimumY);
+                    maximumX = Math.max(vertex.getX(), maximumX);
+                    maximumY = Math.max(vertex.getY(), maximumY);
                 }
+                relationshipView.setVertices(vertices);
             }
+        }
 
-            // also take into account any clusters that might be rendered outside the nodes
-            String expression = "/svg/g/g[@class=\"cluster\"]/polygon";
-            nodeList = (NodeList) xPath.compile(expression).evaluate(xmlDocument, XPathConstants.NODESET);
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                String[] points = nodeList.item(i).getAttributes().getNamedItem("points").getNodeValue().split(" ");
-                for (String point : points) {
-                    int x = (int) ((Double.parseDouble(point.split(",")[0]) + transformX) * Constants.DPI_RATIO);
-                    int y = (int) ((Double.parseDouble(point.split(",")[1]) + transformY) * Constants.DPI_RATIO);
-
-                    minimumX = Math.min(x, minimumX);
-                    minimumY = Math.min(y, minimumY);
-                    maximumX = Math.max(x, maximumX);
-                    maximumY = Math.max(y, maximumY);
-                }
+        // also take into account any clusters that might be rendered outside the nodes
+        for (String pointsAsString : svg.clusters) {
+            String[] points = pointsAsString.split(" ");
+            for (String point : points) {
+                int x = (int) ((Double.parseDouble(point.split(",")[0]) + transformX) * Constants.DPI_RATIO);
+                int y = (int) ((Double.parseDouble(point.split(",")[1]) + transformY) * Constants.DPI_RATIO);
+
+                minimumX = Math.min(x, minimumX);
+                minimumY = Math.min(y, minimumY);
+                maximumX = Math.max(x, maximumX);
+                maximumY = Math.max(y, maximumY);
             }
+        }
 
-            int pageWidth = Math.max(margin, maximumX + margin);
-            int pageHeight = Math.max(margin, maximumY + margin);
+        int pageWidth = Math.max(margin, maximumX + margin);
+        int pageHeight = Math.max(margin, maximumY + margin);
 
-            if (changePaperSize) {
-                view.setPaperSize(null);
-                view.setDimensions(new Dimensions(pageWidth, pageHeight));
+        if (changePaperSize) {
+            view.setPaperSize(null);
+            view.setDimensions(new Dimensions(pageWidth, pageHeight));
 
-                PaperSize.Orientation orientation = (pageWidth > pageHeight) ? PaperSize.Orientation.Landscape : PaperSize.Orientation.Portrait;
-                for (PaperSize paperSize : PaperSize.getOrderedPaperSizes(orientation)) {
-                    if (paperSize.getWidth() > (pageWidth) && paperSize.getHeight() > (pageHeight)) {
-                        view.setPaperSize(paperSize);
-                        break;
-                    }
+            PaperSize.Orientation orientation = (pageWidth > pageHeight) ? PaperSize.Orientation.Landscape : PaperSize.Orientation.Portrait;
+            for (PaperSize paperSize : PaperSize.getOrderedPaperSizes(orientation)) {
+                if (paperSize.getWidth() > (pageWidth) && paperSize.getHeight() > (pageHeight)) {
+                    view.setPaperSize(paperSize);
+                    break;
                 }
             }
+        }
 
-            int deltaX = (pageWidth - maximumX + minimumX) / 2;
-            int deltaY = (pageHeight - maximumY + minimumY) / 2;
+        int deltaX = (pageWidth - maximumX + minimumX) / 2;
+        int deltaY = (pageHeight - maximumY + minimumY) / 2;
 
-            // move everything relative to 0,0
-            for (ElementView elementView : view.getElements()) {
-                elementView.setX(elementView.getX() - minimumX);
-                elementView.setY(elementView.getY() - minimumY);
-            }
-            for (RelationshipView relationshipView : view.getRelationships()) {
-                for (Vertex vertex : relationshipView.getVertices()) {
-                    vertex.setX(vertex.getX() - minimumX);
-                    vertex.setY(vertex.getY() - minimumY);
-                }
+        // move everything relative to 0,0
+        for (ElementView elementView : view.getElements()) {
+            elementView.setX(elementView.getX() - minimumX);
+            elementView.setY(elementView.getY() - minimumY);
+        }
+        for (RelationshipView relationshipView : view.getRelationships()) {
+            for (Vertex vertex : relationshipView.getVertices()) {
+                vertex.setX(vertex.getX() - minimumX);
+                vertex.setY(vertex.getY() - minimumY);
             }
+        }
 
-            // and now centre everything
-            for (ElementView elementView : view.getElements()) {
-                elementView.setX(elementView.getX() + deltaX);
-                elementView.setY(elementView.getY() + deltaY);
+        // and now centre everything
+        for (ElementView elementView : view.getElements()) {
+            elementView.setX(elementView.getX() + deltaX);
+            elementView.setY(elementView.getY() + deltaY);
+        }
+        for (RelationshipView relationshipView : view.getRelationships()) {
+            for (Vertex vertex : relationshipView.getVertices()) {
+                vertex.setX(vertex.getX() + deltaX);
+                vertex.setY(vertex.getY() + deltaY);
             }
-            for (RelationshipView relationshipView : view.getRelationships()) {
-                for (Vertex vertex : relationshipView.getVertices()) {
-                    vertex.setX(vertex.getX() + deltaX);
-                    vertex.setY(vertex.getY() + deltaY);
+        }
+
+        log.debug("Layout applied to view with key " + view.getKey());
+    }
+
+    /**
+     * Reads the parts of the SVG that are needed to lay out the view, in a single pass. This is equivalent to the
+     * following XPath expressions: /svg/g[@class="graph"]/@transform, /svg/g/g[@id="..."]/polygon (the first),
+     * /svg/g/g[@id="..."]/path (the first), and /svg/g/g[@class="cluster"]/polygon.
+     */
+    private GraphvizSVG parse(InputStream inputStream) throws Exception {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        GraphvizSVG svg = new GraphvizSVG();
+        XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+        try {
+            int depth = 0;
+            boolean group = false;
+            String id = null;
+            boolean cluster = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+
+                    if (depth == 1) {
+                        if (!"svg".equals(name)) {
+                            break;
+                        }
+                    } else if (depth == 2) {
+                        group = "g".equals(name);
+                        if (group && "graph".equals(reader.getAttributeValue(null, "class")) && svg.transform == null) {
+                            svg.transform = reader.getAttributeValue(null, "transform");
+                        }
+                    } else if (depth == 3) {
+                        id = null;
+                        cluster = false;
+                        if (group && "g".equals(name)) {
+                            id = reader.getAttributeValue(null, "id");
+                            cluster = "cluster".equals(reader.getAttributeValue(null, "class"));
+                        }
+                    } else if (depth == 4) {
+                        if ("polygon".equals(name)) {
+                            String points = reader.getAttributeValue(null, "points");
+                            if (id != null) {
+                                svg.polygons.putIfAbsent(id, points);
+                            }
+                            if (cluster) {
+                                svg.clusters.add(points);
+                            }
+                        } else if ("path".equals(name) && id != null) {
+                            svg.paths.putIfAbsent(id, reader.getAttributeValue(null, "d"));
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 3) {
+                        id = null;
+                        cluster = false;
+                    }
+                    depth--;
                 }
             }
+        } finally {
+            reader.close();
+        }
 
-            log.debug("Layout applied to view with key " + view.getKey());
+        return svg;
+    }
+
+    private String getTags(Element element) {
+        // styles are cached by these tags, so this must compose them in the same way as
+        // Styles.findElementStyle(Element) does (software system/container instances inherit the tags of the
+        // software system/container); if that changes, elements may be given the style of another element.
+        // The style of a deployment node also differs, but deployment nodes are skipped before this is called
+        if (element instanceof SoftwareSystemInstance) {
+            return ((SoftwareSystemInstance)element).getSoftwareSystem().getTags() + "," + element.getTags();
+        } else if (element instanceof ContainerInstance) {
+            return ((ContainerInstance)element).getContainer().getTags() + "," + element.getTags();
         } else {
-            log.error(file.getAbsolutePath() + " does not exist; layout not applied to view with key " + view.getKey());
+            return element.getTags();
         }
     }
 
-    private int getElementWidth(ModelView view, String elementId) {
-        Element element = view.getModel().getElement(elementId);
-        return view.getViewSet().getConfiguration().getStyles().findElementStyle(element).getWidth();
-    }
+    private static class GraphvizSVG {
+
+        private String transform;
+        private final Map<String, String> polygons = new HashMap<>();
+        private final Map<String, String> paths = new HashMap<>();
+        private final List<String> clusters = new ArrayList<>();
 
-    private int getElementHeight(ModelView view, String elementId) {
-        Element element = view.getModel().getElement(elementId);
-        return view.getViewSet().getConfiguration().getStyles().findElementStyle(element).getHeight();
     }
 
 }
\ No newline at end of file
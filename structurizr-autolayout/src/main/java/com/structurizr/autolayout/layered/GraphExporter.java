@@ -0,0 +1,170 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.export.AbstractDiagramExporter;
+import com.structurizr.export.Diagram;
+import com.structurizr.export.IndentingWriter;
+import com.structurizr.model.Container;
+import com.structurizr.model.DeploymentNode;
+import com.structurizr.model.Element;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.view.*;
+
+import java.util.*;
+
+/**
+ * Converts a Structurizr view into a tree of nodes (elements and the boundaries that contain them), along with
+ * the links between them. This uses the same rules as the diagram exporters (and the graphviz layout) to decide
+ * which elements are visible, and which boundaries are shown.
+ */
+class GraphExporter extends AbstractDiagramExporter {
+
+    private Node root;
+    private Deque<Node> clusters;
+    private Map<String, Node> nodesById;
+    private List<Link> links;
+
+    Node getRoot() {
+        return root;
+    }
+
+    List<Link> getLinks() {
+        return links;
+    }
+
+    void createGraph(ModelView view) {
+        if (view instanceof CustomView) {
+            export((CustomView)view);
+        } else if (view instanceof SystemLandscapeView) {
+            export((SystemLandscapeView)view);
+        } else if (view instanceof SystemContextView) {
+            export((SystemContextView)view);
+        } else if (view instanceof ContainerView) {
+            export((ContainerView)view);
+        } else if (view instanceof ComponentView) {
+            export((ComponentView)view);
+        } else if (view instanceof DynamicView) {
+            export((DynamicView)view);
+        } else if (view instanceof DeploymentView) {
+            export((DeploymentView)view);
+        } else {
+            throw new IllegalArgumentException("Views of type " + view.getClass().getSimpleName() + " are not supported.");
+        }
+    }
+
+    @Override
+    protected void writeHeader(ModelView view, IndentingWriter writer) {
+        root = new Node(null, null);
+        clusters = new ArrayDeque<>();
+        clusters.push(root);
+        nodesById = new HashMap<>();
+        links = new ArrayList<>();
+    }
+
+    @Override
+    protected void writeFooter(ModelView view, IndentingWriter writer) {
+    }
+
+    private void startCluster(String id) {
+        Node cluster = new Node(id, null);
+        clusters.peek().add(cluster);
+        clusters.push(cluster);
+
+        if (id != null) {
+            nodesById.putIfAbsent(id, cluster);
+        }
+    }
+
+    private void endCluster() {
+        if (clusters.size() > 1) {
+            clusters.pop();
+        }
+    }
+
+    @Override
+    protected void startEnterpriseBoundary(ModelView view, String enterpriseName, IndentingWriter writer) {
+        startCluster(null);
+    }
+
+    @Override
+    protected void endEnterpriseBoundary(ModelView view, IndentingWriter writer) {
+        endCluster();
+    }
+
+    @Override
+    protected void startGroupBoundary(ModelView view, String group, IndentingWriter writer) {
+        startCluster(null);
+    }
+
+    @Override
+    protected void endGroupBoundary(ModelView view, IndentingWriter writer) {
+        endCluster();
+    }
+
+    @Override
+    protected void startSoftwareSystemBoundary(ModelView view, SoftwareSystem softwareSystem, IndentingWriter writer) {
+        startCluster(softwareSystem.getId());
+    }
+
+    @Override
+    protected void endSoftwareSystemBoundary(ModelView view, IndentingWriter writer) {
+        endCluster();
+    }
+
+    @Override
+    protected void startContainerBoundary(ModelView view, Container container, IndentingWriter writer) {
+        startCluster(container.getId());
+    }
+
+    @Override
+    protected void endContainerBoundary(ModelView view, IndentingWriter writer) {
+        endCluster();
+    }
+
+    @Override
+    protected void startDeploymentNodeBoundary(DeploymentView view, DeploymentNode deploymentNode, IndentingWriter writer) {
+        startCluster(deploymentNode.getId());
+    }
+
+    @Override
+    protected void endDeploymentNodeBoundary(ModelView view, IndentingWriter writer) {
+        endCluster();
+    }
+
+    @Override
+    protected void writeElement(ModelView view, Element element, IndentingWriter writer) {
+        Node node = new Node(element.getId(), element);
+        clusters.peek().add(node);
+
+        // elements take precedence over boundaries with the same ID
+        nodesById.put(element.getId(), node);
+    }
+
+    @Override
+    protected void writeRelationship(ModelView view, RelationshipView relationshipView, IndentingWriter writer) {
+        Element source = relationshipView.getRelationship().getSource();
+        Element destination = relationshipView.getRelationship().getDestination();
+
+        if (relationshipView.isResponse() != null && relationshipView.isResponse()) {
+            source = relationshipView.getRelationship().getDestination();
+            destination = relationshipView.getRelationship().getSource();
+        }
+
+        // relationships to/from deployment nodes are linked to the deployment node boundary
+        Node sourceNode = nodesById.get(source.getId());
+        Node destinationNode = nodesById.get(destination.getId());
+        if (sourceNode != null && destinationNode != null) {
+            links.add(new Link(relationshipView, sourceNode, destinationNode));
+        }
+    }
+
+    @Override
+    protected Diagram createDiagram(ModelView view, String definition) {
+        return new Diagram(view, definition) {
+            @Override
+            public String getFileExtension() {
+                return "";
+            }
+        };
+    }
+
+}
@@ -0,0 +1,368 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.Workspace;
+import com.structurizr.autolayout.LayoutCache;
+import com.structurizr.model.Element;
+import com.structurizr.view.*;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Applies a layered (Sugiyama style) automatic layout to views in a Structurizr workspace. Unlike the graphviz
+ * automatic layout, this runs in-process, and doesn't require any external tools.
+ *
+ * Boundaries (groups, software systems, containers and deployment nodes) are laid out from the inside out; the
+ * contents of each boundary are laid out first, and the boundary is then treated as a single node when laying out
+ * the elements around it, so that boundaries never overlap.
+ *
+ * The rank direction, rank separation and node separation are taken from the view's automatic layout
+ * configuration, if it has one.
+ *
+ * If a {@link LayoutCache} is specified, views that haven't changed since they were last laid out have the
+ * cached layout applied instead.
+ */
+public class LayeredAutomaticLayout {
+
+    private static final Log log = LogFactory.getLog(LayeredAutomaticLayout.class);
+
+    // the space between the contents of a boundary, and the boundary itself
+    private static final int CLUSTER_PADDING = 100;
+
+    private AutomaticLayout.RankDirection rankDirection = AutomaticLayout.RankDirection.TopBottom;
+    private int rankSeparation = 300;
+    private int nodeSeparation = 300;
+
+    private int margin = 400;
+    private boolean changePaperSize = true;
+
+    private LayoutCache layoutCache;
+
+    public void setRankDirection(AutomaticLayout.RankDirection rankDirection) {
+        if (rankDirection == null) {
+            throw new IllegalArgumentException("A rank direction must be specified.");
+        }
+
+        this.rankDirection = rankDirection;
+    }
+
+    public void setRankSeparation(int rankSeparation) {
+        if (rankSeparation < 0) {
+            throw new IllegalArgumentException("The rank separation must not be negative.");
+        }
+
+        this.rankSeparation = rankSeparation;
+    }
+
+    public void setNodeSeparation(int nodeSeparation) {
+        if (nodeSeparation < 0) {
+            throw new IllegalArgumentException("The node separation must not be negative.");
+        }
+
+        this.nodeSeparation = nodeSeparation;
+    }
+
+    public void setMargin(int margin) {
+        this.margin = margin;
+    }
+
+    public void setChangePaperSize(boolean changePaperSize) {
+        this.changePaperSize = changePaperSize;
+    }
+
+    /**
+     * Sets the cache used to store layouts, so that unchanged views aren't laid out again.
+     *
+     * @param layoutCache   a LayoutCache instance, or null to disable caching (the default)
+     */
+    public void setLayoutCache(LayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
+
+    public void apply(Workspace workspace) {
+        for (CustomView view : workspace.getViews().getCustomViews()) {
+            apply(view);
+        }
+
+        for (SystemLandscapeView view : workspace.getViews().getSystemLandscapeViews()) {
+            apply(view);
+        }
+
+        for (SystemContextView view : workspace.getViews().getSystemContextViews()) {
+            apply(view);
+        }
+
+        for (ContainerView view : workspace.getViews().getContainerViews()) {
+            apply(view);
+        }
+
+        for (ComponentView view : workspace.getViews().getComponentViews()) {
+            apply(view);
+        }
+
+        for (DynamicView view : workspace.getViews().getDynamicViews()) {
+            apply(view);
+        }
+
+        for (DeploymentView view : workspace.getViews().getDeploymentViews()) {
+            apply(view);
+        }
+    }
+
+    public void apply(ModelView view) {
+        if (view == null) {
+            throw new IllegalArgumentException("A view must be specified.");
+        }
+
+        log.debug("Applying layered layout to view with key " + view.getKey());
+
+        AutomaticLayout.RankDirection rankDirection = this.rankDirection;
+        int rankSeparation = this.rankSeparation;
+        int nodeSeparation = this.nodeSeparation;
+        if (view.getAutomaticLayout() != null) {
+            if (view.getAutomaticLayout().getRankDirection() != null) {
+                rankDirection = view.getAutomaticLayout().getRankDirection();
+            }
+            rankSeparation = view.getAutomaticLayout().getRankSeparation();
+            nodeSeparation = view.getAutomaticLayout().getNodeSeparation();
+        }
+        boolean horizontal = rankDirection == AutomaticLayout.RankDirection.LeftRight || rankDirection == AutomaticLayout.RankDirection.RightLeft;
+
+        GraphExporter exporter = new GraphExporter();
+        exporter.createGraph(view);
+        Node root = exporter.getRoot();
+        if (root.getChildren().isEmpty()) {
+            return;
+        }
+
+        String cacheKey = null;
+        if (layoutCache != null) {
+            // the boundaries shown depend on the view settings as well as the model, so are included in the key
+            StringBuilder clusters = new StringBuilder();
+            describe(root, clusters);
+
+            cacheKey = layoutCache.getKey(view,
+                    LayeredAutomaticLayout.class.getName(),
+                    "rankDirection=" + rankDirection,
+                    "rankSeparation=" + rankSeparation,
+                    "nodeSeparation=" + nodeSeparation,
+                    "margin=" + margin,
+                    "changePaperSize=" + changePaperSize,
+                    clusters.toString());
+
+            if (layoutCache.load(view, cacheKey)) {
+                log.debug("Cached layout applied to view with key " + view.getKey());
+                return;
+            }
+        }
+
+        // links are laid out in the innermost cluster that contains both ends
+        Map<Node, List<Link>> linksByCluster = new HashMap<>();
+        for (Link link : exporter.getLinks()) {
+            Node cluster = findCommonCluster(link.getSource(), link.getDestination());
+            if (cluster == null) {
+                // a link between a boundary and something inside it
+                continue;
+            }
+
+            link.setEnds(findChildOf(cluster, link.getSource()), findChildOf(cluster, link.getDestination()));
+            linksByCluster.computeIfAbsent(cluster, c -> new ArrayList<>()).add(link);
+        }
+
+        Styles styles = view.getViewSet().getConfiguration().getStyles();
+        layout(root, linksByCluster, styles, horizontal, rankSeparation, nodeSeparation);
+        position(root, linksByCluster);
+
+        apply(view, root, exporter.getLinks(), rankDirection);
+
+        if (layoutCache != null) {
+            layoutCache.save(view, cacheKey);
+        }
+    }
+
+    private void describe(Node cluster, StringBuilder buf) {
+        buf.append('(');
+        for (Node child : cluster.getChildren()) {
+            if (child.isCluster()) {
+                describe(child, buf);
+            } else {
+                buf.append(child.getId()).append(' ');
+            }
+        }
+        buf.append(')');
+    }
+
+    private Node findCommonCluster(Node source, Node destination) {
+        Set<Node> ancestors = new HashSet<>();
+        for (Node node = source.getParent(); node != null; node = node.getParent()) {
+            ancestors.add(node);
+        }
+
+        for (Node node = destination.getParent(); node != null; node = node.getParent()) {
+            if (node == source) {
+                return null;
+            }
+
+            if (ancestors.contains(node)) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    private Node findChildOf(Node cluster, Node node) {
+        while (node.getParent() != cluster) {
+            node = node.getParent();
+        }
+
+        return node;
+    }
+
+    private void layout(Node cluster, Map<Node, List<Link>> linksByCluster, Styles styles, boolean horizontal, int rankSeparation, int nodeSeparation) {
+        for (Node child : cluster.getChildren()) {
+            if (child.isCluster()) {
+                layout(child, linksByCluster, styles, horizontal, rankSeparation, nodeSeparation);
+            } else {
+                ElementStyle style = styles.findElementStyle(child.getElement());
+                if (horizontal) {
+                    child.setSize(style.getHeight(), style.getWidth());
+                } else {
+                    child.setSize(style.getWidth(), style.getHeight());
+                }
+            }
+        }
+
+        LayeredGraph graph = new LayeredGraph(rankSeparation, nodeSeparation);
+        graph.layout(cluster.getChildren(), linksByCluster.getOrDefault(cluster, Collections.emptyList()));
+        cluster.setSize(graph.getWidth() + CLUSTER_PADDING * 2, graph.getHeight() + CLUSTER_PADDING * 2);
+    }
+
+    private void position(Node cluster, Map<Node, List<Link>> linksByCluster) {
+        // convert positions relative to the parent cluster into absolute positions
+        for (Node child : cluster.getChildren()) {
+            child.setPosition(cluster.getCross() + child.getCross(), cluster.getRank() + child.getRank());
+            if (child.isCluster()) {
+                position(child, linksByCluster);
+            }
+        }
+
+        for (Link link : linksByCluster.getOrDefault(cluster, Collections.emptyList())) {
+            for (double[] point : link.getPoints()) {
+                point[0] += cluster.getCross();
+                point[1] += cluster.getRank();
+            }
+        }
+    }
+
+    private void apply(ModelView view, Node root, List<Link> links, AutomaticLayout.RankDirection rankDirection) {
+        boolean horizontal = rankDirection == AutomaticLayout.RankDirection.LeftRight || rankDirection == AutomaticLayout.RankDirection.RightLeft;
+
+        // convert from the cross/rank axes to view coordinates (centres, for now)
+        Map<Node, double[]> centres = new LinkedHashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        collect(root, nodes);
+        for (Node node : nodes) {
+            centres.put(node, toViewCoordinates(node.getCross(), node.getRank(), rankDirection));
+        }
+
+        Map<Link, List<double[]>> vertices = new LinkedHashMap<>();
+        for (Link link : links) {
+            List<double[]> points = new ArrayList<>();
+            for (double[] point : link.getPoints()) {
+                points.add(toViewCoordinates(point[0], point[1], rankDirection));
+            }
+            vertices.put(link, points);
+        }
+
+        double minimumX = Double.MAX_VALUE;
+        double minimumY = Double.MAX_VALUE;
+        double maximumX = -Double.MAX_VALUE;
+        double maximumY = -Double.MAX_VALUE;
+        for (Node node : nodes) {
+            double[] centre = centres.get(node);
+            double width = horizontal ? node.getRankSize() : node.getCrossSize();
+            double height = horizontal ? node.getCrossSize() : node.getRankSize();
+
+            minimumX = Math.min(minimumX, centre[0] - width / 2);
+            minimumY = Math.min(minimumY, centre[1] - height / 2);
+            maximumX = Math.max(maximumX, centre[0] + width / 2);
+            maximumY = Math.max(maximumY, centre[1] + height / 2);
+        }
+        for (List<double[]> points : vertices.values()) {
+            for (double[] point : points) {
+                minimumX = Math.min(minimumX, point[0]);
+                minimumY = Math.min(minimumY, point[1]);
+                maximumX = Math.max(maximumX, point[0]);
+                maximumY = Math.max(maximumY, point[1]);
+            }
+        }
+
+        // move everything so that there's a margin around the diagram
+        double deltaX = margin - minimumX;
+        double deltaY = margin - minimumY;
+
+        for (Node node : nodes) {
+            if (!node.isCluster()) {
+                Element element = node.getElement();
+                double[] centre = centres.get(node);
+                double width = horizontal ? node.getRankSize() : node.getCrossSize();
+                double height = horizontal ? node.getCrossSize() : node.getRankSize();
+
+                ElementView elementView = view.getElementView(element);
+                elementView.setX((int)Math.round(centre[0] - width / 2 + deltaX));
+                elementView.setY((int)Math.round(centre[1] - height / 2 + deltaY));
+            }
+        }
+
+        for (Map.Entry<Link, List<double[]>> entry : vertices.entrySet()) {
+            Set<Vertex> set = new LinkedHashSet<>();
+            for (double[] point : entry.getValue()) {
+                set.add(new Vertex((int)Math.round(point[0] + deltaX), (int)Math.round(point[1] + deltaY)));
+            }
+            entry.getKey().getRelationshipView().setVertices(set);
+        }
+
+        int pageWidth = (int)Math.round(maximumX - minimumX) + margin * 2;
+        int pageHeight = (int)Math.round(maximumY - minimumY) + margin * 2;
+
+        if (changePaperSize) {
+            view.setPaperSize(null);
+            view.setDimensions(new Dimensions(pageWidth, pageHeight));
+
+            PaperSize.Orientation orientation = (pageWidth > pageHeight) ? PaperSize.Orientation.Landscape : PaperSize.Orientation.Portrait;
+            for (PaperSize paperSize : PaperSize.getOrderedPaperSizes(orientation)) {
+                if (paperSize.getWidth() > (pageWidth) && paperSize.getHeight() > (pageHeight)) {
+                    view.setPaperSize(paperSize);
+                    break;
+                }
+            }
+        }
+
+        log.debug("Layout applied to view with key " + view.getKey());
+    }
+
+    private void collect(Node cluster, List<Node> nodes) {
+        for (Node child : cluster.getChildren()) {
+            nodes.add(child);
+            if (child.isCluster()) {
+                collect(child, nodes);
+            }
+        }
+    }
+
+    private double[] toViewCoordinates(double cross, double rank, AutomaticLayout.RankDirection rankDirection) {
+        switch (rankDirection) {
+            case BottomTop:
+                return new double[] { cross, -rank };
+            case LeftRight:
+                return new double[] { rank, cross };
+            case RightLeft:
+                return new double[] { -rank, cross };
+            default:
+                return new double[] { cross, rank };
+        }
+    }
+
+}
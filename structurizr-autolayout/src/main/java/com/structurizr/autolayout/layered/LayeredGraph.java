@@ -0,0 +1,512 @@
+package com.structurizr.autolayout.layered;
+
+import java.util.*;
+
+/**
+ * Lays out a set of nodes, and the links between them, using a layered (Sugiyama style) approach:
+ *
+ * 1. Cycles are removed by reversing the links that close a cycle (found with a depth-first search).
+ * 2. Nodes are assigned to layers (longest path), and links spanning more than one layer are split with dummy nodes.
+ * 3. Crossings are reduced by sorting the nodes in each layer by the barycenter of their neighbours, sweeping down
+ *    and up the layers, and keeping the ordering with the fewest crossings.
+ * 4. Positions on the cross axis are found by repeatedly moving each node towards its neighbours, while keeping the
+ *    order of (and separation between) the nodes in each layer.
+ *
+ * Node positions are relative to the centre of the bounding box of the nodes/links, and the bend points
+ * of links spanning more than one layer are recorded on the links.
+ */
+class LayeredGraph {
+
+    private static final int MAXIMUM_NUMBER_OF_SWEEPS = 24;
+    private static final int MAXIMUM_NUMBER_OF_SWEEPS_WITHOUT_IMPROVEMENT = 4;
+    private static final int NUMBER_OF_BALANCING_PASSES = 8;
+
+    // dummy nodes are moved more reluctantly, which keeps long links straight
+    private static final double DUMMY_NODE_WEIGHT = 4;
+
+    private final double rankSeparation;
+    private final double nodeSeparation;
+
+    private double width;
+    private double height;
+
+    LayeredGraph(double rankSeparation, double nodeSeparation) {
+        this.rankSeparation = rankSeparation;
+        this.nodeSeparation = nodeSeparation;
+    }
+
+    /**
+     * Gets the size of the bounding box on the cross axis.
+     */
+    double getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the size of the bounding box on the rank axis.
+     */
+    double getHeight() {
+        return height;
+    }
+
+    /**
+     * Lays out the given nodes and links; links are laid out between their "from" and "to" nodes.
+     */
+    void layout(List<Node> nodes, List<Link> links) {
+        if (nodes.isEmpty()) {
+            width = 0;
+            height = 0;
+            return;
+        }
+
+        Map<Node, Integer> indexes = new HashMap<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (Node node : nodes) {
+            indexes.put(node, vertices.size());
+            vertices.add(new Vertex(node, node.getCrossSize(), node.getRankSize()));
+        }
+
+        List<Link> layoutLinks = new ArrayList<>();
+        List<int[]> ends = new ArrayList<>();
+        for (Link link : links) {
+            Integer from = indexes.get(link.getFrom());
+            Integer to = indexes.get(link.getTo());
+            if (from != null && to != null && !from.equals(to)) {
+                layoutLinks.add(link);
+                ends.add(new int[] { from, to });
+            }
+        }
+
+        boolean[] reversed = removeCycles(vertices.size(), ends);
+        int[] layerIndexes = assignLayers(vertices.size(), ends, reversed);
+
+        int numberOfLayers = 0;
+        for (int layerIndex : layerIndexes) {
+            numberOfLayers = Math.max(numberOfLayers, layerIndex + 1);
+        }
+
+        List<List<Vertex>> layers = new ArrayList<>();
+        for (int i = 0; i < numberOfLayers; i++) {
+            layers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < vertices.size(); i++) {
+            vertices.get(i).layer = layerIndexes[i];
+            layers.get(layerIndexes[i]).add(vertices.get(i));
+        }
+
+        // split links that span more than one layer
+        List<List<Vertex>> chains = new ArrayList<>();
+        for (int i = 0; i < layoutLinks.size(); i++) {
+            Vertex upper = vertices.get(reversed[i] ? ends.get(i)[1] : ends.get(i)[0]);
+            Vertex lower = vertices.get(reversed[i] ? ends.get(i)[0] : ends.get(i)[1]);
+
+            List<Vertex> chain = new ArrayList<>();
+            Vertex previous = upper;
+            for (int layer = upper.layer + 1; layer < lower.layer; layer++) {
+                Vertex dummy = new Vertex(null, 0, 0);
+                dummy.layer = layer;
+                layers.get(layer).add(dummy);
+                connect(previous, dummy);
+                chain.add(dummy);
+                previous = dummy;
+            }
+            connect(previous, lower);
+
+            chains.add(chain);
+        }
+
+        reduceCrossings(layers);
+        assignPositions(layers);
+
+        // calculate the bounding box, and make everything relative to its centre
+        double minimumCross = Double.MAX_VALUE;
+        double maximumCross = -Double.MAX_VALUE;
+        double minimumRank = Double.MAX_VALUE;
+        double maximumRank = -Double.MAX_VALUE;
+        for (List<Vertex> layer : layers) {
+            for (Vertex vertex : layer) {
+                minimumCross = Math.min(minimumCross, vertex.cross - vertex.crossSize / 2);
+                maximumCross = Math.max(maximumCross, vertex.cross + vertex.crossSize / 2);
+                minimumRank = Math.min(minimumRank, vertex.rank - vertex.rankSize / 2);
+                maximumRank = Math.max(maximumRank, vertex.rank + vertex.rankSize / 2);
+            }
+        }
+
+        width = maximumCross - minimumCross;
+        height = maximumRank - minimumRank;
+        double centreCross = (minimumCross + maximumCross) / 2;
+        double centreRank = (minimumRank + maximumRank) / 2;
+
+        for (Vertex vertex : vertices) {
+            vertex.node.setPosition(vertex.cross - centreCross, vertex.rank - centreRank);
+        }
+
+        for (int i = 0; i < layoutLinks.size(); i++) {
+            List<double[]> points = layoutLinks.get(i).getPoints();
+            points.clear();
+            for (Vertex dummy : chains.get(i)) {
+                points.add(new double[] { dummy.cross - centreCross, dummy.rank - centreRank });
+            }
+
+            if (reversed[i]) {
+                Collections.reverse(points);
+            }
+        }
+    }
+
+    private void connect(Vertex upper, Vertex lower) {
+        upper.lower.add(lower);
+        lower.upper.add(upper);
+    }
+
+    private boolean[] removeCycles(int numberOfVertices, List<int[]> ends) {
+        List<List<Integer>> outgoing = new ArrayList<>();
+        for (int i = 0; i < numberOfVertices; i++) {
+            outgoing.add(new ArrayList<>());
+        }
+        for (int i = 0; i < ends.size(); i++) {
+            outgoing.get(ends.get(i)[0]).add(i);
+        }
+
+        // 0 = not visited, 1 = on the current path, 2 = finished
+        int[] state = new int[numberOfVertices];
+        boolean[] reversed = new boolean[ends.size()];
+
+        for (int start = 0; start < numberOfVertices; start++) {
+            if (state[start] != 0) {
+                continue;
+            }
+
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[] { start, 0 });
+            state[start] = 1;
+
+            while (!stack.isEmpty()) {
+                int[] top = stack.peek();
+                List<Integer> links = outgoing.get(top[0]);
+                if (top[1] < links.size()) {
+                    int link = links.get(top[1]++);
+                    int destination = ends.get(link)[1];
+                    if (state[destination] == 1) {
+                        reversed[link] = true;
+                    } else if (state[destination] == 0) {
+                        state[destination] = 1;
+                        stack.push(new int[] { destination, 0 });
+                    }
+                } else {
+                    state[top[0]] = 2;
+                    stack.pop();
+                }
+            }
+        }
+
+        return reversed;
+    }
+
+    private int[] assignLayers(int numberOfVertices, List<int[]> ends, boolean[] reversed) {
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int i = 0; i < numberOfVertices; i++) {
+            successors.add(new ArrayList<>());
+        }
+
+        int[] inDegree = new int[numberOfVertices];
+        for (int i = 0; i < ends.size(); i++) {
+            int from = reversed[i] ? ends.get(i)[1] : ends.get(i)[0];
+            int to = reversed[i] ? ends.get(i)[0] : ends.get(i)[1];
+            successors.get(from).add(to);
+            inDegree[to]++;
+        }
+
+        // longest path from the sources, in topological order
+        int[] layers = new int[numberOfVertices];
+        int[] remaining = inDegree.clone();
+        List<Integer> order = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < numberOfVertices; i++) {
+            if (remaining[i] == 0) {
+                queue.add(i);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            order.add(vertex);
+            for (int successor : successors.get(vertex)) {
+                layers[successor] = Math.max(layers[successor], layers[vertex] + 1);
+                if (--remaining[successor] == 0) {
+                    queue.add(successor);
+                }
+            }
+        }
+
+        // move sources down, so that they're placed just above their successors
+        for (int i = order.size() - 1; i >= 0; i--) {
+            int vertex = order.get(i);
+            if (inDegree[vertex] == 0 && !successors.get(vertex).isEmpty()) {
+                int layer = Integer.MAX_VALUE;
+                for (int successor : successors.get(vertex)) {
+                    layer = Math.min(layer, layers[successor]);
+                }
+                layers[vertex] = layer - 1;
+            }
+        }
+
+        int minimumLayer = Integer.MAX_VALUE;
+        for (int layer : layers) {
+            minimumLayer = Math.min(minimumLayer, layer);
+        }
+        for (int i = 0; i < numberOfVertices; i++) {
+            layers[i] -= minimumLayer;
+        }
+
+        return layers;
+    }
+
+    private void reduceCrossings(List<List<Vertex>> layers) {
+        updatePositions(layers);
+        long bestCrossings = countCrossings(layers);
+        List<List<Vertex>> bestLayers = copy(layers);
+
+        int sweepsWithoutImprovement = 0;
+        for (int sweep = 0; sweep < MAXIMUM_NUMBER_OF_SWEEPS && bestCrossings > 0; sweep++) {
+            if (sweep % 2 == 0) {
+                for (int i = 1; i < layers.size(); i++) {
+                    sortByBarycenter(layers.get(i), true);
+                }
+            } else {
+                for (int i = layers.size() - 2; i >= 0; i--) {
+                    sortByBarycenter(layers.get(i), false);
+                }
+            }
+
+            long crossings = countCrossings(layers);
+            if (crossings < bestCrossings) {
+                bestCrossings = crossings;
+                bestLayers = copy(layers);
+                sweepsWithoutImprovement = 0;
+            } else if (++sweepsWithoutImprovement >= MAXIMUM_NUMBER_OF_SWEEPS_WITHOUT_IMPROVEMENT) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < layers.size(); i++) {
+            layers.set(i, bestLayers.get(i));
+        }
+        updatePositions(layers);
+    }
+
+    private List<List<Vertex>> copy(List<List<Vertex>> layers) {
+        List<List<Vertex>> copy = new ArrayList<>();
+        for (List<Vertex> layer : layers) {
+            copy.add(new ArrayList<>(layer));
+        }
+
+        return copy;
+    }
+
+    private void updatePositions(List<List<Vertex>> layers) {
+        for (List<Vertex> layer : layers) {
+            updatePositionsInLayer(layer);
+        }
+    }
+
+    private void updatePositionsInLayer(List<Vertex> layer) {
+        for (int i = 0; i < layer.size(); i++) {
+            layer.get(i).position = i;
+        }
+    }
+
+    private void sortByBarycenter(List<Vertex> layer, boolean upper) {
+        for (Vertex vertex : layer) {
+            List<Vertex> neighbours = upper ? vertex.upper : vertex.lower;
+            if (neighbours.isEmpty()) {
+                vertex.barycenter = vertex.position;
+            } else {
+                double sum = 0;
+                for (Vertex neighbour : neighbours) {
+                    sum += neighbour.position;
+                }
+                vertex.barycenter = sum / neighbours.size();
+            }
+        }
+
+        // this is a stable sort, so ties keep their existing order
+        layer.sort(Comparator.comparingDouble(v -> v.barycenter));
+        updatePositionsInLayer(layer);
+    }
+
+    private long countCrossings(List<List<Vertex>> layers) {
+        long crossings = 0;
+        for (int i = 0; i < layers.size() - 1; i++) {
+            // the number of crossings between two layers is the number of inversions in the positions of the lower
+            // ends of the links, when the links are sorted by the positions of their upper ends
+            int size = layers.get(i + 1).size();
+            long[] tree = new long[size + 1];
+            long count = 0;
+
+            for (Vertex vertex : layers.get(i)) {
+                int[] positions = new int[vertex.lower.size()];
+                for (int j = 0; j < positions.length; j++) {
+                    positions[j] = vertex.lower.get(j).position;
+                }
+                Arrays.sort(positions);
+
+                for (int position : positions) {
+                    // the number of links seen so far, with a lower end to the right of this one
+                    long atOrBefore = 0;
+                    for (int k = position + 1; k > 0; k -= k & -k) {
+                        atOrBefore += tree[k];
+                    }
+                    crossings += count - atOrBefore;
+
+                    for (int k = position + 1; k <= size; k += k & -k) {
+                        tree[k]++;
+                    }
+                    count++;
+                }
+            }
+        }
+
+        return crossings;
+    }
+
+    private void assignPositions(List<List<Vertex>> layers) {
+        // rank axis: each layer is as tall as its tallest node, and nodes are centred within their layer
+        double rank = 0;
+        for (List<Vertex> layer : layers) {
+            double layerSize = 0;
+            for (Vertex vertex : layer) {
+                layerSize = Math.max(layerSize, vertex.rankSize);
+            }
+
+            for (Vertex vertex : layer) {
+                vertex.rank = rank + layerSize / 2;
+            }
+
+            rank += layerSize + rankSeparation;
+        }
+
+        // cross axis: start with the nodes packed together, and then move them towards their neighbours
+        for (List<Vertex> layer : layers) {
+            double cross = 0;
+            for (int i = 0; i < layer.size(); i++) {
+                if (i > 0) {
+                    cross += separation(layer.get(i - 1), layer.get(i));
+                }
+                layer.get(i).cross = cross;
+            }
+        }
+
+        for (int pass = 0; pass < NUMBER_OF_BALANCING_PASSES; pass++) {
+            for (int i = 1; i < layers.size(); i++) {
+                balance(layers.get(i), true, false);
+            }
+
+            for (int i = layers.size() - 2; i >= 0; i--) {
+                balance(layers.get(i), false, true);
+            }
+        }
+
+        for (List<Vertex> layer : layers) {
+            balance(layer, true, true);
+        }
+    }
+
+    private double separation(Vertex left, Vertex right) {
+        double separation = (left.isDummy() || right.isDummy()) ? nodeSeparation / 2 : nodeSeparation;
+
+        return (left.crossSize + right.crossSize) / 2 + separation;
+    }
+
+    /**
+     * Moves the vertices in a layer as close as possible (least squares) to the average position of their neighbours,
+     * while keeping their order and separation, using the "pool adjacent violators" algorithm.
+     */
+    private void balance(List<Vertex> layer, boolean upper, boolean lower) {
+        int size = layer.size();
+        double[] offsets = new double[size];
+        double[] targets = new double[size];
+        double[] weights = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            Vertex vertex = layer.get(i);
+            offsets[i] = (i == 0) ? 0 : offsets[i - 1] + separation(layer.get(i - 1), vertex);
+
+            double sum = 0;
+            int count = 0;
+            if (upper) {
+                for (Vertex neighbour : vertex.upper) {
+                    sum += neighbour.cross;
+                    count++;
+                }
+            }
+            if (lower) {
+                for (Vertex neighbour : vertex.lower) {
+                    sum += neighbour.cross;
+                    count++;
+                }
+            }
+
+            double target = (count > 0) ? sum / count : vertex.cross;
+            targets[i] = target - offsets[i];
+            weights[i] = vertex.isDummy() ? DUMMY_NODE_WEIGHT : 1;
+        }
+
+        // merge adjacent blocks until their (weighted) means are non-decreasing
+        double[] blockSums = new double[size];
+        double[] blockWeights = new double[size];
+        int[] blockSizes = new int[size];
+        int blocks = 0;
+        for (int i = 0; i < size; i++) {
+            blockSums[blocks] = targets[i] * weights[i];
+            blockWeights[blocks] = weights[i];
+            blockSizes[blocks] = 1;
+            blocks++;
+
+            while (blocks > 1 && blockSums[blocks - 2] / blockWeights[blocks - 2] > blockSums[blocks - 1] / blockWeights[blocks - 1]) {
+                blockSums[blocks - 2] += blockSums[blocks - 1];
+                blockWeights[blocks - 2] += blockWeights[blocks - 1];
+                blockSizes[blocks - 2] += blockSizes[blocks - 1];
+                blocks--;
+            }
+        }
+
+        int i = 0;
+        for (int block = 0; block < blocks; block++) {
+            double mean = blockSums[block] / blockWeights[block];
+            for (int j = 0; j < blockSizes[block]; j++) {
+                layer.get(i).cross = mean + offsets[i];
+                i++;
+            }
+        }
+    }
+
+    private static class Vertex {
+
+        private final Node node;
+        private final double crossSize;
+        private final double rankSize;
+
+        private final List<Vertex> upper = new ArrayList<>();
+        private final List<Vertex> lower = new ArrayList<>();
+
+        private int layer;
+        private int position;
+        private double barycenter;
+
+        private double cross;
+        private double rank;
+
+        Vertex(Node node, double crossSize, double rankSize) {
+            this.node = node;
+            this.crossSize = crossSize;
+            this.rankSize = rankSize;
+        }
+
+        boolean isDummy() {
+            return node == null;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.view.RelationshipView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A link between two nodes, representing a relationship view.
+ */
+class Link {
+
+    private final RelationshipView relationshipView;
+    private final Node source;
+    private final Node destination;
+
+    private Node from;
+    private Node to;
+
+    private final List<double[]> points = new ArrayList<>();
+
+    Link(RelationshipView relationshipView, Node source, Node destination) {
+        this.relationshipView = relationshipView;
+        this.source = source;
+        this.destination = destination;
+    }
+
+    RelationshipView getRelationshipView() {
+        return relationshipView;
+    }
+
+    Node getSource() {
+        return source;
+    }
+
+    Node getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets the node that represents the source of this link, in the cluster where the link is laid out
+     * (i.e. the source itself, or the cluster containing it).
+     */
+    Node getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the node that represents the destination of this link, in the cluster where the link is laid out
+     * (i.e. the destination itself, or the cluster containing it).
+     */
+    Node getTo() {
+        return to;
+    }
+
+    void setEnds(Node from, Node to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Gets the bend points of this link, as {cross, rank} pairs, from source to destination.
+     */
+    List<double[]> getPoints() {
+        return points;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.model.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node in the graph that is laid out; either an element, or a cluster (e.g. a group, software system,
+ * container or deployment node boundary) that contains other nodes.
+ *
+ * Sizes and coordinates are expressed in terms of the layout, rather than the view: the "cross" axis runs
+ * across the layers/ranks, and the "rank" axis runs along the rank direction.
+ */
+class Node {
+
+    private final String id;
+    private final Element element;
+
+    private Node parent;
+    private final List<Node> children = new ArrayList<>();
+
+    private double crossSize;
+    private double rankSize;
+
+    private double cross;
+    private double rank;
+
+    Node(String id, Element element) {
+        this.id = id;
+        this.element = element;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Element getElement() {
+        return element;
+    }
+
+    boolean isCluster() {
+        return element == null;
+    }
+
+    Node getParent() {
+        return parent;
+    }
+
+    List<Node> getChildren() {
+        return children;
+    }
+
+    void add(Node child) {
+        child.parent = this;
+        children.add(child);
+    }
+
+    double getCrossSize() {
+        return crossSize;
+    }
+
+    double getRankSize() {
+        return rankSize;
+    }
+
+    void setSize(double crossSize, double rankSize) {
+        this.crossSize = crossSize;
+        this.rankSize = rankSize;
+    }
+
+    /**
+     * Gets the position of the centre of this node on the cross axis (relative to the centre of the parent cluster
+     * while the layout is being calculated, and absolute afterwards).
+     */
+    double getCross() {
+        return cross;
+    }
+
+    /**
+     * Gets the position of the centre of this node on the rank axis (relative to the centre of the parent cluster
+     * while the layout is being calculated, and absolute afterwards).
+     */
+    double getRank() {
+        return rank;
+    }
+
+    void setPosition(double cross, double rank) {
+        this.cross = cross;
+        this.rank = rank;
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.structurizr.autolayout;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.model.Tags;
+import com.structurizr.view.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayoutCacheTests {
+
+    @Test
+    public void construction_ThrowsAnException_WhenANullDirectoryIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new LayoutCache(null));
+        assertEquals("A directory must be specified.", e.getMessage());
+    }
+
+    @Test
+    public void getKey_ReturnsTheSameKey_WhenTheViewHasNotChanged() throws Exception {
+        LayoutCache layoutCache = new LayoutCache(Files.createTempDirectory("layout").toFile());
+
+        assertEquals(
+                layoutCache.getKey(createView(), "parameter"),
+                layoutCache.getKey(createView(), "parameter"));
+    }
+
+    @Test
+    public void getKey_ReturnsADifferentKey_WhenTheViewHasChanged() throws Exception {
+        LayoutCache layoutCache = new LayoutCache(Files.createTempDirectory("layout").toFile());
+        String key = layoutCache.getKey(createView(), "parameter");
+
+        // different parameters
+        assertNotEquals(key, layoutCache.getKey(createView(), "another parameter"));
+
+        // an additional element
+        SystemContextView view = createView();
+        view.getModel().addSoftwareSystem("E-mail System");
+        view.addAllElements();
+        assertNotEquals(key, layoutCache.getKey(view, "parameter"));
+
+        // an additional relationship
+        view = createView();
+        view.getModel().getSoftwareSystemWithName("Software System").delivers(view.getModel().getPersonWithName("User"), "Notifies");
+        view.addAllElements();
+        assertNotEquals(key, layoutCache.getKey(view, "parameter"));
+
+        // different element dimensions
+        view = createView();
+        view.getViewSet().getConfiguration().getStyles().getElementStyle(Tags.PERSON).width(500);
+        assertNotEquals(key, layoutCache.getKey(view, "parameter"));
+
+        // different automatic layout settings
+        view = createView();
+        view.enableAutomaticLayout(AutomaticLayout.RankDirection.LeftRight);
+        assertNotEquals(key, layoutCache.getKey(view, "parameter"));
+
+        // unrelated changes to the model don't change the key
+        view = createView();
+        view.getModel().getPersonWithName("User").setDescription("A user of the software system.");
+        view.getModel().addSoftwareSystem("Unrelated");
+        assertEquals(key, layoutCache.getKey(view, "parameter"));
+    }
+
+    @Test
+    public void getKey_ReturnsADifferentKey_WhenARelationshipHasADifferentDestination() throws Exception {
+        LayoutCache layoutCache = new LayoutCache(Files.createTempDirectory("layout").toFile());
+
+        // the element and relationship IDs are the same in both views, but the relationship points somewhere else
+        SystemLandscapeView view1 = createSystemLandscapeView(false);
+        SystemLandscapeView view2 = createSystemLandscapeView(true);
+        assertEquals(
+                view1.getRelationships().iterator().next().getId(),
+                view2.getRelationships().iterator().next().getId());
+
+        assertNotEquals(layoutCache.getKey(view1), layoutCache.getKey(view2));
+    }
+
+    @Test
+    public void load_ReturnsFalse_WhenTheKeyIsNotInTheCache() throws Exception {
+        LayoutCache layoutCache = new LayoutCache(Files.createTempDirectory("layout").toFile());
+        SystemContextView view = createView();
+
+        assertFalse(layoutCache.load(view, layoutCache.getKey(view)));
+    }
+
+    @Test
+    public void saveAndLoad() throws Exception {
+        File directory = new File(Files.createTempDirectory("layout").toFile(), "cache");
+        LayoutCache layoutCache = new LayoutCache(directory);
+
+        SystemContextView view = createView();
+        Person user = view.getModel().getPersonWithName("User");
+        SoftwareSystem softwareSystem = view.getModel().getSoftwareSystemWithName("Software System");
+        view.getElementView(user).setX(100);
+        view.getElementView(user).setY(200);
+        view.getElementView(softwareSystem).setX(300);
+        view.getElementView(softwareSystem).setY(400);
+        view.getRelationshipView(user.getEfferentRelationshipWith(softwareSystem)).setVertices(List.of(new Vertex(10, 20), new Vertex(30, 40)));
+        view.setDimensions(new Dimensions(1000, 800));
+        view.setPaperSize(PaperSize.A5_Landscape);
+
+        String key = layoutCache.getKey(view);
+        layoutCache.save(view, key);
+        assertTrue(new File(directory, key + ".properties").exists());
+
+        view = createView();
+        user = view.getModel().getPersonWithName("User");
+        softwareSystem = view.getModel().getSoftwareSystemWithName("Software System");
+        assertTrue(layoutCache.load(view, key));
+        assertEquals(100, view.getElementView(user).getX());
+        assertEquals(200, view.getElementView(user).getY());
+        assertEquals(300, view.getElementView(softwareSystem).getX());
+        assertEquals(400, view.getElementView(softwareSystem).getY());
+
+        List<Vertex> vertices = List.copyOf(view.getRelationshipView(user.getEfferentRelationshipWith(softwareSystem)).getVertices());
+        assertEquals(2, vertices.size());
+        assertEquals(10, vertices.get(0).getX());
+        assertEquals(20, vertices.get(0).getY());
+        assertEquals(30, vertices.get(1).getX());
+        assertEquals(40, vertices.get(1).getY());
+
+        assertEquals(1000, view.getDimensions().getWidth());
+        assertEquals(800, view.getDimensions().getHeight());
+        assertEquals(PaperSize.A5_Landscape, view.getPaperSize());
+    }
+
+    @Test
+    public void load_ReturnsFalse_WhenTheCachedLayoutIsIncomplete() throws Exception {
+        File directory = Files.createTempDirectory("layout").toFile();
+        LayoutCache layoutCache = new LayoutCache(directory);
+        SystemContextView view = createView();
+        Files.writeString(new File(directory, "key.properties").toPath(), "element.1=100,200\n");
+
+        assertFalse(layoutCache.load(view, "key"));
+        assertEquals(0, view.getElementView(view.getModel().getPersonWithName("User")).getX());
+    }
+
+    private SystemContextView createView() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        user.uses(softwareSystem, "Uses");
+
+        SystemContextView view = workspace.getViews().createSystemContextView(softwareSystem, "SystemContext", "Description");
+        view.addAllElements();
+        workspace.getViews().getConfiguration().getStyles().addElementStyle(Tags.PERSON).shape(Shape.Person);
+
+        return view;
+    }
+
+    private SystemLandscapeView createSystemLandscapeView(boolean usesEmailSystem) {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        SoftwareSystem emailSystem = workspace.getModel().addSoftwareSystem("E-mail System");
+        user.uses(usesEmailSystem ? emailSystem : softwareSystem, "Uses");
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("SystemLandscape", "Description");
+        view.addAllElements();
+
+        return view;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.structurizr.autolayout.graphviz;
 
 import com.structurizr.Workspace;
+import com.structurizr.autolayout.LayoutCache;
 import com.structurizr.autolayout.graphviz.GraphvizAutomaticLayout;
 import com.structurizr.model.Person;
 import com.structurizr.model.SoftwareSystem;
@@ -8,11 +9,16 @@ import com.structurizr.model.Tags;
 import com.structurizr.view.Shape;
 import com.structurizr.view.SystemContextView;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.concurrent.TimeoutException;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class GraphvizAutomaticLayoutTests {
 
@@ -47,4 +53,183 @@ public class GraphvizAutomaticLayoutTests {
         assertEquals(908, view.getElementView(softwareSystem).getY());
     }
 
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void apply_RunsGraphvizConcurrently_WhenTheNumberOfThreadsIsGreaterThanOne() throws Exception {
+        Workspace workspace = createWorkspace(4);
+        File tempDir = Files.createTempDirectory("graphviz").toFile();
+        GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(tempDir);
+        graphviz.setDotExecutable(createDotExecutable(tempDir, 2));
+        graphviz.setMargin(200);
+        graphviz.setNumberOfThreads(4);
+
+        long start = System.currentTimeMillis();
+        graphviz.apply(workspace);
+        long duration = System.currentTimeMillis() - start;
+
+        // each "dot" process takes 2 seconds, so running the 4 processes one after the other would take 8 seconds
+        assertTrue(duration < 6000, "Took " + duration + "ms");
+
+        Person user = workspace.getModel().getPersonWithName("User");
+        SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System");
+        for (SystemContextView view : workspace.getViews().getSystemContextViews()) {
+            assertEquals(254, view.getElementView(user).getX());
+            assertEquals(108, view.getElementView(user).getY());
+            assertEquals(229, view.getElementView(softwareSystem).getX());
+            assertEquals(808, view.getElementView(softwareSystem).getY());
+        }
+
+        // the temporary directories have been removed
+        assertEquals(1, tempDir.listFiles().length);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void apply_PipesTheDOTDefinitionToGraphviz_WhenInMemoryIsTrue() throws Exception {
+        for (int numberOfThreads : new int[] { 1, 2 }) {
+            Workspace workspace = createWorkspace(2);
+            File tempDir = Files.createTempDirectory("graphviz").toFile();
+            GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(tempDir);
+            graphviz.setDotExecutable(createDotExecutable(tempDir, 0));
+            graphviz.setMargin(200);
+            graphviz.setNumberOfThreads(numberOfThreads);
+            graphviz.setInMemory(true);
+
+            graphviz.apply(workspace);
+
+            Person user = workspace.getModel().getPersonWithName("User");
+            SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System");
+            for (SystemContextView view : workspace.getViews().getSystemContextViews()) {
+                assertEquals(254, view.getElementView(user).getX());
+                assertEquals(108, view.getElementView(user).getY());
+                assertEquals(229, view.getElementView(softwareSystem).getX());
+                assertEquals(808, view.getElementView(softwareSystem).getY());
+            }
+
+            // no DOT/SVG files have been written
+            assertEquals(1, tempDir.listFiles().length);
+        }
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void apply_ThrowsAnException_WhenGraphvizDoesNotCompleteWithinTheTimeout() throws Exception {
+        Workspace workspace = createWorkspace(2);
+        File tempDir = Files.createTempDirectory("graphviz").toFile();
+        GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(tempDir);
+        graphviz.setDotExecutable(createDotExecutable(tempDir, 30));
+        graphviz.setNumberOfThreads(2);
+        graphviz.setTimeout(500);
+
+        long start = System.currentTimeMillis();
+        TimeoutException e = assertThrowsExactly(TimeoutException.class, () -> graphviz.apply(workspace));
+        assertEquals("Graphviz did not complete within 500ms for view with key SystemContext1", e.getMessage());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void apply_ThrowsAnException_WhenGraphvizDoesNotReadTheDefinitionWithinTheTimeout() throws Exception {
+        // the DOT definition is much larger than a pipe buffer, and the "dot" stub doesn't read it until it has slept
+        Workspace workspace = createWorkspace(1);
+        SystemContextView view = workspace.getViews().getSystemContextViews().iterator().next();
+        for (int i = 1; i <= 2000; i++) {
+            view.add(workspace.getModel().addSoftwareSystem("Software System " + i, "Description " + i));
+        }
+
+        File tempDir = Files.createTempDirectory("graphviz").toFile();
+        GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(tempDir);
+        graphviz.setDotExecutable(createDotExecutable(tempDir, 30));
+        graphviz.setInMemory(true);
+        graphviz.setTimeout(500);
+
+        long start = System.currentTimeMillis();
+        TimeoutException e = assertThrowsExactly(TimeoutException.class, () -> graphviz.apply(workspace));
+        assertEquals("Graphviz did not complete within 500ms for view with key SystemContext1", e.getMessage());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void apply_UsesCachedLayouts_WhenALayoutCacheIsSpecified() throws Exception {
+        for (int numberOfThreads : new int[] { 1, 2 }) {
+            File tempDir = Files.createTempDirectory("graphviz").toFile();
+            LayoutCache layoutCache = new LayoutCache(new File(tempDir, "cache"));
+
+            GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(tempDir);
+            graphviz.setDotExecutable(createDotExecutable(tempDir, 0));
+            graphviz.setMargin(200);
+            graphviz.setNumberOfThreads(numberOfThreads);
+            graphviz.setLayoutCache(layoutCache);
+            Workspace original = createWorkspace(2);
+            graphviz.apply(original);
+            assertEquals(2, new File(tempDir, "cache").listFiles().length);
+            SystemContextView originalView = original.getViews().getSystemContextViews().iterator().next();
+
+            // the views haven't changed, so "dot" shouldn't be run again
+            Workspace workspace = createWorkspace(2);
+            graphviz.setDotExecutable(new File(tempDir, "missing.sh").getAbsolutePath());
+            graphviz.apply(workspace);
+
+            Person user = workspace.getModel().getPersonWithName("User");
+            SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System");
+            for (SystemContextView view : workspace.getViews().getSystemContextViews()) {
+                assertEquals(254, view.getElementView(user).getX());
+                assertEquals(108, view.getElementView(user).getY());
+                assertEquals(229, view.getElementView(softwareSystem).getX());
+                assertEquals(808, view.getElementView(softwareSystem).getY());
+                assertEquals(originalView.getDimensions().getWidth(), view.getDimensions().getWidth());
+                assertEquals(originalView.getDimensions().getHeight(), view.getDimensions().getHeight());
+                assertEquals(originalView.getPaperSize(), view.getPaperSize());
+            }
+
+            // but changing a view means that it is laid out again
+            workspace.getViews().getConfiguration().getStyles().getElementStyle(Tags.PERSON).width(500);
+            assertThrows(IOException.class, () -> graphviz.apply(workspace));
+        }
+    }
+
+    @Test
+    public void setNumberOfThreads_ThrowsAnException_WhenANonPositiveNumberIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new GraphvizAutomaticLayout().setNumberOfThreads(0));
+        assertEquals("The number of threads must be a positive integer.", e.getMessage());
+    }
+
+    @Test
+    public void setTimeout_ThrowsAnException_WhenANegativeNumberIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new GraphvizAutomaticLayout().setTimeout(-1));
+        assertEquals("The timeout must not be negative.", e.getMessage());
+    }
+
+    private Workspace createWorkspace(int numberOfViews) {
+        Workspace workspace = new Workspace("Name", "");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        user.uses(softwareSystem, "Uses");
+
+        for (int i = 1; i <= numberOfViews; i++) {
+            SystemContextView view = workspace.getViews().createSystemContextView(softwareSystem, "SystemContext" + i, "");
+            view.addAllElements();
+        }
+
+        workspace.getViews().getConfiguration().getStyles().addElementStyle(Tags.PERSON).shape(Shape.Person);
+
+        return workspace;
+    }
+
+    private String createDotExecutable(File directory, int durationInSeconds) throws Exception {
+        // a stub for "dot", which outputs a pre-generated SVG file (to stdout when the DOT definition is piped to it,
+        // or alongside the DOT file specified as the first argument otherwise)
+        String svg = new File("./src/test/resources/graphviz/SystemContext.dot.svg").getAbsolutePath();
+        File dot = new File(directory, "dot.sh");
+        Files.writeString(dot.toPath(), String.format(
+                "#!/bin/sh%n" +
+                "sleep %d%n" +
+                "if [ \"$1\" = \"-Tsvg\" ]; then cat > /dev/null; cat \"%s\"; else cp \"%s\" \"$1.svg\"; fi%n",
+                durationInSeconds, svg, svg), StandardCharsets.UTF_8);
+        assertTrue(dot.setExecutable(true));
+
+        return dot.getAbsolutePath();
+    }
+
 }
\ No newline at end of file
@@ -6,11 +6,16 @@ import com.structurizr.model.Person;
 import com.structurizr.model.SoftwareSystem;
 import com.structurizr.model.Tags;
 import com.structurizr.view.PaperSize;
+import com.structurizr.view.RelationshipView;
 import com.structurizr.view.Shape;
 import com.structurizr.view.SystemContextView;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -34,8 +39,10 @@ public class SVGReaderTests {
 
         assertNull(view.getPaperSize());
 
-        SVGReader svgReader = new SVGReader(PATH, 200, true);
-        svgReader.parseAndApplyLayout(view);
+        SVGReader svgReader = new SVGReader(200, true);
+        try (InputStream inputStream = new FileInputStream(new File(PATH, view.getKey() + ".dot.svg"))) {
+            svgReader.parseAndApplyLayout(view, inputStream);
+        }
 
         assertEquals(PaperSize.A6_Portrait, view.getPaperSize());
 
@@ -46,6 +53,41 @@ public class SVGReaderTests {
         assertEquals(808, view.getElementView(softwareSystem).getY());
     }
 
+    @Test
+    public void test_readViewFromAnInputStream() throws Exception {
+        Workspace workspace = createWorkspace();
+        SystemContextView view = workspace.getViews().getSystemContextViews().iterator().next();
+        Person user = workspace.getModel().getPersonWithName("User");
+        SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System");
+        RelationshipView relationshipView = view.getRelationships().iterator().next();
+
+        String svg =
+                "<svg width=\"182pt\" height=\"281pt\" xmlns=\"http://www.w3.org/2000/svg\">\n" +
+                "<g id=\"graph0\" class=\"graph\" transform=\"scale(1 1) rotate(0) translate(4 277)\">\n" +
+                "<g id=\"clust1\" class=\"cluster\"><title>cluster</title><polygon points=\"8,-8 8,-130 366,-130 366,-8 8,-8\"/></g>\n" +
+                "<g id=\"1\" class=\"node\"><title>1</title><polygon points=\"135,-273 39,-273 39,-177 135,-177 135,-273\"/><polygon points=\"0,0 0,0\"/></g>\n" +
+                "<g id=\"2\" class=\"node\"><title>2</title><polygon points=\"141,-105 33,-105 33,-33 141,-33 141,-105\"/><text>2: Software&#45;System &amp; more</text></g>\n" +
+                "<g id=\"3\" class=\"edge\"><title>1&#45;&gt;2</title><path d=\"M87,-176.96C87,-157.31 100,-150 120,-134.59 87,-115.15\"/><polygon points=\"90.5,-115.02 87,-105.02 83.5,-115.02 90.5,-115.02\"/></g>\n" +
+                "</g>\n" +
+                "</svg>";
+
+        SVGReader svgReader = new SVGReader(200, true);
+        svgReader.parseAndApplyLayout(view, new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(PaperSize.A5_Landscape, view.getPaperSize());
+        assertEquals(1741, view.getDimensions().getWidth());
+        assertEquals(1320, view.getDimensions().getHeight());
+
+        assertEquals(254, view.getElementView(user).getX());
+        assertEquals(108, view.getElementView(user).getY());
+        assertEquals(229, view.getElementView(softwareSystem).getX());
+        assertEquals(808, view.getElementView(softwareSystem).getY());
+
+        assertEquals(1, relationshipView.getVertices().size());
+        assertEquals(508, relationshipView.getVertices().iterator().next().getX());
+        assertEquals(621, relationshipView.getVertices().iterator().next().getY());
+    }
+
     private static Workspace createWorkspace() {
         Workspace workspace = new Workspace("Name", "");
         Person user = workspace.getModel().addPerson("User", "");
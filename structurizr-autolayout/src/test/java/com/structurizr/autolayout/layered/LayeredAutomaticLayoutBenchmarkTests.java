@@ -0,0 +1,103 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.Workspace;
+import com.structurizr.autolayout.graphviz.GraphvizAutomaticLayout;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.view.SystemLandscapeView;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the time taken by the layered and graphviz automatic layouts, for views of increasing size.
+ * This isn't run as part of the normal build; use "gradle :structurizr-autolayout:benchmark" (it's skipped if the
+ * "dot" command isn't available).
+ */
+@Tag("benchmark")
+public class LayeredAutomaticLayoutBenchmarkTests {
+
+    private static final int[] NUMBER_OF_ELEMENTS = { 10, 50, 100, 250 };
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int ITERATIONS = 5;
+
+    @Test
+    public void benchmark() throws Exception {
+        assumeTrue(isDotAvailable(), "The dot command is not available");
+
+        GraphvizAutomaticLayout graphviz = new GraphvizAutomaticLayout(Files.createTempDirectory("graphviz").toFile());
+        graphviz.setInMemory(true);
+        LayeredAutomaticLayout layered = new LayeredAutomaticLayout();
+
+        System.out.println(String.format("%10s %15s %15s", "elements", "layered (ms)", "graphviz (ms)"));
+        for (int numberOfElements : NUMBER_OF_ELEMENTS) {
+            long layeredTime = time(() -> layered.apply(createSystemLandscapeView(numberOfElements)));
+            long graphvizTime = time(() -> graphviz.apply(createSystemLandscapeView(numberOfElements)));
+
+            System.out.println(String.format("%10d %15d %15d", numberOfElements, layeredTime, graphvizTime));
+        }
+    }
+
+    private long time(Layout layout) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            layout.apply();
+        }
+
+        // the median is reported, since the time taken to start "dot" varies
+        long[] times = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            layout.apply();
+            times[i] = (System.nanoTime() - start) / 1000000;
+        }
+
+        Arrays.sort(times);
+        return times[ITERATIONS / 2];
+    }
+
+    private SystemLandscapeView createSystemLandscapeView(int numberOfElements) {
+        Workspace workspace = new Workspace("Name", "Description");
+        List<SoftwareSystem> softwareSystems = new ArrayList<>();
+        for (int i = 1; i <= numberOfElements; i++) {
+            softwareSystems.add(workspace.getModel().addSoftwareSystem("Software System " + i));
+        }
+
+        // the same (pseudo-random) relationships are created for each run, roughly 1.5 per element
+        Random random = new Random(numberOfElements);
+        for (int i = 0; i < numberOfElements * 3 / 2; i++) {
+            SoftwareSystem source = softwareSystems.get(random.nextInt(numberOfElements));
+            SoftwareSystem destination = softwareSystems.get(random.nextInt(numberOfElements));
+            if (source != destination && !source.hasEfferentRelationshipWith(destination)) {
+                source.uses(destination, "Uses");
+            }
+        }
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("Landscape", "Description");
+        view.addAllElements();
+        assertEquals(numberOfElements, view.getElements().size());
+
+        return view;
+    }
+
+    private boolean isDotAvailable() {
+        try {
+            return new ProcessBuilder("dot", "-V").start().waitFor() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private interface Layout {
+
+        void apply() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.structurizr.autolayout.layered;
+
+import com.structurizr.Workspace;
+import com.structurizr.autolayout.LayoutCache;
+import com.structurizr.model.*;
+import com.structurizr.view.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayeredAutomaticLayoutTests {
+
+    @Test
+    public void apply_ThrowsAnException_WhenANullViewIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new LayeredAutomaticLayout().apply((ModelView)null));
+        assertEquals("A view must be specified.", e.getMessage());
+    }
+
+    @Test
+    public void setRankSeparation_ThrowsAnException_WhenANegativeNumberIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new LayeredAutomaticLayout().setRankSeparation(-1));
+        assertEquals("The rank separation must not be negative.", e.getMessage());
+    }
+
+    @Test
+    public void setNodeSeparation_ThrowsAnException_WhenANegativeNumberIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new LayeredAutomaticLayout().setNodeSeparation(-1));
+        assertEquals("The node separation must not be negative.", e.getMessage());
+    }
+
+    @Test
+    public void apply_TopBottom() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        SoftwareSystem emailSystem = workspace.getModel().addSoftwareSystem("E-mail System");
+        user.uses(softwareSystem, "Uses");
+        softwareSystem.uses(emailSystem, "Sends e-mail using");
+
+        SystemContextView view = workspace.getViews().createSystemContextView(softwareSystem, "SystemContext", "Description");
+        view.addAllElements();
+        workspace.getViews().getConfiguration().getStyles().addElementStyle(Tags.PERSON).shape(Shape.Person);
+
+        LayeredAutomaticLayout layout = new LayeredAutomaticLayout();
+        layout.setRankSeparation(300);
+        layout.setNodeSeparation(300);
+        layout.setMargin(400);
+        layout.apply(view);
+
+        // each element is on its own rank, centred on the same line
+        assertEquals(400, view.getElementView(user).getY());
+        assertEquals(400 + 400 + 300, view.getElementView(softwareSystem).getY());
+        assertEquals(400 + 400 + 300 + 300 + 300, view.getElementView(emailSystem).getY());
+        assertEquals(view.getElementView(user).getX() + 200, view.getElementView(softwareSystem).getX() + 225);
+        assertEquals(view.getElementView(softwareSystem).getX(), view.getElementView(emailSystem).getX());
+
+        assertEquals(400 + 450 + 400, view.getDimensions().getWidth());
+        assertEquals(400 + 1600 + 400, view.getDimensions().getHeight());
+        assertEquals(PaperSize.A5_Portrait, view.getPaperSize());
+        assertNoOverlaps(view);
+    }
+
+    @Test
+    public void apply_UsesTheRankDirectionFromTheView() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem a = workspace.getModel().addSoftwareSystem("A");
+        SoftwareSystem b = workspace.getModel().addSoftwareSystem("B");
+        a.uses(b, "Uses");
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("Landscape", "Description");
+        view.addAllElements();
+
+        view.enableAutomaticLayout(AutomaticLayout.RankDirection.LeftRight, 100, 100);
+        new LayeredAutomaticLayout().apply(view);
+        assertEquals(view.getElementView(a).getX() + 450 + 100, view.getElementView(b).getX());
+        assertEquals(view.getElementView(a).getY(), view.getElementView(b).getY());
+
+        view.enableAutomaticLayout(AutomaticLayout.RankDirection.RightLeft, 100, 100);
+        new LayeredAutomaticLayout().apply(view);
+        assertEquals(view.getElementView(b).getX() + 450 + 100, view.getElementView(a).getX());
+
+        view.enableAutomaticLayout(AutomaticLayout.RankDirection.BottomTop, 100, 100);
+        new LayeredAutomaticLayout().apply(view);
+        assertEquals(view.getElementView(b).getY() + 300 + 100, view.getElementView(a).getY());
+        assertEquals(view.getElementView(a).getX(), view.getElementView(b).getX());
+    }
+
+    @Test
+    public void apply_WhenThereAreCycles() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem a = workspace.getModel().addSoftwareSystem("A");
+        SoftwareSystem b = workspace.getModel().addSoftwareSystem("B");
+        SoftwareSystem c = workspace.getModel().addSoftwareSystem("C");
+        a.uses(b, "Uses");
+        b.uses(c, "Uses");
+        c.uses(a, "Uses");
+        a.uses(a, "Uses");
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("Landscape", "Description");
+        view.addAllElements();
+        new LayeredAutomaticLayout().apply(view);
+
+        assertTrue(view.getElementView(a).getY() < view.getElementView(b).getY());
+        assertTrue(view.getElementView(b).getY() < view.getElementView(c).getY());
+        assertNoOverlaps(view);
+
+        // the link from c back to a spans two ranks, so has a vertex (going from c to a)
+        RelationshipView relationshipView = view.getRelationshipView(c.getEfferentRelationshipWith(a));
+        assertEquals(1, relationshipView.getVertices().size());
+        Vertex vertex = relationshipView.getVertices().iterator().next();
+        assertEquals(view.getElementView(b).getY() + 150, vertex.getY());
+    }
+
+    @Test
+    public void apply_KeepsElementsOutsideOfBoundaries() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        SoftwareSystem emailSystem = workspace.getModel().addSoftwareSystem("E-mail System");
+        Container webApplication = softwareSystem.addContainer("Web Application");
+        Container api = softwareSystem.addContainer("API");
+        Container database = softwareSystem.addContainer("Database");
+        user.uses(webApplication, "Uses");
+        webApplication.uses(api, "Uses");
+        api.uses(database, "Reads from and writes to");
+        api.uses(emailSystem, "Sends e-mail using");
+        emailSystem.delivers(user, "Sends e-mails to");
+
+        ContainerView view = workspace.getViews().createContainerView(softwareSystem, "Containers", "Description");
+        view.addAllElements();
+        new LayeredAutomaticLayout().apply(view);
+        assertNoOverlaps(view);
+
+        // the containers are inside the boundary, and the user/e-mail system are outside it
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        for (Container container : List.of(webApplication, api, database)) {
+            left = Math.min(left, view.getElementView(container).getX());
+            top = Math.min(top, view.getElementView(container).getY());
+            right = Math.max(right, view.getElementView(container).getX() + 450);
+            bottom = Math.max(bottom, view.getElementView(container).getY() + 300);
+        }
+
+        for (Element element : List.of(user, emailSystem)) {
+            ElementView elementView = view.getElementView(element);
+            assertFalse(overlaps(elementView.getX(), elementView.getY(), 450, 300, left - 100, top - 100, right - left + 200, bottom - top + 200), element.getName());
+        }
+    }
+
+    @Test
+    public void apply_DeploymentView() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        Container webApplication = softwareSystem.addContainer("Web Application");
+        Container database = softwareSystem.addContainer("Database");
+        webApplication.uses(database, "Reads from and writes to");
+
+        DeploymentNode live = workspace.getModel().addDeploymentNode("Live");
+        DeploymentNode webServer = live.addDeploymentNode("Web Server");
+        ContainerInstance webApplicationInstance = webServer.add(webApplication);
+        DeploymentNode databaseServer = live.addDeploymentNode("Database Server");
+        ContainerInstance databaseInstance = databaseServer.add(database);
+        InfrastructureNode loadBalancer = live.addInfrastructureNode("Load Balancer");
+        loadBalancer.uses(webApplicationInstance, "Forwards requests to", "HTTPS");
+
+        DeploymentView view = workspace.getViews().createDeploymentView(softwareSystem, "Deployment", "Description");
+        view.addDefaultElements();
+        new LayeredAutomaticLayout().apply(view);
+
+        assertNoOverlaps(view);
+        ElementView loadBalancerView = view.getElementView(loadBalancer);
+        ElementView webApplicationView = view.getElementView(webApplicationInstance);
+        ElementView databaseView = view.getElementView(databaseInstance);
+
+        // load balancer -> web application (in the web server) -> database (in the database server)
+        assertTrue(loadBalancerView.getY() < webApplicationView.getY());
+        assertTrue(webApplicationView.getY() < databaseView.getY());
+    }
+
+    @Test
+    public void apply_ReducesCrossings() {
+        Workspace workspace = new Workspace("Name", "Description");
+        List<SoftwareSystem> upper = new ArrayList<>();
+        List<SoftwareSystem> lower = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            upper.add(workspace.getModel().addSoftwareSystem("Upper " + i));
+        }
+        for (int i = 0; i < 4; i++) {
+            lower.add(workspace.getModel().addSoftwareSystem("Lower " + i));
+        }
+        for (int i = 0; i < 4; i++) {
+            // upper 0 -> lower 3, upper 1 -> lower 2, etc
+            upper.get(i).uses(lower.get(3 - i), "Uses");
+        }
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("Landscape", "Description");
+        view.addAllElements();
+        new LayeredAutomaticLayout().apply(view);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(view.getElementView(upper.get(i)).getX(), view.getElementView(lower.get(3 - i)).getX());
+        }
+    }
+
+    @Test
+    public void apply_UsesCachedLayouts_WhenALayoutCacheIsSpecified() throws Exception {
+        File directory = Files.createTempDirectory("layout").toFile();
+        LayeredAutomaticLayout layout = new LayeredAutomaticLayout();
+        layout.setLayoutCache(new LayoutCache(directory));
+
+        SystemLandscapeView view = createSystemLandscapeView();
+        layout.apply(view);
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+
+        // modify the cached layout, to check that it's used
+        String id = view.getModel().getSoftwareSystemWithName("A").getId();
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(files[0])) {
+            properties.load(in);
+        }
+        properties.setProperty("element." + id, "1234,5678");
+        try (OutputStream out = new FileOutputStream(files[0])) {
+            properties.store(out, null);
+        }
+
+        view = createSystemLandscapeView();
+        layout.apply(view);
+        assertEquals(1234, view.getElementView(view.getModel().getSoftwareSystemWithName("A")).getX());
+        assertEquals(5678, view.getElementView(view.getModel().getSoftwareSystemWithName("A")).getY());
+
+        // changing the layout settings means that the view is laid out again
+        layout.setRankDirection(AutomaticLayout.RankDirection.LeftRight);
+        layout.apply(view);
+        assertNotEquals(1234, view.getElementView(view.getModel().getSoftwareSystemWithName("A")).getX());
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    private SystemLandscapeView createSystemLandscapeView() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem a = workspace.getModel().addSoftwareSystem("A");
+        SoftwareSystem b = workspace.getModel().addSoftwareSystem("B");
+        a.uses(b, "Uses");
+
+        SystemLandscapeView view = workspace.getViews().createSystemLandscapeView("Landscape", "Description");
+        view.addAllElements();
+
+        return view;
+    }
+
+    private void assertNoOverlaps(ModelView view) {
+        List<ElementView> elementViews = new ArrayList<>();
+        for (ElementView elementView : view.getElements()) {
+            if (!(elementView.getElement() instanceof DeploymentNode)) {
+                elementViews.add(elementView);
+            }
+        }
+
+        Styles styles = view.getViewSet().getConfiguration().getStyles();
+        for (int i = 0; i < elementViews.size(); i++) {
+            for (int j = i + 1; j < elementViews.size(); j++) {
+                ElementView a = elementViews.get(i);
+                ElementView b = elementViews.get(j);
+                ElementStyle styleA = styles.findElementStyle(a.getElement());
+                ElementStyle styleB = styles.findElementStyle(b.getElement());
+
+                assertFalse(overlaps(a.getX(), a.getY(), styleA.getWidth(), styleA.getHeight(), b.getX(), b.getY(), styleB.getWidth(), styleB.getHeight()), a.getElement().getName() + " overlaps " + b.getElement().getName());
+            }
+        }
+    }
+
+    private boolean overlaps(int x1, int y1, int width1, int height1, int x2, int y2, int width2, int height2) {
+        return x1 < x2 + width2 && x2 < x1 + width1 && y1 < y2 + height2 && y2 < y1 + height1;
+    }
+
+}
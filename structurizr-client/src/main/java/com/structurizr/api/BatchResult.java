@@ -0,0 +1,60 @@
+package com.structurizr.api;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The aggregated result of a batch of workspace API requests (e.g. getting or putting multiple workspaces),
+ * keyed by workspace ID.
+ *
+ * @param <T>   the type of result returned for each successful request
+ */
+public final class BatchResult<T> {
+
+    private final Map<Long, T> results = new TreeMap<>();
+    private final Map<Long, StructurizrClientException> failures = new TreeMap<>();
+
+    BatchResult() {
+    }
+
+    synchronized void addResult(long workspaceId, T result) {
+        results.put(workspaceId, result);
+    }
+
+    synchronized void addFailure(long workspaceId, StructurizrClientException failure) {
+        failures.put(workspaceId, failure);
+    }
+
+    synchronized boolean hasResultOrFailure(long workspaceId) {
+        return results.containsKey(workspaceId) || failures.containsKey(workspaceId);
+    }
+
+    /**
+     * Gets the results of the successful requests.
+     *
+     * @return  a Map of workspace ID to result, ordered by workspace ID
+     */
+    public synchronized Map<Long, T> getResults() {
+        return Collections.unmodifiableMap(new TreeMap<>(results));
+    }
+
+    /**
+     * Gets the failures, for those requests that were not successful (after any retries).
+     *
+     * @return  a Map of workspace ID to exception, ordered by workspace ID
+     */
+    public synchronized Map<Long, StructurizrClientException> getFailures() {
+        return Collections.unmodifiableMap(new TreeMap<>(failures));
+    }
+
+    /**
+     * Determines whether all requests in the batch were successful.
+     *
+     * @return  true if there were no failures, false otherwise
+     */
+    public synchronized boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+}
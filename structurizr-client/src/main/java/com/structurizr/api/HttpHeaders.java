@@ -10,5 +10,10 @@ final class HttpHeaders {
     static final String CONTENT_TYPE = "Content-Type";
     static final String CONTENT_MD5 = "Content-MD5";
     static final String NONCE = "Nonce";
+    static final String RETRY_AFTER = "Retry-After";
+    static final String ETAG = "ETag";
+    static final String IF_NONE_MATCH = "If-None-Match";
+    static final String LAST_MODIFIED = "Last-Modified";
+    static final String IF_MODIFIED_SINCE = "If-Modified-Since";
 
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.structurizr.api;
 
 import javax.xml.bind.DatatypeConverter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 
 /**
@@ -16,7 +19,19 @@ final class Md5Digest {
         }
 
         MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
-        return DatatypeConverter.printHexBinary(digest.digest(content.getBytes("UTF-8"))).toLowerCase();
+        return DatatypeConverter.printHexBinary(digest.digest(content.getBytes(StandardCharsets.UTF_8))).toLowerCase();
+    }
+
+    /**
+     * Creates an output stream that calculates an MD5 digest of the bytes written through it,
+     * so that content can be digested as it is being written.
+     */
+    DigestOutputStream createDigestOutputStream(OutputStream outputStream) throws Exception {
+        return new DigestOutputStream(outputStream, MessageDigest.getInstance(ALGORITHM));
+    }
+
+    String getDigest(DigestOutputStream digestOutputStream) {
+        return DatatypeConverter.printHexBinary(digestOutputStream.getMessageDigest().digest()).toLowerCase();
     }
 
 }
\ No newline at end of file
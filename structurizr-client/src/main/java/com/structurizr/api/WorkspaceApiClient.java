@@ -16,31 +16,63 @@ import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
 
 import java.io.*;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
 import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * A client for the Structurizr workspace API that allows you to get and put Structurizr workspaces in a JSON format.
+ *
+ * Each client instance owns a pool of HTTP connections that are kept alive and reused between requests,
+ * so create a single instance and reuse it, and call close() when you have finished with it.
+ * Once configured, an instance is thread-safe and can be shared between threads; the connection pool
+ * settings (maximum connections, timeouts and keep-alive) should be set before the first request is made.
  */
-public class WorkspaceApiClient extends AbstractApiClient {
+public class WorkspaceApiClient extends AbstractApiClient implements AutoCloseable {
 
     private static final Log log = LogFactory.getLog(WorkspaceApiClient.class);
 
+    private static final int DEFAULT_MAXIMUM_CONNECTIONS = 10;
+    private static final int DEFAULT_CONNECT_TIMEOUT_IN_MILLISECONDS = 30000;
+    private static final int DEFAULT_SOCKET_TIMEOUT_IN_MILLISECONDS = 60000;
+    private static final int DEFAULT_KEEP_ALIVE_IN_MILLISECONDS = 60000;
+    private static final int DEFAULT_MAXIMUM_RETRIES = 3;
+    private static final int INITIAL_RETRY_DELAY_IN_MILLISECONDS = 500;
+    private static final int MAXIMUM_RETRY_DELAY_IN_MILLISECONDS = 30000;
+    private static final String GZIP_CONTENT_ENCODING = "gzip";
+
     private String user;
 
     private String apiKey;
@@ -51,6 +83,16 @@ public class WorkspaceApiClient extends AbstractApiClient {
     private IdGenerator idGenerator = null;
     private boolean mergeFromRemote = true;
     private File workspaceArchiveLocation = new File(".");
+    private WorkspaceCache workspaceCache = null;
+
+    private int maximumConnections = DEFAULT_MAXIMUM_CONNECTIONS;
+    private int connectTimeoutInMilliseconds = DEFAULT_CONNECT_TIMEOUT_IN_MILLISECONDS;
+    private int socketTimeoutInMilliseconds = DEFAULT_SOCKET_TIMEOUT_IN_MILLISECONDS;
+    private int keepAliveInMilliseconds = DEFAULT_KEEP_ALIVE_IN_MILLISECONDS;
+    private int maximumRetries = DEFAULT_MAXIMUM_RETRIES;
+    private boolean gzipRequests = false;
+
+    private CloseableHttpClient httpClient;
 
     protected WorkspaceApiClient() {
     }
@@ -131,6 +173,22 @@ public class WorkspaceApiClient extends AbstractApiClient {
         this.workspaceArchiveLocation = workspaceArchiveLocation;
     }
 
+    /**
+     * Sets the location of a local cache of workspaces retrieved from the server. When set, subsequent requests
+     * for the same workspace are made conditionally (via If-None-Match/If-Modified-Since), and the cached copy is
+     * used if the workspace hasn't changed, rather than downloading it again. Set this to null to disable caching (the default).
+     *
+     * @param workspaceCacheLocation    a File instance representing a directory, or null to disable caching
+     * @param compressed                true if cached workspaces should be gzip compressed, false otherwise
+     */
+    public void setWorkspaceCacheLocation(File workspaceCacheLocation, boolean compressed) {
+        if (workspaceCacheLocation == null) {
+            this.workspaceCache = null;
+        } else {
+            this.workspaceCache = new WorkspaceCache(workspaceCacheLocation, compressed);
+        }
+    }
+
     /**
      * Sets the encryption strategy for use when getting or putting workspaces.
      *
@@ -150,6 +208,133 @@ public class WorkspaceApiClient extends AbstractApiClient {
         this.mergeFromRemote = mergeFromRemote;
     }
 
+    /**
+     * Sets the maximum number of concurrent connections that this client will open to the API (default 10).
+     *
+     * @param maximumConnections    the maximum number of connections
+     */
+    public void setMaximumConnections(int maximumConnections) {
+        if (maximumConnections < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be a positive integer.");
+        }
+
+        this.maximumConnections = maximumConnections;
+        resetHttpClient();
+    }
+
+    /**
+     * Sets the timeout used when establishing a connection to the API (default 30 seconds).
+     *
+     * @param timeoutInMilliseconds     the timeout in milliseconds
+     */
+    public void setConnectTimeout(int timeoutInMilliseconds) {
+        if (timeoutInMilliseconds < 0) {
+            throw new IllegalArgumentException("The timeout must not be negative.");
+        }
+
+        this.connectTimeoutInMilliseconds = timeoutInMilliseconds;
+        resetHttpClient();
+    }
+
+    /**
+     * Sets the timeout used when waiting for data from the API (default 60 seconds).
+     *
+     * @param timeoutInMilliseconds     the timeout in milliseconds
+     */
+    public void setSocketTimeout(int timeoutInMilliseconds) {
+        if (timeoutInMilliseconds < 0) {
+            throw new IllegalArgumentException("The timeout must not be negative.");
+        }
+
+        this.socketTimeoutInMilliseconds = timeoutInMilliseconds;
+        resetHttpClient();
+    }
+
+    /**
+     * Sets how long idle connections are kept alive for reuse, when the server doesn't specify this (default 60 seconds).
+     *
+     * @param keepAliveInMilliseconds   the keep-alive duration in milliseconds
+     */
+    public void setKeepAlive(int keepAliveInMilliseconds) {
+        if (keepAliveInMilliseconds < 0) {
+            throw new IllegalArgumentException("The keep-alive duration must not be negative.");
+        }
+
+        this.keepAliveInMilliseconds = keepAliveInMilliseconds;
+        resetHttpClient();
+    }
+
+    /**
+     * Sets the number of times that each request made by getWorkspaces(...) and putWorkspaces(...) is retried
+     * (with exponential backoff, or as directed by a Retry-After header, up to a maximum of 30 seconds between
+     * attempts) when the server responds with 429 (Too Many Requests) or a 5xx status (default 3).
+     * Requests made by the single workspace methods (e.g. getWorkspace and putWorkspace) are not retried.
+     *
+     * @param maximumRetries    the maximum number of retries, or 0 to disable retries
+     */
+    public void setMaximumRetries(int maximumRetries) {
+        if (maximumRetries < 0) {
+            throw new IllegalArgumentException("The maximum number of retries must not be negative.");
+        }
+
+        this.maximumRetries = maximumRetries;
+    }
+
+    /**
+     * Specifies whether workspaces should be gzip compressed (with a Content-Encoding header) when being put.
+     * This is disabled by default, and requires a server that supports compressed request bodies.
+     * Note that compressed responses are always requested (via Accept-Encoding) and decompressed transparently.
+     *
+     * @param gzipRequests  true if workspaces should be compressed when being put, false otherwise
+     */
+    public void setGzipRequests(boolean gzipRequests) {
+        this.gzipRequests = gzipRequests;
+    }
+
+    synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                    .setConnectTimeout(connectTimeoutInMilliseconds, TimeUnit.MILLISECONDS)
+                    .setSocketTimeout(socketTimeoutInMilliseconds, TimeUnit.MILLISECONDS)
+                    .build();
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveInMilliseconds))
+                    .build();
+
+            httpClient = HttpClients.custom()
+                    .useSystemProperties()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .useSystemProperties()
+                            .setMaxConnTotal(maximumConnections)
+                            .setMaxConnPerRoute(maximumConnections) // all requests are made to the same host
+                            .setDefaultConnectionConfig(connectionConfig)
+                            .build())
+                    .setDefaultRequestConfig(requestConfig)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveInMilliseconds))
+                    .build();
+        }
+
+        return httpClient;
+    }
+
+    private synchronized void resetHttpClient() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+            httpClient = null;
+        }
+    }
+
+    /**
+     * Closes the HTTP connections held by this client. The client can still be used after being closed,
+     * in which case new connections will be opened.
+     */
+    @Override
+    public void close() {
+        resetHttpClient();
+    }
+
     /**
      * Locks the workspace with the given ID.
      *
@@ -177,7 +362,7 @@ public class WorkspaceApiClient extends AbstractApiClient {
             throw new IllegalArgumentException("The workspace ID must be a positive integer.");
         }
 
-        try (CloseableHttpClient httpClient = HttpClients.createSystem()) {
+        try {
             HttpUriRequestBase httpRequest;
 
             if (lock) {
@@ -188,21 +373,14 @@ public class WorkspaceApiClient extends AbstractApiClient {
                 httpRequest = new HttpDelete(url + WORKSPACE_PATH + "/" + workspaceId + "/lock?user=" + getUser() + "&agent=" + agent);
             }
 
-            addHeaders(httpRequest, "", "");
-            debugRequest(httpRequest, null);
-
-            try (CloseableHttpResponse response = httpClient.execute(httpRequest)) {
-                debugResponse(response);
+            Response response = execute(httpRequest);
+            ApiResponse apiResponse = ApiResponse.parse(response.body);
+            log.info(response.body);
 
-                String responseText = EntityUtils.toString(response.getEntity());
-                ApiResponse apiResponse = ApiResponse.parse(responseText);
-                log.info(responseText);
-
-                if (response.getCode() == HttpStatus.SC_OK) {
-                    return apiResponse.isSuccess();
-                } else {
-                    throw new StructurizrClientException(apiResponse.getMessage());
-                }
+            if (response.code == HttpStatus.SC_OK) {
+                return apiResponse.isSuccess();
+            } else {
+                throw new StructurizrClientException(apiResponse.getMessage());
             }
         } catch (Exception e) {
             log.error(e);
@@ -218,48 +396,52 @@ public class WorkspaceApiClient extends AbstractApiClient {
      * @throws StructurizrClientException   if there are problems related to the network, authorization, JSON deserialization, etc
      */
     public Workspace getWorkspace(long workspaceId) throws StructurizrClientException {
+        return getWorkspace(workspaceId, 0);
+    }
+
+    private Workspace getWorkspace(long workspaceId, int maximumRetries) throws StructurizrClientException {
         if (workspaceId <= 0) {
             throw new IllegalArgumentException("The workspace ID must be a positive integer.");
         }
 
-        try (CloseableHttpClient httpClient = HttpClients.createSystem()) {
+        try {
             log.info("Getting workspace with ID " + workspaceId);
             HttpGet httpGet = new HttpGet(url + WORKSPACE_PATH + "/" + workspaceId);
-            addHeaders(httpGet, "", "");
-            debugRequest(httpGet, null);
 
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                debugResponse(response);
+            WorkspaceCache workspaceCache = this.workspaceCache;
+            WorkspaceCache.Entry cacheEntry = workspaceCache != null ? workspaceCache.get(url, workspaceId) : null;
+            if (cacheEntry != null) {
+                if (cacheEntry.getEtag() != null) {
+                    httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, cacheEntry.getEtag());
+                }
+                if (cacheEntry.getLastModified() != null) {
+                    httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cacheEntry.getLastModified());
+                }
+            }
 
-                String json = EntityUtils.toString(response.getEntity());
-                if (response.getCode() == HttpStatus.SC_OK) {
-                    archiveWorkspace(workspaceId, json);
+            Response response = execute(httpGet, maximumRetries);
 
-                    if (encryptionStrategy == null) {
-                        if (json.contains("\"encryptionStrategy\"") && json.contains("\"ciphertext\"")) {
-                            log.warn("The JSON may contain a client-side encrypted workspace, but no passphrase has been specified.");
-                        }
+            String json = response.body;
+            if (response.code == HttpStatus.SC_NOT_MODIFIED && cacheEntry != null) {
+                log.info("Workspace with ID " + workspaceId + " has not been modified; using cached copy");
+                return parseWorkspace(workspaceCache.getJson(cacheEntry));
+            } else if (response.code == HttpStatus.SC_OK) {
+                archiveWorkspace(workspaceId, json);
+                Workspace workspace = parseWorkspace(json);
 
-                        JsonReader jsonReader = new JsonReader();
-                        jsonReader.setIdGenerator(idGenerator);
-                        return jsonReader.read(new StringReader(json));
-                    } else {
-                        EncryptedWorkspace encryptedWorkspace = new EncryptedJsonReader().read(new StringReader(json));
-
-                        if (encryptedWorkspace.getEncryptionStrategy() != null) {
-                            encryptedWorkspace.getEncryptionStrategy().setPassphrase(encryptionStrategy.getPassphrase());
-                            return encryptedWorkspace.getWorkspace();
-                        } else {
-                            // this workspace isn't encrypted, even though the client has an encryption strategy set
-                            JsonReader jsonReader = new JsonReader();
-                            jsonReader.setIdGenerator(idGenerator);
-                            return jsonReader.read(new StringReader(json));
-                        }
+                if (workspaceCache != null) {
+                    String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+                    if (lastModified == null && workspace.getLastModifiedDate() != null) {
+                        lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(workspace.getLastModifiedDate().toInstant().atZone(ZoneOffset.UTC));
                     }
-                } else {
-                    ApiResponse apiResponse = ApiResponse.parse(json);
-                    throw new StructurizrClientException(apiResponse.getMessage());
+
+                    workspaceCache.put(url, workspaceId, json, response.getHeader(HttpHeaders.ETAG), lastModified);
                 }
+
+                return workspace;
+            } else {
+                ApiResponse apiResponse = ApiResponse.parse(json);
+                throw new StructurizrClientException(apiResponse.getMessage());
             }
         } catch (Exception e) {
             log.error(e);
@@ -267,6 +449,30 @@ public class WorkspaceApiClient extends AbstractApiClient {
         }
     }
 
+    private Workspace parseWorkspace(String json) throws Exception {
+        if (encryptionStrategy == null) {
+            if (json.contains("\"encryptionStrategy\"") && json.contains("\"ciphertext\"")) {
+                log.warn("The JSON may contain a client-side encrypted workspace, but no passphrase has been specified.");
+            }
+
+            JsonReader jsonReader = new JsonReader();
+            jsonReader.setIdGenerator(idGenerator);
+            return jsonReader.read(new StringReader(json));
+        } else {
+            EncryptedWorkspace encryptedWorkspace = new EncryptedJsonReader().read(new StringReader(json));
+
+            if (encryptedWorkspace.getEncryptionStrategy() != null) {
+                encryptedWorkspace.getEncryptionStrategy().setPassphrase(encryptionStrategy.getPassphrase());
+                return encryptedWorkspace.getWorkspace();
+            } else {
+                // this workspace isn't encrypted, even though the client has an encryption strategy set
+                JsonReader jsonReader = new JsonReader();
+                jsonReader.setIdGenerator(idGenerator);
+                return jsonReader.read(new StringReader(json));
+            }
+        }
+    }
+
     /**
      * Updates the given workspace.
      *
@@ -275,15 +481,19 @@ public class WorkspaceApiClient extends AbstractApiClient {
      * @throws StructurizrClientException   if there are problems related to the network, authorization, JSON serialization, etc
      */
     public void putWorkspace(long workspaceId, Workspace workspace) throws StructurizrClientException {
+        putWorkspace(workspaceId, workspace, 0);
+    }
+
+    private void putWorkspace(long workspaceId, Workspace workspace, int maximumRetries) throws StructurizrClientException {
         if (workspace == null) {
             throw new IllegalArgumentException("The workspace must not be null.");
         } else if (workspaceId <= 0) {
             throw new IllegalArgumentException("The workspace ID must be a positive integer.");
         }
 
-        try (CloseableHttpClient httpClient = HttpClients.createSystem()) {
+        try {
             if (mergeFromRemote) {
-                Workspace remoteWorkspace = getWorkspace(workspaceId);
+                Workspace remoteWorkspace = getWorkspace(workspaceId, maximumRetries);
                 if (remoteWorkspace != null) {
                     workspace.getViews().copyLayoutInformationFrom(remoteWorkspace.getViews());
                     workspace.getViews().getConfiguration().copyConfigurationFrom(remoteWorkspace.getViews().getConfiguration());
@@ -298,33 +508,36 @@ public class WorkspaceApiClient extends AbstractApiClient {
 
             HttpPut httpPut = new HttpPut(url + WORKSPACE_PATH + "/" + workspaceId);
 
-            StringWriter stringWriter = new StringWriter();
-            if (encryptionStrategy == null) {
-                JsonWriter jsonWriter = new JsonWriter(false);
-                jsonWriter.write(workspace, stringWriter);
-            } else {
-                EncryptedWorkspace encryptedWorkspace = new EncryptedWorkspace(workspace, encryptionStrategy);
-                encryptionStrategy.setLocation(EncryptionLocation.Client);
-                EncryptedJsonWriter jsonWriter = new EncryptedJsonWriter(false);
-                jsonWriter.write(encryptedWorkspace, stringWriter);
+            // serialise (and optionally compress) the workspace, calculating the MD5 digest
+            // of the bytes that will actually be sent in the same pass
+            Md5Digest md5Digest = new Md5Digest();
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            DigestOutputStream digestOutputStream = md5Digest.createDigestOutputStream(content);
+            OutputStream outputStream = gzipRequests ? new GZIPOutputStream(digestOutputStream) : digestOutputStream;
+            try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+                if (encryptionStrategy == null) {
+                    JsonWriter jsonWriter = new JsonWriter(false);
+                    jsonWriter.write(workspace, writer);
+                } else {
+                    EncryptedWorkspace encryptedWorkspace = EncryptedWorkspace.createForStreaming(workspace, encryptionStrategy);
+                    encryptionStrategy.setLocation(EncryptionLocation.Client);
+                    EncryptedJsonWriter jsonWriter = new EncryptedJsonWriter(false);
+                    jsonWriter.write(encryptedWorkspace, writer);
+                }
             }
 
-            StringEntity stringEntity = new StringEntity(stringWriter.toString(), ContentType.APPLICATION_JSON);
-            httpPut.setEntity(stringEntity);
-            addHeaders(httpPut, EntityUtils.toString(stringEntity), ContentType.APPLICATION_JSON.toString());
-
-            debugRequest(httpPut, EntityUtils.toString(stringEntity));
+            httpPut.setEntity(new ByteArrayEntity(content.toByteArray(), ContentType.APPLICATION_JSON, gzipRequests ? GZIP_CONTENT_ENCODING : null));
+            debugContent(content, gzipRequests);
 
             log.info("Putting workspace with ID " + workspaceId);
-            try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
-                String json = EntityUtils.toString(response.getEntity());
-                if (response.getCode() == HttpStatus.SC_OK) {
-                    debugResponse(response);
-                    log.info(json);
-                } else {
-                    ApiResponse apiResponse = ApiResponse.parse(json);
-                    throw new StructurizrClientException(apiResponse.getMessage());
-                }
+            Response response = execute(httpPut, md5Digest.getDigest(digestOutputStream), ContentType.APPLICATION_JSON.toString(), maximumRetries);
+
+            String json = response.body;
+            if (response.code == HttpStatus.SC_OK) {
+                log.info(json);
+            } else {
+                ApiResponse apiResponse = ApiResponse.parse(json);
+                throw new StructurizrClientException(apiResponse.getMessage());
             }
         } catch (Exception e) {
             log.error(e);
@@ -332,15 +545,209 @@ public class WorkspaceApiClient extends AbstractApiClient {
         }
     }
 
-    private void debugRequest(HttpUriRequestBase httpRequest, String content) {
+    /**
+     * Gets the workspaces with the given IDs, concurrently (up to the maximum number of connections).
+     * Each request is retried as described by setMaximumRetries(int).
+     *
+     * @param workspaceIds  a collection of workspace IDs
+     * @return  a BatchResult containing the workspaces that could be retrieved, and the failures for those that couldn't
+     */
+    public BatchResult<Workspace> getWorkspaces(Collection<Long> workspaceIds) {
+        if (workspaceIds == null) {
+            throw new IllegalArgumentException("The workspace IDs must not be null.");
+        }
+
+        for (Long workspaceId : workspaceIds) {
+            if (workspaceId == null || workspaceId <= 0) {
+                throw new IllegalArgumentException("The workspace ID must be a positive integer.");
+            }
+        }
+
+        return executeBatch(workspaceIds, workspaceId -> getWorkspace(workspaceId, maximumRetries));
+    }
+
+    /**
+     * Updates the given workspaces, concurrently (up to the maximum number of connections).
+     * Each request is retried as described by setMaximumRetries(int).
+     *
+     * @param workspaces    a map of workspace ID to workspace
+     * @return  a BatchResult containing the workspaces that were updated, and the failures for those that weren't
+     */
+    public BatchResult<Workspace> putWorkspaces(Map<Long, Workspace> workspaces) {
+        if (workspaces == null) {
+            throw new IllegalArgumentException("The workspaces must not be null.");
+        }
+
+        for (Map.Entry<Long, Workspace> entry : workspaces.entrySet()) {
+            if (entry.getKey() == null || entry.getKey() <= 0) {
+                throw new IllegalArgumentException("The workspace ID must be a positive integer.");
+            } else if (entry.getValue() == null) {
+                throw new IllegalArgumentException("The workspace must not be null.");
+            }
+        }
+
+        return executeBatch(workspaces.keySet(), workspaceId -> {
+            Workspace workspace = workspaces.get(workspaceId);
+            putWorkspace(workspaceId, workspace, maximumRetries);
+
+            return workspace;
+        });
+    }
+
+    <T> BatchResult<T> executeBatch(Collection<Long> workspaceIds, WorkspaceOperation<T> operation) {
+        BatchResult<T> batchResult = new BatchResult<>();
+        if (workspaceIds.isEmpty()) {
+            return batchResult;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(maximumConnections, workspaceIds.size()));
+        try {
+            Map<Long, Future<?>> futures = new LinkedHashMap<>();
+            for (long workspaceId : new LinkedHashSet<>(workspaceIds)) {
+                futures.put(workspaceId, executorService.submit(() -> {
+                    try {
+                        batchResult.addResult(workspaceId, operation.execute(workspaceId));
+                    } catch (StructurizrClientException e) {
+                        batchResult.addFailure(workspaceId, e);
+                    } catch (Exception e) {
+                        log.error(e);
+                        batchResult.addFailure(workspaceId, new StructurizrClientException(e));
+                    }
+                }));
+            }
+
+            // every request is waited for, so that each workspace ID has either a result or a failure
+            boolean interrupted = false;
+            for (Map.Entry<Long, Future<?>> entry : futures.entrySet()) {
+                try {
+                    if (interrupted) {
+                        entry.getValue().cancel(true);
+                    } else {
+                        entry.getValue().get();
+                    }
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                    entry.getValue().cancel(true);
+                } catch (Exception e) {
+                    log.error(e);
+                }
+
+                if (!batchResult.hasResultOrFailure(entry.getKey())) {
+                    batchResult.addFailure(entry.getKey(), new StructurizrClientException("The request for workspace with ID " + entry.getKey() + " did not complete."));
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return batchResult;
+    }
+
+    interface WorkspaceOperation<T> {
+
+        T execute(long workspaceId) throws StructurizrClientException;
+
+    }
+
+    private Response execute(HttpUriRequestBase httpRequest) throws Exception {
+        return execute(httpRequest, 0);
+    }
+
+    private Response execute(HttpUriRequestBase httpRequest, int maximumRetries) throws Exception {
+        return execute(httpRequest, new Md5Digest().generate(""), "", maximumRetries);
+    }
+
+    private Response execute(HttpUriRequestBase httpRequest, String contentMd5, String contentType, int maximumRetries) throws Exception {
+        int retry = 0;
+        while (true) {
+            // the headers (including the nonce and HMAC) are regenerated for every attempt
+            addHeaders(httpRequest, contentMd5, contentType);
+            debugRequest(httpRequest);
+
+            try (CloseableHttpResponse response = getHttpClient().execute(httpRequest)) {
+                debugResponse(response);
+
+                String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+                if (isRetryable(response.getCode()) && retry < maximumRetries) {
+                    Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                    long delay = getRetryDelay(retryAfter != null ? retryAfter.getValue() : null, retry);
+                    log.warn(httpRequest.getMethod() + " " + httpRequest.getPath() + " returned " + response.getCode() + "; retrying in " + delay + "ms");
+
+                    retry++;
+                    Thread.sleep(delay);
+                } else {
+                    return new Response(response.getCode(), response.getHeaders(), body);
+                }
+            }
+        }
+    }
+
+    private boolean isRetryable(int code) {
+        return code == HttpStatus.SC_TOO_MANY_REQUESTS || code >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    static long getRetryDelay(String retryAfter, int retry) {
+        if (retryAfter != null) {
+            try {
+                // the server can't make the client wait indefinitely
+                long seconds = Math.max(0, Long.parseLong(retryAfter.trim()));
+                return Math.min(seconds, MAXIMUM_RETRY_DELAY_IN_MILLISECONDS / 1000) * 1000;
+            } catch (NumberFormatException nfe) {
+                // ignore, it's probably an HTTP date
+            }
+        }
+
+        // exponential backoff, with some jitter to avoid concurrent requests retrying in lockstep
+        long delay = (long)INITIAL_RETRY_DELAY_IN_MILLISECONDS << Math.min(retry, 10);
+        delay = delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+
+        return Math.min(delay, MAXIMUM_RETRY_DELAY_IN_MILLISECONDS);
+    }
+
+    private static final class Response {
+
+        private final int code;
+        private final Header[] headers;
+        private final String body;
+
+        Response(int code, Header[] headers, String body) {
+            this.code = code;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        String getHeader(String name) {
+            for (Header header : headers) {
+                if (header.getName().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+
+            return null;
+        }
+
+    }
+
+    private void debugRequest(HttpUriRequestBase httpRequest) {
         if (log.isDebugEnabled()) {
             log.debug(httpRequest.getMethod() + " " + httpRequest.getPath());
             Header[] headers = httpRequest.getHeaders();
             for (Header header : headers) {
                 log.debug(header.getName() + ": " + header.getValue());
             }
-            if (content != null) {
-                log.debug(content);
+        }
+    }
+
+    private void debugContent(ByteArrayOutputStream content, boolean compressed) {
+        if (log.isDebugEnabled()) {
+            if (compressed) {
+                log.debug("[" + content.size() + " bytes, gzip compressed]");
+            } else {
+                log.debug(content.toString(StandardCharsets.UTF_8));
             }
         }
     }
@@ -349,21 +756,20 @@ public class WorkspaceApiClient extends AbstractApiClient {
         log.debug(response.getCode());
     }
 
-    private void addHeaders(HttpUriRequestBase httpRequest, String content, String contentType) throws Exception {
+    private void addHeaders(HttpUriRequestBase httpRequest, String contentMd5, String contentType) throws Exception {
         String httpMethod = httpRequest.getMethod();
         String path = httpRequest.getPath();
-        String contentMd5 = new Md5Digest().generate(content);
         String nonce = "" + System.currentTimeMillis();
 
         HashBasedMessageAuthenticationCode hmac = new HashBasedMessageAuthenticationCode(apiSecret);
         HmacContent hmacContent = new HmacContent(httpMethod, path, contentMd5, contentType, nonce);
-        httpRequest.addHeader(HttpHeaders.USER_AGENT, agent);
-        httpRequest.addHeader(HttpHeaders.AUTHORIZATION, new HmacAuthorizationHeader(apiKey, hmac.generate(hmacContent.toString())).format());
-        httpRequest.addHeader(HttpHeaders.NONCE, nonce);
+        httpRequest.setHeader(HttpHeaders.USER_AGENT, agent);
+        httpRequest.setHeader(HttpHeaders.AUTHORIZATION, new HmacAuthorizationHeader(apiKey, hmac.generate(hmacContent.toString())).format());
+        httpRequest.setHeader(HttpHeaders.NONCE, nonce);
 
         if (httpMethod.equals("PUT")) {
-            httpRequest.addHeader(HttpHeaders.CONTENT_MD5, Base64.getEncoder().encodeToString(contentMd5.getBytes(StandardCharsets.UTF_8)));
-            httpRequest.addHeader(HttpHeaders.CONTENT_TYPE, contentType);
+            httpRequest.setHeader(HttpHeaders.CONTENT_MD5, Base64.getEncoder().encodeToString(contentMd5.getBytes(StandardCharsets.UTF_8)));
+            httpRequest.setHeader(HttpHeaders.CONTENT_TYPE, contentType);
         }
     }
 
@@ -0,0 +1,176 @@
+package com.structurizr.api;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local, content-addressed cache of workspace JSON (as returned by the workspace API), along with the
+ * information needed to make conditional requests (ETag and Last-Modified).
+ *
+ * Workspaces are keyed by API URL and workspace ID, so that the same cache directory can be used with more than
+ * one Structurizr instance. For each workspace, the cache directory contains an index file
+ * (structurizr-{url}-{id}.properties, where {url} is a short hash of the API URL) and a content file named after
+ * the SHA-256 hash of the JSON (structurizr-{url}-{id}-{hash}.json, or .json.gz when compressed).
+ * Files are written atomically, so the cache can be shared between concurrent requests.
+ */
+final class WorkspaceCache {
+
+    private static final Log log = LogFactory.getLog(WorkspaceCache.class);
+
+    private static final String HASH_PROPERTY = "hash";
+    private static final String COMPRESSED_PROPERTY = "compressed";
+    private static final String ETAG_PROPERTY = "etag";
+    private static final String LAST_MODIFIED_PROPERTY = "lastModified";
+
+    private final File directory;
+    private final boolean compressed;
+
+    WorkspaceCache(File directory, boolean compressed) {
+        this.directory = directory;
+        this.compressed = compressed;
+    }
+
+    Entry get(String url, long workspaceId) {
+        String prefix = getPrefix(url, workspaceId);
+        File indexFile = getIndexFile(prefix);
+        if (!indexFile.exists()) {
+            return null;
+        }
+
+        try (InputStream in = new FileInputStream(indexFile)) {
+            Properties properties = new Properties();
+            properties.load(in);
+
+            Entry entry = new Entry(
+                    prefix,
+                    properties.getProperty(HASH_PROPERTY),
+                    Boolean.parseBoolean(properties.getProperty(COMPRESSED_PROPERTY)),
+                    properties.getProperty(ETAG_PROPERTY),
+                    properties.getProperty(LAST_MODIFIED_PROPERTY));
+
+            if (entry.hash != null && getContentFile(prefix, entry.hash, entry.compressed).exists()) {
+                return entry;
+            }
+        } catch (Exception e) {
+            log.warn("Could not read cache index " + indexFile.getAbsolutePath(), e);
+        }
+
+        return null;
+    }
+
+    String getJson(Entry entry) throws IOException {
+        File contentFile = getContentFile(entry.prefix, entry.hash, entry.compressed);
+        try (InputStream in = entry.compressed ? new GZIPInputStream(new FileInputStream(contentFile)) : new FileInputStream(contentFile)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    void put(String url, long workspaceId, String json, String etag, String lastModified) {
+        try {
+            directory.mkdirs();
+
+            String prefix = getPrefix(url, workspaceId);
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            String hash = hash(bytes);
+            Entry previousEntry = get(url, workspaceId);
+
+            File contentFile = getContentFile(prefix, hash, compressed);
+            if (!contentFile.exists()) {
+                File tempFile = File.createTempFile(prefix + "-", ".tmp", directory);
+                try (OutputStream out = compressed ? new GZIPOutputStream(new FileOutputStream(tempFile)) : new FileOutputStream(tempFile)) {
+                    out.write(bytes);
+                }
+                move(tempFile, contentFile);
+            }
+
+            Properties properties = new Properties();
+            properties.setProperty(HASH_PROPERTY, hash);
+            properties.setProperty(COMPRESSED_PROPERTY, Boolean.toString(compressed));
+            if (etag != null) {
+                properties.setProperty(ETAG_PROPERTY, etag);
+            }
+            if (lastModified != null) {
+                properties.setProperty(LAST_MODIFIED_PROPERTY, lastModified);
+            }
+
+            File tempFile = File.createTempFile(prefix + "-", ".tmp", directory);
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            move(tempFile, getIndexFile(prefix));
+
+            // remove the previous version of the workspace, if the content has changed
+            if (previousEntry != null && (!previousEntry.hash.equals(hash) || previousEntry.compressed != compressed)) {
+                Files.deleteIfExists(getContentFile(prefix, previousEntry.hash, previousEntry.compressed).toPath());
+            }
+        } catch (Exception e) {
+            log.warn("Could not cache workspace with ID " + workspaceId + " from " + url + " in " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    private void move(File source, File destination) throws IOException {
+        Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String hash(byte[] bytes) throws Exception {
+        return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256").digest(bytes)).toLowerCase();
+    }
+
+    private String getPrefix(String url, long workspaceId) {
+        try {
+            return "structurizr-" + hash(url.getBytes(StandardCharsets.UTF_8)).substring(0, 16) + "-" + workspaceId;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private File getIndexFile(String prefix) {
+        return new File(directory, prefix + ".properties");
+    }
+
+    private File getContentFile(String prefix, String hash, boolean compressed) {
+        return new File(directory, prefix + "-" + hash + (compressed ? ".json.gz" : ".json"));
+    }
+
+    static final class Entry {
+
+        private final String prefix;
+        private final String hash;
+        private final boolean compressed;
+        private final String etag;
+        private final String lastModified;
+
+        private Entry(String prefix, String hash, boolean compressed, String etag, String lastModified) {
+            this.prefix = prefix;
+            this.hash = hash;
+            this.compressed = compressed;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+    }
+
+}
@@ -1,12 +1,17 @@
 package com.structurizr.encryption;
 
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
@@ -16,6 +21,10 @@ import java.util.Base64;
 /**
  * This is implementation of an AES encryption strategy, allowing you to specify the
  * key size, iteration count and passphrase.
+ *
+ * The derived key is cached by each instance, so that the (deliberately slow) PBKDF2 key derivation only happens
+ * once, rather than for every encrypt/decrypt operation. The key is retained for as long as the instance is
+ * (it's derived again if the passphrase is changed); use {@link #clearCache()} to discard it sooner.
  */
 public final class AesEncryptionStrategy extends EncryptionStrategy {
 
@@ -27,6 +36,9 @@ public final class AesEncryptionStrategy extends EncryptionStrategy {
     private String salt;
     private String iv;
 
+    private String secretKeyPassphrase;
+    private SecretKey secretKey;
+
     AesEncryptionStrategy() {
     }
 
@@ -61,25 +73,54 @@ public final class AesEncryptionStrategy extends EncryptionStrategy {
     }
 
     public String encrypt(String plaintext) throws Exception {
-        SecretKey secretKey = createSecretKey();
-
-        Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
+        Cipher cipher = createCipher(Cipher.ENCRYPT_MODE);
 
-        byte[] byteDataToEncrypt = plaintext.getBytes();
+        byte[] byteDataToEncrypt = plaintext.getBytes(StandardCharsets.UTF_8);
         byte[] byteCipherText = cipher.doFinal(byteDataToEncrypt);
 
         return Base64.getEncoder().encodeToString(byteCipherText);
     }
 
     public String decrypt(String ciphertext) throws Exception {
-        SecretKey secretKey = createSecretKey();
+        Cipher cipher = createCipher(Cipher.DECRYPT_MODE);
+        byte[] unencrypted = cipher.doFinal(Base64.getDecoder().decode(ciphertext));
+
+        return new String(unencrypted, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public OutputStream createEncryptingOutputStream(OutputStream ciphertext) throws Exception {
+        return new CipherOutputStream(Base64.getEncoder().wrap(ciphertext), createCipher(Cipher.ENCRYPT_MODE));
+    }
 
+    @Override
+    public InputStream createDecryptingInputStream(InputStream ciphertext) throws Exception {
+        return new CipherInputStream(Base64.getDecoder().wrap(ciphertext), createCipher(Cipher.DECRYPT_MODE));
+    }
+
+    private Cipher createCipher(int mode) throws Exception {
         Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
-        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
-        byte[] unencrypted = cipher.doFinal(Base64.getDecoder().decode(ciphertext));
+        cipher.init(mode, getSecretKey(), new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
+
+        return cipher;
+    }
+
+    private synchronized SecretKey getSecretKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        // the key size, iteration count and salt can't be changed, but the passphrase can
+        if (secretKey == null || !getPassphrase().equals(secretKeyPassphrase)) {
+            secretKey = createSecretKey();
+            secretKeyPassphrase = getPassphrase();
+        }
+
+        return secretKey;
+    }
 
-        return new String(unencrypted, "UTF-8");
+    /**
+     * Discards the cached key, so that it's derived again by the next encrypt/decrypt operation.
+     */
+    public synchronized void clearCache() {
+        secretKey = null;
+        secretKeyPassphrase = null;
     }
 
     private SecretKey createSecretKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
@@ -6,16 +6,29 @@ import com.structurizr.Workspace;
 import com.structurizr.io.json.JsonReader;
 import com.structurizr.io.json.JsonWriter;
 
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This is a wrapper around an existing workspace that has been encrypted.
+ *
+ * Workspaces created with createForStreaming(Workspace, EncryptionStrategy) are only serialised and encrypted
+ * when writeCiphertext(OutputStream) is called (as the EncryptedJsonWriter does), and workspaces read by the
+ * EncryptedJsonReader are decrypted and parsed directly from the ciphertext bytes, so that the plaintext
+ * is never held in memory.
  */
 public final class EncryptedWorkspace extends AbstractWorkspace {
 
     private Workspace workspace;
     private String ciphertext;
+    private byte[] ciphertextBytes;
     private String plaintext;
 
     private EncryptionStrategy encryptionStrategy;
@@ -39,6 +52,7 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         jsonWriter.write(workspace, stringWriter);
 
         init(workspace, stringWriter.toString(), encryptionStrategy);
+        this.ciphertext = encryptionStrategy.encrypt(plaintext);
     }
 
     public EncryptedWorkspace(Workspace workspace, String plaintext, EncryptionStrategy encryptionStrategy) throws Exception {
@@ -46,9 +60,29 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         workspace.clearConfiguration();
 
         init(workspace, plaintext, encryptionStrategy);
+        this.ciphertext = encryptionStrategy.encrypt(plaintext);
+    }
+
+    /**
+     * Creates an encrypted version of the specified workspace, which is serialised and encrypted when
+     * writeCiphertext(OutputStream) is called, rather than up front. Since the ciphertext is never held in memory,
+     * getCiphertext() returns null for encrypted workspaces created this way.
+     *
+     * @param workspace             the Workspace to encrypt
+     * @param encryptionStrategy    the encryption strategy
+     * @return  an EncryptedWorkspace instance
+     */
+    public static EncryptedWorkspace createForStreaming(Workspace workspace, EncryptionStrategy encryptionStrategy) {
+        EncryptedWorkspace encryptedWorkspace = new EncryptedWorkspace();
+        encryptedWorkspace.setConfiguration(workspace.getConfiguration());
+        workspace.clearConfiguration();
+
+        encryptedWorkspace.init(workspace, null, encryptionStrategy);
+
+        return encryptedWorkspace;
     }
 
-    private void init(Workspace workspace, String plaintext, EncryptionStrategy encryptionStrategy) throws Exception {
+    private void init(Workspace workspace, String plaintext, EncryptionStrategy encryptionStrategy) {
         this.workspace = workspace;
 
         setId(workspace.getId());
@@ -60,7 +94,6 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         setLastModifiedAgent(workspace.getLastModifiedAgent());
 
         this.plaintext = plaintext;
-        this.ciphertext = encryptionStrategy.encrypt(plaintext);
         this.encryptionStrategy = encryptionStrategy;
     }
 
@@ -68,22 +101,85 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
     public Workspace getWorkspace() throws Exception {
         if (this.workspace != null) {
             return this.workspace;
-        } else if (this.ciphertext != null) {
-            this.plaintext = encryptionStrategy.decrypt(ciphertext);
-            JsonReader jsonReader = new JsonReader();
-            StringReader stringReader = new StringReader(plaintext);
-            return jsonReader.read(stringReader);
+        } else if (this.ciphertextBytes != null || this.ciphertext != null) {
+            // decrypt and parse in a streaming fashion, rather than creating a plaintext string
+            byte[] bytes = this.ciphertextBytes != null ? this.ciphertextBytes : this.ciphertext.getBytes(StandardCharsets.UTF_8);
+            try (Reader reader = new InputStreamReader(encryptionStrategy.createDecryptingInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8)) {
+                JsonReader jsonReader = new JsonReader();
+                return jsonReader.read(reader);
+            }
         } else {
             return null;
         }
     }
 
     public String getCiphertext() {
+        if (this.ciphertext == null && this.ciphertextBytes != null) {
+            return new String(ciphertextBytes, StandardCharsets.UTF_8);
+        }
+
         return ciphertext;
     }
 
     public void setCiphertext(String ciphertext) {
         this.ciphertext = ciphertext;
+        this.ciphertextBytes = null;
+    }
+
+    /**
+     * Sets the ciphertext as UTF-8 bytes (as read by the EncryptedJsonReader), so that it can be decrypted
+     * without first being converted to a String.
+     *
+     * @param ciphertextBytes   the ciphertext, as UTF-8 bytes
+     */
+    @JsonIgnore
+    public void setCiphertextBytes(byte[] ciphertextBytes) {
+        this.ciphertextBytes = ciphertextBytes;
+        this.ciphertext = null;
+    }
+
+    /**
+     * Writes the ciphertext to the specified output stream (which is not closed). For encrypted workspaces
+     * created with createForStreaming(Workspace, EncryptionStrategy), the workspace is serialised and encrypted
+     * on the fly.
+     *
+     * @param outputStream      the OutputStream to write the ciphertext to
+     * @throws Exception        if an error occurs while encrypting the workspace
+     */
+    public void writeCiphertext(OutputStream outputStream) throws Exception {
+        if (this.ciphertextBytes != null) {
+            outputStream.write(ciphertextBytes);
+            return;
+        } else if (this.ciphertext != null) {
+            outputStream.write(ciphertext.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        OutputStream nonClosingOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                outputStream.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                outputStream.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                outputStream.flush();
+            }
+        };
+
+        try (Writer writer = new OutputStreamWriter(encryptionStrategy.createEncryptingOutputStream(nonClosingOutputStream), StandardCharsets.UTF_8)) {
+            if (this.plaintext != null) {
+                writer.write(plaintext);
+            } else {
+                JsonWriter jsonWriter = new JsonWriter(false);
+                jsonWriter.write(workspace, writer);
+            }
+        }
     }
 
     @JsonIgnore
@@ -91,7 +187,7 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         if (this.plaintext != null) {
             return this.plaintext;
         } else {
-            return encryptionStrategy.decrypt(ciphertext);
+            return encryptionStrategy.decrypt(getCiphertext());
         }
     }
 
@@ -103,4 +199,4 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         this.encryptionStrategy = encryptionStrategy;
     }
 
-}
\ No newline at end of file
+}
@@ -4,6 +4,13 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Superclass for all encryption strategies.
  */
@@ -44,4 +51,48 @@ public abstract class EncryptionStrategy {
 
     public abstract String decrypt(String ciphertext) throws Exception;
 
+    /**
+     * Creates an output stream that encrypts the plaintext (UTF-8 bytes) written to it, writing the ciphertext
+     * (in the same format as that returned by encrypt(String)) to the specified output stream.
+     * The returned stream must be closed to complete the encryption; doing so also closes the specified stream.
+     *
+     * This default implementation buffers the plaintext in memory and delegates to encrypt(String);
+     * subclasses should override this to provide a true streaming implementation.
+     *
+     * @param ciphertext    the OutputStream to write the ciphertext to
+     * @return              an OutputStream to write the plaintext to
+     * @throws Exception    if the stream can't be created
+     */
+    public OutputStream createEncryptingOutputStream(OutputStream ciphertext) throws Exception {
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                try (ciphertext) {
+                    ciphertext.write(encrypt(toString(StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ioe) {
+                    throw ioe;
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates an input stream that decrypts the ciphertext (in the same format as that accepted by decrypt(String))
+     * read from the specified input stream, returning the plaintext as UTF-8 bytes.
+     *
+     * This default implementation reads all of the ciphertext into memory and delegates to decrypt(String);
+     * subclasses should override this to provide a true streaming implementation.
+     *
+     * @param ciphertext    the InputStream to read the ciphertext from
+     * @return              an InputStream to read the plaintext from
+     * @throws Exception    if the stream can't be created
+     */
+    public InputStream createDecryptingInputStream(InputStream ciphertext) throws Exception {
+        String plaintext = decrypt(new String(ciphertext.readAllBytes(), StandardCharsets.UTF_8));
+
+        return new ByteArrayInputStream(plaintext.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
\ No newline at end of file
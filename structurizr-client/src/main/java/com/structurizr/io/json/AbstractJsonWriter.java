@@ -1,6 +1,7 @@
 package com.structurizr.io.json;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -22,6 +23,9 @@ class AbstractJsonWriter {
             objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         }
 
+        // the writers stream directly to the caller's Writer, which the caller is responsible for closing
+        objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
 
@@ -1,19 +1,30 @@
 package com.structurizr.io.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.structurizr.encryption.EncryptedWorkspace;
 import com.structurizr.io.WorkspaceReaderException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 public final class EncryptedJsonReader extends AbstractJsonReader {
 
+    private static final String CIPHERTEXT_PROPERTY_NAME = "ciphertext";
+
     public EncryptedJsonReader() {
     }
 
     /**
      * Reads and parses a workspace definition from a JSON document.
+     * The ciphertext is copied from the JSON parser as UTF-8 bytes (rather than as a String), which
+     * the encrypted workspace decrypts and parses in a streaming fashion.
      *
      * @param reader    a Reader on top of the workspace definition
      * @return          a Workspace object
@@ -22,11 +33,39 @@ public final class EncryptedJsonReader extends AbstractJsonReader {
     public EncryptedWorkspace read(Reader reader) throws WorkspaceReaderException {
         try {
             ObjectMapper objectMapper = createObjectMapper();
+            ObjectNode properties = objectMapper.createObjectNode();
+            ByteArrayOutputStream ciphertext = null;
+
+            try (JsonParser parser = objectMapper.createParser(reader)) {
+                JsonToken token = parser.nextToken();
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object, but found " + token);
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    token = parser.nextToken();
+
+                    if (CIPHERTEXT_PROPERTY_NAME.equals(name) && token == JsonToken.VALUE_STRING) {
+                        ciphertext = new ByteArrayOutputStream();
+                        try (Writer writer = new OutputStreamWriter(ciphertext, StandardCharsets.UTF_8)) {
+                            parser.getText(writer);
+                        }
+                    } else {
+                        properties.set(name, parser.readValueAsTree());
+                    }
+                }
+            }
+
+            EncryptedWorkspace encryptedWorkspace = objectMapper.treeToValue(properties, EncryptedWorkspace.class);
+            if (ciphertext != null) {
+                encryptedWorkspace.setCiphertextBytes(ciphertext.toByteArray());
+            }
 
-            return objectMapper.readValue(reader, EncryptedWorkspace.class);
+            return encryptedWorkspace;
         } catch (IOException ioe) {
             throw new WorkspaceReaderException("Could not read JSON", ioe);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -1,13 +1,26 @@
 package com.structurizr.io.json;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.structurizr.encryption.AesEncryptionStrategy;
 import com.structurizr.encryption.EncryptedWorkspace;
 import com.structurizr.io.WorkspaceWriterException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
 
 public final class EncryptedJsonWriter extends AbstractJsonWriter {
 
+    private static final String CIPHERTEXT_PROPERTY_NAME = "ciphertext";
+
     private boolean indentOutput = true;
 
     public EncryptedJsonWriter(boolean indentOutput) {
@@ -16,6 +29,7 @@ public final class EncryptedJsonWriter extends AbstractJsonWriter {
 
     /**
      * Writes an encrypted workspace definition as a JSON string to the specified Writer object.
+     * The ciphertext is streamed to the Writer as the workspace is encrypted.
      *
      * @param workspace     the Workspace object to write
      * @param writer        the Writer object to write the workspace to
@@ -31,10 +45,79 @@ public final class EncryptedJsonWriter extends AbstractJsonWriter {
 
         try {
             ObjectMapper objectMapper = createObjectMapper(indentOutput);
-            writer.write(objectMapper.writeValueAsString(workspace));
+            objectMapper.addMixIn(EncryptedWorkspace.class, EncryptedWorkspaceWithoutCiphertext.class);
+
+            // everything apart from the ciphertext is small, so serialise that up front (properties are sorted)
+            ObjectNode properties = objectMapper.valueToTree(workspace);
+
+            try (JsonGenerator generator = objectMapper.createGenerator(writer)) {
+                generator.writeStartObject();
+
+                boolean ciphertextWritten = false;
+                Iterator<Map.Entry<String, JsonNode>> iterator = properties.fields();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, JsonNode> property = iterator.next();
+                    if (!ciphertextWritten && property.getKey().compareTo(CIPHERTEXT_PROPERTY_NAME) > 0) {
+                        writeCiphertext(workspace, generator);
+                        ciphertextWritten = true;
+                    }
+
+                    generator.writeFieldName(property.getKey());
+                    generator.writeTree(property.getValue());
+                }
+
+                if (!ciphertextWritten) {
+                    writeCiphertext(workspace, generator);
+                }
+
+                generator.writeEndObject();
+            }
         } catch (Exception e) {
             throw new WorkspaceWriterException("Could not write as JSON", e);
         }
     }
 
-}
\ No newline at end of file
+    private void writeCiphertext(EncryptedWorkspace workspace, JsonGenerator generator) throws Exception {
+        generator.writeFieldName(CIPHERTEXT_PROPERTY_NAME);
+
+        if (!(workspace.getEncryptionStrategy() instanceof AesEncryptionStrategy)) {
+            // the format of the ciphertext is unknown, so let Jackson escape it
+            String ciphertext = workspace.getCiphertext();
+            if (ciphertext == null) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                workspace.writeCiphertext(outputStream);
+                ciphertext = outputStream.toString(StandardCharsets.UTF_8);
+            }
+
+            generator.writeString(ciphertext);
+            return;
+        }
+
+        // AES ciphertext is Base64 encoded, so can be streamed as raw characters without escaping
+        generator.writeRawValue("\"");
+        workspace.writeCiphertext(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                generator.writeRaw((char)b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                char[] chars = new char[len];
+                for (int i = 0; i < len; i++) {
+                    chars[i] = (char)b[off + i];
+                }
+                generator.writeRaw(chars, 0, len);
+            }
+        });
+        generator.writeRaw('"');
+    }
+
+    private static abstract class EncryptedWorkspaceWithoutCiphertext {
+
+        @JsonIgnore
+        abstract String getCiphertext();
+
+    }
+
+}
@@ -36,7 +36,7 @@ public final class JsonWriter extends AbstractJsonWriter implements WorkspaceWri
 
         try {
             ObjectMapper objectMapper = createObjectMapper(indentOutput);
-            writer.write(objectMapper.writeValueAsString(workspace));
+            objectMapper.writeValue(writer, workspace);
         } catch (IOException ioe) {
             throw new WorkspaceWriterException("Could not write as JSON", ioe);
         }
@@ -2,6 +2,10 @@ package com.structurizr.api;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class Md5DigestTests {
@@ -19,4 +23,14 @@ public class Md5DigestTests {
         assertEquals("d41d8cd98f00b204e9800998ecf8427e", md5.generate(""));
     }
 
-}
\ No newline at end of file
+    @Test
+    void generate_FromADigestOutputStream() throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DigestOutputStream digestOutputStream = md5.createDigestOutputStream(content);
+        digestOutputStream.write("Hello World!".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("ed076287532e86365e841e92bfc50d8c", md5.getDigest(digestOutputStream));
+        assertEquals("Hello World!", content.toString(StandardCharsets.UTF_8));
+    }
+
+}
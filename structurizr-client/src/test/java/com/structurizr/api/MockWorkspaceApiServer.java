@@ -0,0 +1,171 @@
+package com.structurizr.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A minimal, in-process stand-in for the workspace API, for use in tests.
+ */
+class MockWorkspaceApiServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<Long, String> workspaces = new ConcurrentHashMap<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger numberOfRequests = new AtomicInteger();
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numberOfNotModifiedResponses = new AtomicInteger();
+    private final AtomicInteger numberOfCompressedRequests = new AtomicInteger();
+    private final AtomicInteger numberOfCompressedResponses = new AtomicInteger();
+
+    MockWorkspaceApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/workspace/", this::handle);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void setWorkspace(long workspaceId, String json) {
+        workspaces.put(workspaceId, json);
+    }
+
+    String getWorkspace(long workspaceId) {
+        return workspaces.get(workspaceId);
+    }
+
+    void failNextRequests(int numberOfRequests, int status) {
+        for (int i = 0; i < numberOfRequests; i++) {
+            failures.add(status);
+        }
+    }
+
+    int getNumberOfNotModifiedResponses() {
+        return numberOfNotModifiedResponses.get();
+    }
+
+    int getNumberOfCompressedRequests() {
+        return numberOfCompressedRequests.get();
+    }
+
+    int getNumberOfCompressedResponses() {
+        return numberOfCompressedResponses.get();
+    }
+
+    int getNumberOfConnections() {
+        return clientPorts.size();
+    }
+
+    int getNumberOfRequests() {
+        return numberOfRequests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        numberOfRequests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+
+        Integer failure = failures.poll();
+        if (failure != null) {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            respond(exchange, failure, "{\"success\":false,\"message\":\"Error " + failure + "\"}");
+            return;
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        long workspaceId = Long.parseLong(path.substring("/workspace/".length()).split("/")[0]);
+
+        if (exchange.getRequestMethod().equals("GET")) {
+            String json = workspaces.get(workspaceId);
+            if (json != null) {
+                String etag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+                exchange.getResponseHeaders().add("ETag", etag);
+
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    numberOfNotModifiedResponses.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                } else {
+                    respond(exchange, 200, json);
+                }
+            } else {
+                respond(exchange, 404, "{\"success\":false,\"message\":\"Workspace not found\"}");
+            }
+        } else if (exchange.getRequestMethod().equals("PUT") && !path.endsWith("/lock")) {
+            byte[] content = exchange.getRequestBody().readAllBytes();
+
+            // the Content-MD5 header is calculated over the bytes that are sent
+            String contentMd5 = md5(content);
+            if (!Base64.getEncoder().encodeToString(contentMd5.getBytes(StandardCharsets.UTF_8)).equals(exchange.getRequestHeaders().getFirst("Content-MD5"))) {
+                respond(exchange, 401, "{\"success\":false,\"message\":\"Incorrect Content-MD5\"}");
+                return;
+            }
+
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                numberOfCompressedRequests.incrementAndGet();
+                content = new GZIPInputStream(new ByteArrayInputStream(content)).readAllBytes();
+            }
+
+            workspaces.put(workspaceId, new String(content, StandardCharsets.UTF_8));
+            respond(exchange, 200, "{\"success\":true,\"message\":\"OK\"}");
+        } else {
+            respond(exchange, 200, "{\"success\":true,\"message\":\"OK\"}");
+        }
+    }
+
+    private String md5(byte[] content) {
+        try {
+            Md5Digest md5Digest = new Md5Digest();
+            DigestOutputStream digestOutputStream = md5Digest.createDigestOutputStream(new ByteArrayOutputStream());
+            digestOutputStream.write(content);
+
+            return md5Digest.getDigest(digestOutputStream);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            numberOfCompressedResponses.incrementAndGet();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+                gzipOutputStream.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+}
@@ -1,8 +1,16 @@
 package com.structurizr.api;
 
 import com.structurizr.Workspace;
+import com.structurizr.util.WorkspaceUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class WorkspaceApiClientTests {
@@ -163,4 +171,226 @@ public class WorkspaceApiClientTests {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void getWorkspace_ReusesConnections() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+
+                for (int i = 0; i < 5; i++) {
+                    assertEquals("Name", client.getWorkspace(1).getName());
+                }
+            }
+
+            assertEquals(5, server.getNumberOfRequests());
+            assertEquals(1, server.getNumberOfConnections());
+        }
+    }
+
+    @Test
+    void putWorkspace_ReusesTheConnectionUsedToMergeFromRemote() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+                client.putWorkspace(1, new Workspace("New name", "Description"));
+            }
+
+            assertEquals(2, server.getNumberOfRequests());
+            assertEquals(1, server.getNumberOfConnections());
+            assertEquals("New name", WorkspaceUtils.fromJson(server.getWorkspace(1)).getName());
+        }
+    }
+
+    @Test
+    void setMaximumConnections_ThrowsAnException_WhenPassedZero() {
+        client = new WorkspaceApiClient("key", "secret");
+
+        try {
+            client.setMaximumConnections(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The maximum number of connections must be a positive integer.", iae.getMessage());
+        }
+    }
+
+    @Test
+    void getWorkspaces_GetsAllOfTheWorkspaces() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            List<Long> workspaceIds = new ArrayList<>();
+            for (long workspaceId = 1; workspaceId <= 20; workspaceId++) {
+                server.setWorkspace(workspaceId, WorkspaceUtils.toJson(new Workspace("Workspace " + workspaceId, "Description"), false));
+                workspaceIds.add(workspaceId);
+            }
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+                client.setMaximumConnections(4);
+
+                BatchResult<Workspace> result = client.getWorkspaces(workspaceIds);
+                assertTrue(result.isSuccessful());
+                assertEquals(20, result.getResults().size());
+                assertEquals("Workspace 7", result.getResults().get(7L).getName());
+            }
+
+            assertTrue(server.getNumberOfConnections() <= 4);
+        }
+    }
+
+    @Test
+    void getWorkspaces_RetriesRequests_WhenTheServerIsBusy() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+            server.failNextRequests(2, 429);
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+
+                BatchResult<Workspace> result = client.getWorkspaces(List.of(1L));
+                assertTrue(result.isSuccessful());
+                assertEquals("Name", result.getResults().get(1L).getName());
+            }
+
+            assertEquals(3, server.getNumberOfRequests());
+        }
+    }
+
+    @Test
+    void putWorkspaces_ReportsFailures() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.failNextRequests(1, 503);
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setMergeFromRemote(false);
+                client.setMaximumRetries(0);
+                client.setMaximumConnections(1);
+
+                Map<Long, Workspace> workspaces = new HashMap<>();
+                workspaces.put(1L, new Workspace("Workspace 1", "Description"));
+                workspaces.put(2L, new Workspace("Workspace 2", "Description"));
+
+                BatchResult<Workspace> result = client.putWorkspaces(workspaces);
+                assertFalse(result.isSuccessful());
+                assertEquals(1, result.getResults().size());
+                assertEquals(1, result.getFailures().size());
+            }
+        }
+    }
+
+    @Test
+    void getWorkspace_DoesNotRetryRequests_WhenTheServerIsBusy() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+            server.failNextRequests(1, 503);
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+
+                try {
+                    client.getWorkspace(1);
+                    fail();
+                } catch (StructurizrClientException sce) {
+                    // expected
+                }
+            }
+
+            assertEquals(1, server.getNumberOfRequests());
+        }
+    }
+
+    @Test
+    void executeBatch_ReportsAFailure_WhenAnOperationThrowsARuntimeException() {
+        client = new WorkspaceApiClient("key", "secret");
+        client.setMaximumConnections(1);
+
+        BatchResult<Long> result = client.executeBatch(List.of(1L, 2L, 3L), workspaceId -> {
+            if (workspaceId == 2) {
+                throw new IllegalStateException("Workspace 2");
+            }
+
+            return workspaceId;
+        });
+
+        assertFalse(result.isSuccessful());
+        assertEquals(2, result.getResults().size());
+        assertEquals(1L, result.getResults().get(1L));
+        assertEquals(3L, result.getResults().get(3L));
+        assertEquals(1, result.getFailures().size());
+        assertEquals("Workspace 2", result.getFailures().get(2L).getCause().getMessage());
+    }
+
+    @Test
+    void getRetryDelay_IsCapped() {
+        assertEquals(5000, WorkspaceApiClient.getRetryDelay("5", 0));
+        assertEquals(30000, WorkspaceApiClient.getRetryDelay("86400", 0));
+        assertEquals(30000, WorkspaceApiClient.getRetryDelay(null, 100));
+        assertTrue(WorkspaceApiClient.getRetryDelay(null, 0) >= 500);
+        assertTrue(WorkspaceApiClient.getRetryDelay(null, 0) <= 750);
+    }
+
+    @Test
+    void getWorkspaces_ThrowsAnException_WhenAnInvalidWorkspaceIdIsSpecified() {
+        client = new WorkspaceApiClient("key", "secret");
+
+        try {
+            client.getWorkspaces(List.of(1L, 0L));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The workspace ID must be a positive integer.", iae.getMessage());
+        }
+    }
+
+    @Test
+    void getWorkspace_UsesTheCachedWorkspace_WhenTheWorkspaceHasNotBeenModified() throws Exception {
+        File cacheLocation = Files.createTempDirectory("structurizr").toFile();
+
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+                client.setWorkspaceCacheLocation(cacheLocation, true);
+
+                assertEquals("Name", client.getWorkspace(1).getName());
+                assertEquals("Name", client.getWorkspace(1).getName());
+                assertEquals(1, server.getNumberOfNotModifiedResponses());
+
+                server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("New name", "Description"), false));
+                assertEquals("New name", client.getWorkspace(1).getName());
+                assertEquals(1, server.getNumberOfNotModifiedResponses());
+            }
+        }
+    }
+
+    @Test
+    void putWorkspace_CompressesTheWorkspace_WhenGzipRequestsAreEnabled() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setMergeFromRemote(false);
+                client.setGzipRequests(true);
+                client.putWorkspace(1, new Workspace("Name", "Description"));
+            }
+
+            assertEquals(1, server.getNumberOfCompressedRequests());
+            assertEquals("Name", WorkspaceUtils.fromJson(server.getWorkspace(1)).getName());
+        }
+    }
+
+    @Test
+    void getWorkspace_AcceptsCompressedResponses() throws Exception {
+        try (MockWorkspaceApiServer server = new MockWorkspaceApiServer()) {
+            server.setWorkspace(1, WorkspaceUtils.toJson(new Workspace("Name", "Description"), false));
+
+            try (WorkspaceApiClient client = new WorkspaceApiClient(server.getUrl(), "key", "secret")) {
+                client.setWorkspaceArchiveLocation(null);
+                assertEquals("Name", client.getWorkspace(1).getName());
+            }
+
+            assertEquals(1, server.getNumberOfCompressedResponses());
+        }
+    }
+
+}
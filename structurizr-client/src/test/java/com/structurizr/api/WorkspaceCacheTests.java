@@ -0,0 +1,74 @@
+package com.structurizr.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkspaceCacheTests {
+
+    private static final String URL = "https://api.structurizr.com";
+
+    private File directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("structurizr").toFile();
+    }
+
+    @Test
+    void get_ReturnsNull_WhenTheWorkspaceHasNotBeenCached() {
+        WorkspaceCache cache = new WorkspaceCache(directory, false);
+        assertNull(cache.get(URL, 1));
+    }
+
+    @Test
+    void put_and_get() throws Exception {
+        WorkspaceCache cache = new WorkspaceCache(directory, false);
+        cache.put(URL, 1, "{\"name\":\"Name\"}", "\"etag\"", "Mon, 1 Jul 2024 12:00:00 GMT");
+
+        WorkspaceCache.Entry entry = cache.get(URL, 1);
+        assertEquals("\"etag\"", entry.getEtag());
+        assertEquals("Mon, 1 Jul 2024 12:00:00 GMT", entry.getLastModified());
+        assertEquals("{\"name\":\"Name\"}", cache.getJson(entry));
+    }
+
+    @Test
+    void put_and_get_WhenCompressed() throws Exception {
+        WorkspaceCache cache = new WorkspaceCache(directory, true);
+        cache.put(URL, 1, "{\"name\":\"Name\"}", null, null);
+
+        WorkspaceCache.Entry entry = cache.get(URL, 1);
+        assertNull(entry.getEtag());
+        assertNull(entry.getLastModified());
+        assertEquals("{\"name\":\"Name\"}", cache.getJson(entry));
+        assertEquals(1, directory.listFiles((dir, name) -> name.endsWith(".json.gz")).length);
+    }
+
+    @Test
+    void put_RemovesThePreviousVersion_WhenTheContentHasChanged() throws Exception {
+        WorkspaceCache cache = new WorkspaceCache(directory, false);
+        cache.put(URL, 1, "{\"name\":\"Name\"}", null, null);
+        cache.put(URL, 1, "{\"name\":\"New name\"}", null, null);
+        cache.put(URL, 2, "{\"name\":\"Name\"}", null, null);
+
+        assertEquals("{\"name\":\"New name\"}", cache.getJson(cache.get(URL, 1)));
+        assertEquals("{\"name\":\"Name\"}", cache.getJson(cache.get(URL, 2)));
+        assertEquals(2, directory.listFiles((dir, name) -> name.endsWith(".json")).length);
+    }
+
+    @Test
+    void get_ReturnsNull_WhenTheWorkspaceHasOnlyBeenCachedForAnotherUrl() throws Exception {
+        WorkspaceCache cache = new WorkspaceCache(directory, false);
+        cache.put(URL, 1, "{\"name\":\"Name\"}", null, null);
+        cache.put("http://localhost:8080/api", 1, "{\"name\":\"Local\"}", null, null);
+
+        assertNull(cache.get("http://localhost:9090/api", 1));
+        assertEquals("{\"name\":\"Name\"}", cache.getJson(cache.get(URL, 1)));
+        assertEquals("{\"name\":\"Local\"}", cache.getJson(cache.get("http://localhost:8080/api", 1)));
+    }
+
+}
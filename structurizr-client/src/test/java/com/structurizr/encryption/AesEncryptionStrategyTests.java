@@ -3,6 +3,11 @@ package com.structurizr.encryption;
 import org.junit.jupiter.api.Test;
 
 import javax.crypto.BadPaddingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +40,26 @@ public class AesEncryptionStrategyTests {
         assertEquals("Hello world", strategy.decrypt(ciphertext));
     }
 
+    @Test
+    void decrypt_usesTheNewPassphrase_WhenThePassphraseIsChanged() throws Exception {
+        AesEncryptionStrategy strategy = new AesEncryptionStrategy(128, 1000, "06DC30A48ADEEE72D98E33C2CEAEAD3E", "ED124530AF64A5CAD8EF463CF5628434", "The Wrong Password");
+        String ciphertext = "A/DzjV17WVS6ZAKsLOaC/Q==";
+        assertThrows(BadPaddingException.class, () -> strategy.decrypt(ciphertext));
+
+        // the key derived from the wrong password isn't reused
+        strategy.setPassphrase("password");
+        assertEquals("Hello world", strategy.decrypt(ciphertext));
+    }
+
+    @Test
+    void decrypt_decryptsTheCiphertext_AfterTheCacheIsCleared() throws Exception {
+        AesEncryptionStrategy strategy = new AesEncryptionStrategy(128, 1000, "06DC30A48ADEEE72D98E33C2CEAEAD3E", "ED124530AF64A5CAD8EF463CF5628434", "password");
+        String ciphertext = strategy.encrypt("Hello world");
+
+        strategy.clearCache();
+        assertEquals("Hello world", strategy.decrypt(ciphertext));
+    }
+
     @Test
     void decrypt_doesNotDecryptTheCiphertext_WhenTheIncorrectKeySizeIsUsed() throws Exception {
         try {
@@ -100,4 +125,29 @@ public class AesEncryptionStrategyTests {
         });
     }
 
+    @Test
+    void createEncryptingOutputStream_ProducesTheSameCiphertextAsEncrypt() throws Exception {
+        AesEncryptionStrategy strategy = new AesEncryptionStrategy(128, 1000, "06DC30A48ADEEE72D98E33C2CEAEAD3E", "ED124530AF64A5CAD8EF463CF5628434", "password");
+
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        try (OutputStream outputStream = strategy.createEncryptingOutputStream(ciphertext)) {
+            outputStream.write("Hello world".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals("A/DzjV17WVS6ZAKsLOaC/Q==", ciphertext.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void createDecryptingInputStream_DecryptsTheCiphertext() throws Exception {
+        AesEncryptionStrategy strategy = new AesEncryptionStrategy(128, 1000, "password");
+        String plaintext = "Hello world ".repeat(10000);
+
+        String ciphertext = strategy.encrypt(plaintext);
+
+        strategy = new AesEncryptionStrategy(strategy.getKeySize(), strategy.getIterationCount(), strategy.getSalt(), strategy.getIv(), "password");
+        try (InputStream inputStream = strategy.createDecryptingInputStream(new ByteArrayInputStream(ciphertext.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(plaintext, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
 }
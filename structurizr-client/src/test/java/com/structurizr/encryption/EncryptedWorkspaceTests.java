@@ -6,7 +6,9 @@ import com.structurizr.io.json.JsonWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,6 +55,33 @@ public class EncryptedWorkspaceTests {
         assertEquals(encryptionStrategy.encrypt(stringWriter.toString()), encryptedWorkspace.getCiphertext());
     }
 
+    @Test
+    void construction_CapturesTheCiphertextOfTheWorkspaceAsItWasWhenConstructed() throws Exception {
+        encryptedWorkspace = new EncryptedWorkspace(workspace, encryptionStrategy);
+        String ciphertext = encryptedWorkspace.getCiphertext();
+
+        workspace.setName("Another Name");
+        assertEquals(ciphertext, encryptedWorkspace.getCiphertext());
+    }
+
+    @Test
+    void createForStreaming() throws Exception {
+        encryptedWorkspace = EncryptedWorkspace.createForStreaming(workspace, encryptionStrategy);
+
+        assertEquals("Name", encryptedWorkspace.getName());
+        assertEquals("user@domain.com", encryptedWorkspace.getConfiguration().getUsers().iterator().next().getUsername());
+        assertTrue(workspace.getConfiguration().getUsers().isEmpty());
+        assertNull(encryptedWorkspace.getCiphertext());
+
+        JsonWriter jsonWriter = new JsonWriter(false);
+        StringWriter stringWriter = new StringWriter();
+        jsonWriter.write(workspace, stringWriter);
+
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        encryptedWorkspace.writeCiphertext(ciphertext);
+        assertEquals(encryptionStrategy.encrypt(stringWriter.toString()), ciphertext.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     void construction_WhenThreeParametersAreSpecified() throws Exception {
         JsonWriter jsonWriter = new JsonWriter(false);
@@ -1,5 +1,6 @@
 package com.structurizr.io.json;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.structurizr.Workspace;
 import com.structurizr.encryption.AesEncryptionStrategy;
 import com.structurizr.encryption.EncryptedWorkspace;
@@ -9,6 +10,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class EncryptedJsonTests {
 
@@ -36,4 +38,40 @@ public class EncryptedJsonTests {
         assertEquals("Description", workspace2.getDescription());
     }
 
-}
\ No newline at end of file
+    @Test
+    void write_StreamsTheSameCiphertextAsTheEncryptionStrategy() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getModel().addSoftwareSystem("Software System");
+
+        StringWriter plaintext = new StringWriter();
+        new JsonWriter(false).write(workspace, plaintext);
+
+        AesEncryptionStrategy encryptionStrategy = new AesEncryptionStrategy("password");
+        EncryptedWorkspace encryptedWorkspace = EncryptedWorkspace.createForStreaming(workspace, encryptionStrategy);
+        assertNull(encryptedWorkspace.getCiphertext());
+        StringWriter stringWriter = new StringWriter();
+        new EncryptedJsonWriter(false).write(encryptedWorkspace, stringWriter);
+
+        String ciphertext = new ObjectMapper().readTree(stringWriter.toString()).get("ciphertext").asText();
+        assertEquals(encryptionStrategy.encrypt(plaintext.toString()), ciphertext);
+        assertEquals("Name", new ObjectMapper().readTree(stringWriter.toString()).get("name").asText());
+    }
+
+    @Test
+    void read_DecryptsTheCiphertextAsItIsParsed() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getModel().addSoftwareSystem("Software System");
+
+        AesEncryptionStrategy encryptionStrategy = new AesEncryptionStrategy("password");
+        EncryptedWorkspace encryptedWorkspace = new EncryptedWorkspace(workspace, encryptionStrategy);
+        StringWriter stringWriter = new StringWriter();
+        new EncryptedJsonWriter(false).write(encryptedWorkspace, stringWriter);
+
+        EncryptedWorkspace encryptedWorkspace2 = new EncryptedJsonReader().read(new StringReader(stringWriter.toString()));
+        assertEquals(encryptedWorkspace.getCiphertext(), encryptedWorkspace2.getCiphertext());
+
+        encryptedWorkspace2.getEncryptionStrategy().setPassphrase("password");
+        assertEquals("Software System", encryptedWorkspace2.getWorkspace().getModel().getSoftwareSystems().iterator().next().getName());
+    }
+
+}
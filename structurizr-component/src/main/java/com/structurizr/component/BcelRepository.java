@@ -0,0 +1,62 @@
+package com.structurizr.component;
+
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.util.ClassPath;
+import org.apache.bcel.util.Repository;
+import org.apache.bcel.util.SyntheticRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A BCEL repository that holds the classes found by a single component finder, so that they don't need to be
+ * added to (or cleared from) BCEL's global static repository. Classes that haven't been stored here
+ * (e.g. JDK and library classes) are loaded from the classpath.
+ */
+final class BcelRepository implements Repository {
+
+    private final Map<String, JavaClass> classes = new ConcurrentHashMap<>();
+    private final Repository parent = SyntheticRepository.getInstance();
+
+    @Override
+    public void clear() {
+        classes.clear();
+    }
+
+    @Override
+    public ClassPath getClassPath() {
+        return parent.getClassPath();
+    }
+
+    @Override
+    public JavaClass findClass(String className) {
+        return classes.get(className);
+    }
+
+    @Override
+    public JavaClass loadClass(Class<?> clazz) throws ClassNotFoundException {
+        return loadClass(clazz.getName());
+    }
+
+    @Override
+    public JavaClass loadClass(String className) throws ClassNotFoundException {
+        JavaClass javaClass = classes.get(className);
+        if (javaClass == null) {
+            javaClass = parent.loadClass(className);
+        }
+
+        return javaClass;
+    }
+
+    @Override
+    public void removeClass(JavaClass javaClass) {
+        classes.remove(javaClass.getClassName());
+    }
+
+    @Override
+    public void storeClass(JavaClass javaClass) {
+        classes.put(javaClass.getClassName(), javaClass);
+        javaClass.setRepository(this);
+    }
+
+}
@@ -4,13 +4,10 @@ import com.structurizr.component.provider.TypeProvider;
 import com.structurizr.model.Component;
 import com.structurizr.model.Container;
 import com.structurizr.util.StringUtils;
-import org.apache.bcel.Repository;
-import org.apache.bcel.classfile.ConstantPool;
-import org.apache.bcel.classfile.Method;
-import org.apache.bcel.generic.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -25,19 +22,27 @@ public final class ComponentFinder {
     private static final String COMPONENT_SOURCE_PROPERTY_NAME = "component.src";
 
     private final TypeRepository typeRepository = new TypeRepository();
+    private final BcelRepository bcelRepository = new BcelRepository();
     private final Container container;
     private final List<ComponentFinderStrategy> componentFinderStrategies = new ArrayList<>();
+    private final ComponentFinderListener listener;
+    private final Set<DependencyKind> dependencyKinds;
 
-    ComponentFinder(Container container, Collection<TypeProvider> typeProviders, List<ComponentFinderStrategy> componentFinderStrategies) {
+    ComponentFinder(Container container, Map<String, TypeProvider> typeProviders, List<ComponentFinderStrategy> componentFinderStrategies, ComponentFinderListener listener, Set<DependencyKind> dependencyKinds) {
         this.container = container;
         this.componentFinderStrategies.addAll(componentFinderStrategies);
+        this.listener = listener;
+        this.dependencyKinds = dependencyKinds;
 
         findTypes(typeProviders);
     }
 
-    private void findTypes(Collection<TypeProvider> typeProviders) {
-        for (TypeProvider typeProvider : typeProviders) {
-            Set<com.structurizr.component.Type> types = typeProvider.getTypes();
+    private void findTypes(Map<String, TypeProvider> typeProviders) {
+        for (String location : typeProviders.keySet()) {
+            long start = System.nanoTime();
+            Set<com.structurizr.component.Type> types = typeProviders.get(location).getTypes();
+            listener.typesLoaded(location, types.size(), since(start));
+
             for (com.structurizr.component.Type type : types) {
                 if (type.getJavaClass() != null) {
                     // this is the BCEL identified type
@@ -53,46 +58,30 @@ public final class ComponentFinder {
             }
         }
 
-        Repository.clearCache();
+        // make the types available to BCEL (e.g. to resolve superclasses), without using its global repository
         for (com.structurizr.component.Type type : typeRepository.getTypes()) {
             if (type.getJavaClass() != null) {
-                Repository.addClass(type.getJavaClass());
-                findDependencies(type);
+                bcelRepository.storeClass(type.getJavaClass());
             }
         }
-    }
 
-    private void findDependencies(com.structurizr.component.Type type) {
-        ConstantPool cp = type.getJavaClass().getConstantPool();
-        ConstantPoolGen cpg = new ConstantPoolGen(cp);
-        for (Method m : type.getJavaClass().getMethods()) {
-            MethodGen mg = new MethodGen(m, type.getJavaClass().getClassName(), cpg);
-            InstructionList il = mg.getInstructionList();
-            if (il == null) {
-                continue;
-            }
-
-            InstructionHandle[] instructionHandles = il.getInstructionHandles();
-            for (InstructionHandle instructionHandle : instructionHandles) {
-                Instruction instruction = instructionHandle.getInstruction();
-                if (!(instruction instanceof InvokeInstruction)) {
-                    continue;
-                }
-
-                InvokeInstruction invokeInstruction = (InvokeInstruction)instruction;
-                ReferenceType referenceType = invokeInstruction.getReferenceType(cpg);
-                if (!(referenceType instanceof ObjectType)) {
-                    continue;
-                }
+        // resolve superclasses, interfaces and annotations once, rather than every time a type matcher needs them
+        long start = System.nanoTime();
+        new TypeHierarchy(typeRepository).index();
+        listener.typeHierarchyResolved(typeRepository.getTypes().size(), since(start));
+
+        // each type only modifies its own set of dependencies, and the type repository is read-only from here
+        start = System.nanoTime();
+        DependencyFinder dependencyFinder = new DependencyFinder(typeRepository, dependencyKinds);
+        Set<com.structurizr.component.Type> types = typeRepository.getTypes();
+        types.parallelStream()
+                .filter(type -> type.getJavaClass() != null)
+                .forEach(dependencyFinder::findDependencies);
+        listener.dependenciesFound(types.size(), types.stream().mapToInt(com.structurizr.component.Type::getNumberOfDependencies).sum(), since(start));
+    }
 
-                ObjectType objectType = (ObjectType)referenceType;
-                String referencedClassName = objectType.getClassName();
-                com.structurizr.component.Type referencedType = typeRepository.getType(referencedClassName);
-                if (referencedType != null) {
-                    type.addDependency(referencedType);
-                }
-            }
-        }
+    private static Duration since(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
     }
 
     /**
@@ -104,7 +93,7 @@ public final class ComponentFinder {
         Set<Component> componentSet = new LinkedHashSet<>();
 
         for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
-            Set<DiscoveredComponent> set = componentFinderStrategy.findComponents(typeRepository);
+            Set<DiscoveredComponent> set = componentFinderStrategy.findComponents(typeRepository, listener);
             if (set.isEmpty()) {
                 throw new RuntimeException("No components were found by " + componentFinderStrategy);
             }
@@ -123,25 +112,46 @@ public final class ComponentFinder {
             componentSet.add(component);
         }
 
-        // find dependencies between all components
+        // find dependencies between all components, via an index of type -> the component(s) that include it
+        long start = System.nanoTime();
+        int numberOfRelationships = 0;
+        Map<Type, List<DiscoveredComponent>> componentsByType = new HashMap<>();
+        for (DiscoveredComponent discoveredComponent : discoveredComponents) {
+            for (Type type : discoveredComponent.getAllTypes()) {
+                componentsByType.computeIfAbsent(type, t -> new ArrayList<>()).add(discoveredComponent);
+            }
+        }
+
         for (DiscoveredComponent discoveredComponent : discoveredComponents) {
             Set<com.structurizr.component.Type> typeDependencies = discoveredComponent.getAllDependencies();
             for (Type typeDependency : typeDependencies) {
-                for (DiscoveredComponent c : discoveredComponents) {
+                for (DiscoveredComponent c : componentsByType.getOrDefault(typeDependency, Collections.emptyList())) {
                     if (c != discoveredComponent) {
-                        if (c.getAllTypes().contains(typeDependency)) {
-                            Component componentDependency = componentMap.get(c);
-                            componentMap.get(discoveredComponent).uses(componentDependency, "");
+                        Component componentDependency = componentMap.get(c);
+                        if (componentMap.get(discoveredComponent).uses(componentDependency, "") != null) {
+                            numberOfRelationships++;
                         }
                     }
                 }
             }
         }
+        listener.componentDependenciesFound(componentSet.size(), numberOfRelationships, since(start));
 
         // now visit all components
+        Map<ComponentFinderStrategy, Integer> numberOfComponentsVisited = new LinkedHashMap<>();
+        Map<ComponentFinderStrategy, Long> visitorDurations = new LinkedHashMap<>();
         for (DiscoveredComponent discoveredComponent : componentMap.keySet()) {
             Component component = componentMap.get(discoveredComponent);
-            discoveredComponent.getComponentFinderStrategy().visit(component);
+            ComponentFinderStrategy componentFinderStrategy = discoveredComponent.getComponentFinderStrategy();
+
+            start = System.nanoTime();
+            componentFinderStrategy.visit(component);
+            numberOfComponentsVisited.merge(componentFinderStrategy, 1, Integer::sum);
+            visitorDurations.merge(componentFinderStrategy, System.nanoTime() - start, Long::sum);
+        }
+
+        for (ComponentFinderStrategy componentFinderStrategy : numberOfComponentsVisited.keySet()) {
+            listener.componentsVisited(componentFinderStrategy.toString(), numberOfComponentsVisited.get(componentFinderStrategy), Duration.ofNanos(visitorDurations.get(componentFinderStrategy)));
         }
 
         return componentSet;
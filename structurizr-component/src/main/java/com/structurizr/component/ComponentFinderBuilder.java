@@ -8,7 +8,11 @@ import com.structurizr.model.Container;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Provides a way to create a {@link ComponentFinder} instance.
@@ -18,8 +22,11 @@ public class ComponentFinderBuilder {
     private static final String JAR_FILE_EXTENSION = ".jar";
 
     private Container container;
-    private final List<TypeProvider> typeProviders = new ArrayList<>();
+    private ComponentFinderSession session;
+    private ComponentFinderListener listener = new ComponentFinderListener() {};
+    private final Map<String, TypeProvider> typeProviders = new LinkedHashMap<>();
     private final List<ComponentFinderStrategy> componentFinderStrategies = new ArrayList<>();
+    private Set<DependencyKind> dependencyKinds = EnumSet.copyOf(DependencyFinder.DEFAULT_DEPENDENCY_KINDS);
 
     public ComponentFinderBuilder forContainer(Container container) {
         this.container = container;
@@ -27,6 +34,40 @@ public class ComponentFinderBuilder {
         return this;
     }
 
+    /**
+     * Shares the types loaded from classes and source code with other component finders that use the same session,
+     * so that each location is only read and parsed once.
+     *
+     * @param session   a ComponentFinderSession instance
+     * @return  this builder
+     */
+    public ComponentFinderBuilder withSession(ComponentFinderSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("A session must be specified");
+        }
+
+        this.session = session;
+
+        return this;
+    }
+
+    /**
+     * Reports counts and durations for each phase of finding components to the specified listener
+     * (e.g. a {@link ComponentFinderMetrics} instance).
+     *
+     * @param listener  a ComponentFinderListener instance
+     * @return  this builder
+     */
+    public ComponentFinderBuilder withListener(ComponentFinderListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("A listener must be specified");
+        }
+
+        this.listener = listener;
+
+        return this;
+    }
+
     public ComponentFinderBuilder fromClasses(String path) {
         return fromClasses(new File(path));
     }
@@ -37,9 +78,9 @@ public class ComponentFinderBuilder {
         }
 
         if (path.isDirectory()) {
-            this.typeProviders.add(new ClassDirectoryTypeProvider(path));
+            this.typeProviders.put(location("classes", path), new ClassDirectoryTypeProvider(path));
         } else if (path.getName().endsWith(JAR_FILE_EXTENSION)) {
-            this.typeProviders.add(new ClassJarFileTypeProvider(path));
+            this.typeProviders.put(location("classes", path), new ClassJarFileTypeProvider(path));
         } else {
             throw new IllegalArgumentException("Expected a directory of classes or a .jar file: " + path.getAbsolutePath());
         }
@@ -52,7 +93,58 @@ public class ComponentFinderBuilder {
     }
 
     public ComponentFinderBuilder fromSource(File path) {
-        this.typeProviders.add(new SourceDirectoryTypeProvider(path));
+        this.typeProviders.put(location(path, null, false), new SourceDirectoryTypeProvider(path));
+
+        return this;
+    }
+
+    /**
+     * Adds a source directory, caching the types found in each source file in the specified cache file,
+     * so that only source files that have changed since the previous run are parsed.
+     *
+     * @param path          the source directory
+     * @param cacheFile     the cache file (created if it doesn't exist)
+     * @return  this builder
+     */
+    public ComponentFinderBuilder fromSource(File path, File cacheFile) {
+        this.typeProviders.put(location(path, cacheFile, false), new SourceDirectoryTypeProvider(path, cacheFile));
+
+        return this;
+    }
+
+    /**
+     * Adds a source directory, optionally caching the types found in each source file (see
+     * {@link #fromSource(File, File)}), and optionally only scanning the package, type declaration headers and
+     * Javadoc comments of each source file, rather than fully parsing it.
+     *
+     * @param path          the source directory
+     * @param cacheFile     the cache file (created if it doesn't exist), or null to disable caching
+     * @param headersOnly   true to only scan type declaration headers and Javadoc comments,
+     *                      false to fully parse source files
+     * @return  this builder
+     */
+    public ComponentFinderBuilder fromSource(File path, File cacheFile, boolean headersOnly) {
+        this.typeProviders.put(location(path, cacheFile, headersOnly), new SourceDirectoryTypeProvider(path, cacheFile, headersOnly));
+
+        return this;
+    }
+
+    /**
+     * Sets the kinds of dependency between types that are found, and therefore used to create relationships
+     * between components and to find supporting types (default: method invocations, field accesses and
+     * class references). For example, add {@link DependencyKind#Inheritance}, {@link DependencyKind#Signature}
+     * and {@link DependencyKind#Annotation} to also find dependencies via superclasses/interfaces,
+     * field/parameter/return types, and annotations.
+     *
+     * @param dependencyKinds   one or more DependencyKind values
+     * @return  this builder
+     */
+    public ComponentFinderBuilder withDependencyKinds(DependencyKind... dependencyKinds) {
+        if (dependencyKinds == null || dependencyKinds.length == 0) {
+            throw new IllegalArgumentException("One or more dependency kinds must be specified");
+        }
+
+        this.dependencyKinds = EnumSet.copyOf(List.of(dependencyKinds));
 
         return this;
     }
@@ -76,7 +168,29 @@ public class ComponentFinderBuilder {
             throw new RuntimeException("One or more component finder strategies must be configured");
         }
 
-        return new ComponentFinder(container, typeProviders, componentFinderStrategies);
+        Map<String, TypeProvider> typeProviders = new LinkedHashMap<>();
+        for (String location : this.typeProviders.keySet()) {
+            TypeProvider typeProvider = this.typeProviders.get(location);
+            if (session != null) {
+                typeProviders.put(location, () -> session.getTypes(location, typeProvider));
+            } else {
+                typeProviders.put(location, typeProvider);
+            }
+        }
+
+        return new ComponentFinder(container, typeProviders, componentFinderStrategies, listener, dependencyKinds);
+    }
+
+    private static String location(String type, File path) {
+        return type + ":" + path.getAbsoluteFile().toPath().normalize();
+    }
+
+    private static String location(File path, File cacheFile, boolean headersOnly) {
+        // the options are part of the location, so that a session doesn't return (for example) the types from a
+        // headers only scan to a component finder that asked for source files to be fully parsed
+        return location("source", path) +
+                (cacheFile != null ? ";cacheFile=" + cacheFile.getAbsoluteFile().toPath().normalize() : "") +
+                (headersOnly ? ";headersOnly" : "");
     }
 
 }
@@ -0,0 +1,75 @@
+package com.structurizr.component;
+
+import java.time.Duration;
+
+/**
+ * A listener that is notified as a component finder loads types and finds components, with counts and durations
+ * for each phase (e.g. to find which type providers or component finder strategies are slow on a large codebase).
+ * All methods have an empty default implementation, so implementations only need to override those they need.
+ * See {@link ComponentFinderMetrics} for an implementation that produces a summary report.
+ */
+public interface ComponentFinderListener {
+
+    /**
+     * Called after types have been loaded from a location.
+     *
+     * @param location          the location (e.g. "classes:/path/to/classes" or "source:/path/to/src")
+     * @param numberOfTypes     the number of types loaded
+     * @param duration          how long it took to load the types
+     */
+    default void typesLoaded(String location, int numberOfTypes, Duration duration) {
+    }
+
+    /**
+     * Called after the superclasses, interfaces and annotations of all types have been resolved.
+     *
+     * @param numberOfTypes     the number of types
+     * @param duration          how long it took to resolve the type hierarchy
+     */
+    default void typeHierarchyResolved(int numberOfTypes, Duration duration) {
+    }
+
+    /**
+     * Called after the dependencies of all types have been found.
+     *
+     * @param numberOfTypes         the number of types
+     * @param numberOfDependencies  the total number of dependencies between types
+     * @param duration              how long it took to find the dependencies
+     */
+    default void dependenciesFound(int numberOfTypes, int numberOfDependencies, Duration duration) {
+    }
+
+    /**
+     * Called after a component finder strategy has been used to find components.
+     *
+     * @param componentFinderStrategy   a description of the component finder strategy
+     * @param numberOfTypes             the number of types that were considered
+     * @param numberOfComponents        the number of components found
+     * @param numberOfSupportingTypes   the total number of supporting types found for those components
+     * @param matchingDuration          how long it took to match, filter and name types
+     * @param supportingTypesDuration   how long it took to find supporting types
+     */
+    default void componentsFound(String componentFinderStrategy, int numberOfTypes, int numberOfComponents, int numberOfSupportingTypes, Duration matchingDuration, Duration supportingTypesDuration) {
+    }
+
+    /**
+     * Called after the dependencies between all components have been found.
+     *
+     * @param numberOfComponents        the number of components
+     * @param numberOfRelationships     the number of relationships created between components
+     * @param duration                  how long it took to find the dependencies
+     */
+    default void componentDependenciesFound(int numberOfComponents, int numberOfRelationships, Duration duration) {
+    }
+
+    /**
+     * Called after the components found by a component finder strategy have been visited.
+     *
+     * @param componentFinderStrategy   a description of the component finder strategy
+     * @param numberOfComponents        the number of components visited
+     * @param duration                  how long the component visitor took
+     */
+    default void componentsVisited(String componentFinderStrategy, int numberOfComponents, Duration duration) {
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.structurizr.component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ComponentFinderListener} that records the counts and durations reported by a component finder,
+ * and summarises them as a plain text report (via {@link #getSummary()}).
+ * An instance can be shared between several component finders, in which case the figures are added together.
+ */
+public final class ComponentFinderMetrics implements ComponentFinderListener {
+
+    private final List<String> typesLoaded = new ArrayList<>();
+    private int numberOfTypesLoaded;
+    private Duration typesLoadedDuration = Duration.ZERO;
+
+    private int numberOfTypesInHierarchy;
+    private Duration typeHierarchyDuration = Duration.ZERO;
+
+    private int numberOfDependencies;
+    private Duration dependenciesDuration = Duration.ZERO;
+
+    private final List<String> componentsFound = new ArrayList<>();
+    private int numberOfComponentsFound;
+    private Duration componentsFoundDuration = Duration.ZERO;
+
+    private int numberOfRelationships;
+    private Duration componentDependenciesDuration = Duration.ZERO;
+
+    private final List<String> componentsVisited = new ArrayList<>();
+    private int numberOfComponentsVisited;
+    private Duration componentsVisitedDuration = Duration.ZERO;
+
+    @Override
+    public synchronized void typesLoaded(String location, int numberOfTypes, Duration duration) {
+        typesLoaded.add(location + ": " + numberOfTypes + " types (" + format(duration) + ")");
+        numberOfTypesLoaded += numberOfTypes;
+        typesLoadedDuration = typesLoadedDuration.plus(duration);
+    }
+
+    @Override
+    public synchronized void typeHierarchyResolved(int numberOfTypes, Duration duration) {
+        numberOfTypesInHierarchy += numberOfTypes;
+        typeHierarchyDuration = typeHierarchyDuration.plus(duration);
+    }
+
+    @Override
+    public synchronized void dependenciesFound(int numberOfTypes, int numberOfDependencies, Duration duration) {
+        this.numberOfDependencies += numberOfDependencies;
+        dependenciesDuration = dependenciesDuration.plus(duration);
+    }
+
+    @Override
+    public synchronized void componentsFound(String componentFinderStrategy, int numberOfTypes, int numberOfComponents, int numberOfSupportingTypes, Duration matchingDuration, Duration supportingTypesDuration) {
+        componentsFound.add(componentFinderStrategy + ": " + numberOfComponents + " components from " + numberOfTypes + " types, " + numberOfSupportingTypes + " supporting types (matching " + format(matchingDuration) + ", supporting types " + format(supportingTypesDuration) + ")");
+        numberOfComponentsFound += numberOfComponents;
+        componentsFoundDuration = componentsFoundDuration.plus(matchingDuration).plus(supportingTypesDuration);
+    }
+
+    @Override
+    public synchronized void componentDependenciesFound(int numberOfComponents, int numberOfRelationships, Duration duration) {
+        this.numberOfRelationships += numberOfRelationships;
+        componentDependenciesDuration = componentDependenciesDuration.plus(duration);
+    }
+
+    @Override
+    public synchronized void componentsVisited(String componentFinderStrategy, int numberOfComponents, Duration duration) {
+        componentsVisited.add(componentFinderStrategy + ": " + numberOfComponents + " components (" + format(duration) + ")");
+        numberOfComponentsVisited += numberOfComponents;
+        componentsVisitedDuration = componentsVisitedDuration.plus(duration);
+    }
+
+    /**
+     * Gets the total time spent by the component finder(s).
+     *
+     * @return  a Duration
+     */
+    public synchronized Duration getTotalDuration() {
+        return typesLoadedDuration
+                .plus(typeHierarchyDuration)
+                .plus(dependenciesDuration)
+                .plus(componentsFoundDuration)
+                .plus(componentDependenciesDuration)
+                .plus(componentsVisitedDuration);
+    }
+
+    /**
+     * Gets a summary of the recorded counts and durations, with a breakdown per location and per component finder strategy.
+     *
+     * @return  a multi-line String
+     */
+    public synchronized String getSummary() {
+        StringBuilder buf = new StringBuilder();
+
+        buf.append("Types loaded: ").append(numberOfTypesLoaded).append(" types (").append(format(typesLoadedDuration)).append(")").append(System.lineSeparator());
+        append(buf, typesLoaded);
+        buf.append("Type hierarchy resolved: ").append(numberOfTypesInHierarchy).append(" types (").append(format(typeHierarchyDuration)).append(")").append(System.lineSeparator());
+        buf.append("Dependencies found: ").append(numberOfDependencies).append(" dependencies (").append(format(dependenciesDuration)).append(")").append(System.lineSeparator());
+        buf.append("Components found: ").append(numberOfComponentsFound).append(" components (").append(format(componentsFoundDuration)).append(")").append(System.lineSeparator());
+        append(buf, componentsFound);
+        buf.append("Component dependencies found: ").append(numberOfRelationships).append(" relationships (").append(format(componentDependenciesDuration)).append(")").append(System.lineSeparator());
+        buf.append("Components visited: ").append(numberOfComponentsVisited).append(" components (").append(format(componentsVisitedDuration)).append(")").append(System.lineSeparator());
+        append(buf, componentsVisited);
+        buf.append("Total: ").append(format(getTotalDuration()));
+
+        return buf.toString();
+    }
+
+    private void append(StringBuilder buf, List<String> lines) {
+        for (String line : lines) {
+            buf.append(" - ").append(line).append(System.lineSeparator());
+        }
+    }
+
+    private String format(Duration duration) {
+        return duration.toMillis() + " ms";
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+}
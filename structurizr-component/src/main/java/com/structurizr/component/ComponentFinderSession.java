@@ -0,0 +1,78 @@
+package com.structurizr.component;
+
+import com.structurizr.component.provider.TypeProvider;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Allows multiple component finders (e.g. one per container) to share the types loaded from class files and
+ * source code, so that each directory of classes, JAR file, or directory of source code is only read and parsed once,
+ * regardless of how many component finders use it.
+ * Use {@link ComponentFinderBuilder#withSession(ComponentFinderSession)} to create component finders that use a session.
+ *
+ * Each component finder still has its own set of types (only those from its own classes/source),
+ * so that its component finder strategies don't find components belonging to other containers.
+ *
+ * Sessions can be shared between threads; different locations are loaded concurrently, and a location that is
+ * already being loaded by another thread is waited for (rather than being loaded again).
+ */
+public final class ComponentFinderSession {
+
+    private final Map<String, FutureTask<Set<Type>>> typesByLocation = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the types from the specified location, using the type provider if the location hasn't been loaded before.
+     *
+     * @param location          a key identifying the type provider (e.g. the path it reads from)
+     * @param typeProvider      the type provider to use if the location hasn't been loaded before
+     * @return  a Set of Type objects
+     */
+    Set<Type> getTypes(String location, TypeProvider typeProvider) {
+        // the first caller for a location runs the task, and anybody else asking for the same location waits for it
+        FutureTask<Set<Type>> task = typesByLocation.computeIfAbsent(location, k -> new FutureTask<>(typeProvider::getTypes));
+        task.run();
+
+        Set<Type> types;
+        try {
+            types = task.get();
+        } catch (ExecutionException ee) {
+            // allow the location to be loaded again
+            typesByLocation.remove(location, task);
+
+            if (ee.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)ee.getCause();
+            } else {
+                throw new RuntimeException(ee.getCause());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ie);
+        }
+
+        // each component finder needs its own Type objects because component finders add dependencies, descriptions,
+        // etc to them, and its own copy of each BCEL JavaClass because component finders set the BCEL repository
+        // used to resolve superclasses (copying a JavaClass is still much cheaper than reading and parsing it)
+        Set<Type> copies = new LinkedHashSet<>();
+        for (Type type : types) {
+            Type copy = type.getJavaClass() != null ? new Type(type.getJavaClass().copy()) : new Type(type.getFullyQualifiedName());
+            copy.setDescription(type.getDescription());
+            copy.setSource(type.getSource());
+            copies.add(copy);
+        }
+
+        return copies;
+    }
+
+    /**
+     * Removes all loaded types from this session.
+     */
+    public void clear() {
+        typesByLocation.clear();
+    }
+
+}
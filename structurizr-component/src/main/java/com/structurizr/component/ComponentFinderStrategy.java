@@ -7,6 +7,7 @@ import com.structurizr.component.supporting.SupportingTypesStrategy;
 import com.structurizr.component.visitor.ComponentVisitor;
 import com.structurizr.model.Component;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -38,8 +39,11 @@ class ComponentFinderStrategy {
         this.componentVisitor = componentVisitor;
     }
 
-    Set<DiscoveredComponent> findComponents(TypeRepository typeRepository) {
+    Set<DiscoveredComponent> findComponents(TypeRepository typeRepository, ComponentFinderListener listener) {
         Set<DiscoveredComponent> components = new LinkedHashSet<>();
+        long start = System.nanoTime();
+        long supportingTypesDuration = 0;
+        int numberOfSupportingTypes = 0;
 
         Set<Type> types = typeRepository.getTypes();
         for (Type type : types) {
@@ -51,11 +55,17 @@ class ComponentFinderStrategy {
                 components.add(component);
 
                 // now find supporting types
+                long supportingTypesStart = System.nanoTime();
                 Set<Type> supportingTypes = supportingTypesStrategy.findSupportingTypes(type, typeRepository);
                 component.addSupportingTypes(supportingTypes);
+                supportingTypesDuration += System.nanoTime() - supportingTypesStart;
+                numberOfSupportingTypes += supportingTypes.size();
             }
         }
 
+        long matchingDuration = System.nanoTime() - start - supportingTypesDuration;
+        listener.componentsFound(toString(), types.size(), components.size(), numberOfSupportingTypes, Duration.ofNanos(matchingDuration), Duration.ofNanos(supportingTypesDuration));
+
         return components;
     }
 
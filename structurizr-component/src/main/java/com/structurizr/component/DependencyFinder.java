@@ -0,0 +1,246 @@
+package com.structurizr.component;
+
+import org.apache.bcel.classfile.AnnotationElementValue;
+import org.apache.bcel.classfile.AnnotationEntry;
+import org.apache.bcel.classfile.ArrayElementValue;
+import org.apache.bcel.classfile.Attribute;
+import org.apache.bcel.classfile.ClassElementValue;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantFieldref;
+import org.apache.bcel.classfile.ConstantInterfaceMethodref;
+import org.apache.bcel.classfile.ConstantMethodref;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.ElementValue;
+import org.apache.bcel.classfile.ElementValuePair;
+import org.apache.bcel.classfile.EnclosingMethod;
+import org.apache.bcel.classfile.EnumElementValue;
+import org.apache.bcel.classfile.Field;
+import org.apache.bcel.classfile.FieldOrMethod;
+import org.apache.bcel.classfile.InnerClass;
+import org.apache.bcel.classfile.InnerClasses;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.apache.bcel.classfile.NestHost;
+import org.apache.bcel.classfile.NestMembers;
+import org.apache.bcel.classfile.ParameterAnnotationEntry;
+import org.apache.bcel.classfile.Signature;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Finds the types that a type depends upon, in a single pass over its constant pool, fields, methods and annotations
+ * (i.e. without decoding the bytecode of every method). Only types that are in the type repository, and only
+ * dependencies of the configured kinds, are recorded.
+ */
+final class DependencyFinder {
+
+    // the types whose methods/fields are used, or that are referenced as classes (e.g. new, instanceof, casts);
+    // superclasses and interfaces are only found if Inheritance is added
+    static final Set<DependencyKind> DEFAULT_DEPENDENCY_KINDS = Collections.unmodifiableSet(
+            EnumSet.of(DependencyKind.MethodInvocation, DependencyKind.FieldAccess, DependencyKind.ClassReference));
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    private final TypeRepository typeRepository;
+    private final Set<DependencyKind> dependencyKinds;
+
+    DependencyFinder(TypeRepository typeRepository) {
+        this(typeRepository, DEFAULT_DEPENDENCY_KINDS);
+    }
+
+    DependencyFinder(TypeRepository typeRepository, Set<DependencyKind> dependencyKinds) {
+        this.typeRepository = typeRepository;
+        this.dependencyKinds = EnumSet.copyOf(dependencyKinds);
+    }
+
+    void findDependencies(Type type) {
+        JavaClass javaClass = type.getJavaClass();
+        ConstantPool cp = javaClass.getConstantPool();
+
+        addDependency(type, javaClass.getSuperclassName(), DependencyKind.Inheritance);
+        for (String interfaceName : javaClass.getInterfaceNames()) {
+            addDependency(type, interfaceName, DependencyKind.Inheritance);
+        }
+
+        BitSet declarations = findClassDeclarations(javaClass);
+
+        // every method call, field access, new, instanceof, cast, etc references the constant pool
+        Constant[] constants = cp.getConstantPool();
+        for (int i = 0; i < constants.length; i++) {
+            Constant constant = constants[i];
+            if (constant instanceof ConstantClass) {
+                if (declarations.get(i)) {
+                    continue;
+                }
+
+                String className = ((ConstantClass)constant).getBytes(cp);
+                if (className.startsWith("[")) {
+                    // an array type (e.g. from anewarray or a cast to an array)
+                    addDependencies(type, className, DependencyKind.ClassReference);
+                } else {
+                    addDependency(type, className.replace('/', '.'), DependencyKind.ClassReference);
+                }
+            } else if (constant instanceof ConstantMethodref || constant instanceof ConstantInterfaceMethodref || constant instanceof ConstantFieldref) {
+                ConstantCP reference = (ConstantCP)constant;
+                ConstantNameAndType nameAndType = cp.getConstant(reference.getNameAndTypeIndex(), ConstantNameAndType.class);
+
+                DependencyKind kind;
+                if (constant instanceof ConstantFieldref) {
+                    kind = DependencyKind.FieldAccess;
+                } else if (reference.getClassIndex() == javaClass.getSuperclassNameIndex() && CONSTRUCTOR_NAME.equals(nameAndType.getName(cp))) {
+                    // every constructor calls a superclass constructor, so this is part of extending the superclass
+                    kind = DependencyKind.Inheritance;
+                } else {
+                    kind = DependencyKind.MethodInvocation;
+                }
+                addDependency(type, reference.getClass(cp), kind);
+                addDependencies(type, nameAndType.getSignature(cp), DependencyKind.Signature);
+            }
+        }
+
+        // the types used by the type itself (generic signatures aren't otherwise in the constant pool as class references)
+        addDependencies(type, javaClass.getAttributes(), DependencyKind.Signature);
+        addDependencies(type, javaClass.getAnnotationEntries());
+
+        for (Field field : javaClass.getFields()) {
+            addDependencies(type, field);
+        }
+
+        for (Method method : javaClass.getMethods()) {
+            addDependencies(type, method);
+
+            for (ParameterAnnotationEntry parameterAnnotationEntry : method.getParameterAnnotationEntries()) {
+                addDependencies(type, parameterAnnotationEntry.getAnnotationEntries());
+            }
+        }
+    }
+
+    /**
+     * Finds the constant pool indexes of the class constants that declare the type and its relationships to other
+     * types (itself, its superclass and interfaces, and its inner/outer/nest classes), rather than being references
+     * from its code.
+     */
+    private BitSet findClassDeclarations(JavaClass javaClass) {
+        BitSet declarations = new BitSet();
+        declarations.set(javaClass.getClassNameIndex());
+        declarations.set(javaClass.getSuperclassNameIndex());
+        for (int interfaceIndex : javaClass.getInterfaceIndices()) {
+            declarations.set(interfaceIndex);
+        }
+
+        for (Attribute attribute : javaClass.getAttributes()) {
+            if (attribute instanceof InnerClasses) {
+                for (InnerClass innerClass : ((InnerClasses)attribute).getInnerClasses()) {
+                    declarations.set(innerClass.getInnerClassIndex());
+                    declarations.set(innerClass.getOuterClassIndex());
+                }
+            } else if (attribute instanceof EnclosingMethod) {
+                declarations.set(((EnclosingMethod)attribute).getEnclosingClassIndex());
+            } else if (attribute instanceof NestHost) {
+                declarations.set(((NestHost)attribute).getHostClassIndex());
+            } else if (attribute instanceof NestMembers) {
+                for (int nestMemberIndex : ((NestMembers)attribute).getClasses()) {
+                    declarations.set(nestMemberIndex);
+                }
+            }
+        }
+
+        // index 0 is used for "none" (e.g. the outer class of a local class, or the superclass of java.lang.Object)
+        declarations.clear(0);
+
+        return declarations;
+    }
+
+    private void addDependencies(Type type, FieldOrMethod fieldOrMethod) {
+        addDependencies(type, fieldOrMethod.getSignature(), DependencyKind.Signature);
+        addDependencies(type, fieldOrMethod.getAttributes(), DependencyKind.Signature);
+        addDependencies(type, fieldOrMethod.getAnnotationEntries());
+    }
+
+    private void addDependencies(Type type, Attribute[] attributes, DependencyKind kind) {
+        for (Attribute attribute : attributes) {
+            if (attribute instanceof Signature) {
+                addDependencies(type, ((Signature)attribute).getSignature(), kind);
+            }
+        }
+    }
+
+    private void addDependencies(Type type, AnnotationEntry[] annotationEntries) {
+        for (AnnotationEntry annotationEntry : annotationEntries) {
+            addDependencies(type, annotationEntry.getAnnotationType(), DependencyKind.Annotation);
+
+            for (ElementValuePair elementValuePair : annotationEntry.getElementValuePairs()) {
+                addDependencies(type, elementValuePair.getValue());
+            }
+        }
+    }
+
+    private void addDependencies(Type type, ElementValue elementValue) {
+        if (elementValue instanceof ClassElementValue) {
+            addDependencies(type, ((ClassElementValue)elementValue).getClassString(), DependencyKind.Annotation);
+        } else if (elementValue instanceof EnumElementValue) {
+            addDependencies(type, ((EnumElementValue)elementValue).getEnumTypeString(), DependencyKind.Annotation);
+        } else if (elementValue instanceof AnnotationElementValue) {
+            addDependencies(type, new AnnotationEntry[] { ((AnnotationElementValue)elementValue).getAnnotationEntry() });
+        } else if (elementValue instanceof ArrayElementValue) {
+            for (ElementValue value : ((ArrayElementValue)elementValue).getElementValuesArray()) {
+                addDependencies(type, value);
+            }
+        }
+    }
+
+    /**
+     * Adds dependencies on the classes named in a descriptor or generic signature
+     * (e.g. "(Ljava/lang/String;[I)V" or "<T:Ljava/lang/Object;>Ljava/util/List<TT;>;").
+     */
+    private void addDependencies(Type type, String signature, DependencyKind kind) {
+        if (!dependencyKinds.contains(kind)) {
+            return;
+        }
+
+        int length = signature.length();
+        int i = 0;
+        while (i < length) {
+            char c = signature.charAt(i);
+            if (c == 'L' || c == 'T' || c == '.') {
+                // a class name, type variable, or the inner class of a parameterized type (e.g. Outer<TT;>.Inner)
+                int start = i + 1;
+                int end = start;
+                while (end < length && ";<:".indexOf(signature.charAt(end)) == -1) {
+                    end++;
+                }
+
+                if (end < length && signature.charAt(end) == ':') {
+                    // this was the name of a formal type parameter (e.g. "Label:Ljava/lang/Object;"), not a class name
+                    i = end + 1;
+                    continue;
+                }
+
+                if (c == 'L') {
+                    addDependency(type, signature.substring(start, end).replace('/', '.'), kind);
+                }
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void addDependency(Type type, String className, DependencyKind kind) {
+        if (!dependencyKinds.contains(kind)) {
+            return;
+        }
+
+        Type referencedType = typeRepository.getType(className);
+        if (referencedType != null && referencedType != type) {
+            type.addDependency(referencedType, kind);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.structurizr.component;
+
+/**
+ * The ways in which one type can reference (and therefore depend upon) another, as found in a class file.
+ * A dependency can be of more than one kind.
+ */
+public enum DependencyKind {
+
+    /**
+     * The type extends or implements the referenced type (including calls to the constructors of its superclass).
+     */
+    Inheritance,
+
+    /**
+     * The type calls a method declared by the referenced type.
+     */
+    MethodInvocation,
+
+    /**
+     * The type reads or writes a field declared by the referenced type.
+     */
+    FieldAccess,
+
+    /**
+     * The type refers to the referenced class via a class constant (e.g. new, instanceof, casts, class literals,
+     * exception handlers, and the classes declaring the methods/fields that it uses). This doesn't include the
+     * type's superclass and interfaces (see {@link #Inheritance}), or its inner/outer classes, unless they are
+     * also referenced from its code.
+     */
+    ClassReference,
+
+    /**
+     * The referenced type is used in a field type, method parameter/return type, or generic type argument/bound,
+     * either in the type itself or in the signature of a method/field it uses.
+     */
+    Signature,
+
+    /**
+     * The referenced type is used as an annotation (or in an annotation value) on the type, its fields, methods or parameters.
+     */
+    Annotation
+
+}
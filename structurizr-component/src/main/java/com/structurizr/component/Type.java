@@ -3,9 +3,14 @@ package com.structurizr.component;
 import com.structurizr.util.StringUtils;
 import org.apache.bcel.classfile.JavaClass;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents a Java type (e.g. class or interface) - it's a wrapper around a BCEL JavaClass.
@@ -16,7 +21,13 @@ public class Type {
     private final String fullyQualifiedName;
     private String description;
     private String source;
-    private final Set<Type> dependencies = new LinkedHashSet<>();
+    private final Map<Type, Set<DependencyKind>> dependencies = new LinkedHashMap<>();
+
+    // populated by the type hierarchy (once per type repository), or on demand for a standalone type
+    private Set<String> superclassNames;
+    private Set<String> directInterfaceNames;
+    private Set<String> interfaceNames;
+    private Set<String> annotationNames;
 
     public Type(JavaClass javaClass) {
         if (javaClass == null) {
@@ -69,11 +80,104 @@ public class Type {
     }
 
     public void addDependency(Type type) {
-        this.dependencies.add(type);
+        this.dependencies.computeIfAbsent(type, t -> EnumSet.noneOf(DependencyKind.class));
+    }
+
+    public void addDependency(Type type, DependencyKind kind) {
+        this.dependencies.computeIfAbsent(type, t -> EnumSet.noneOf(DependencyKind.class)).add(kind);
     }
 
     public Set<Type> getDependencies() {
-        return new LinkedHashSet<>(dependencies);
+        return new LinkedHashSet<>(dependencies.keySet());
+    }
+
+    int getNumberOfDependencies() {
+        return dependencies.size();
+    }
+
+    /**
+     * Gets the dependencies of the specified kind.
+     *
+     * @param kind      a DependencyKind
+     * @return  a Set of Type objects (empty if there are none)
+     */
+    public Set<Type> getDependencies(DependencyKind kind) {
+        return dependencies.keySet().stream()
+                .filter(type -> dependencies.get(type).contains(kind))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Gets the ways in which this type depends upon the specified type.
+     *
+     * @param type      a Type
+     * @return  a Set of DependencyKind values (empty if there is no dependency, or the kind is unknown)
+     */
+    public Set<DependencyKind> getDependencyKinds(Type type) {
+        Set<DependencyKind> kinds = dependencies.get(type);
+        if (kinds == null) {
+            return EnumSet.noneOf(DependencyKind.class);
+        }
+
+        return EnumSet.copyOf(kinds);
+    }
+
+    /**
+     * Gets the names of all superclasses of this type, nearest first.
+     *
+     * @return  a Set of fully qualified class names (empty if there is no underlying JavaClass)
+     */
+    public Set<String> getSuperclassNames() {
+        resolveHierarchy();
+        return superclassNames;
+    }
+
+    /**
+     * Gets the names of the interfaces directly implemented (or, for an interface, extended) by this type.
+     *
+     * @return  a Set of fully qualified interface names (empty if there is no underlying JavaClass)
+     */
+    public Set<String> getDirectInterfaceNames() {
+        resolveHierarchy();
+        return directInterfaceNames;
+    }
+
+    /**
+     * Gets the names of all interfaces implemented by this type, including those implemented by superclasses
+     * and those extended by other interfaces.
+     *
+     * @return  a Set of fully qualified interface names (empty if there is no underlying JavaClass)
+     */
+    public Set<String> getInterfaceNames() {
+        resolveHierarchy();
+        return interfaceNames;
+    }
+
+    /**
+     * Gets the names of the type-level annotations on this type.
+     *
+     * @return  a Set of fully qualified annotation type names (empty if there is no underlying JavaClass)
+     */
+    public Set<String> getAnnotationNames() {
+        resolveHierarchy();
+        return annotationNames;
+    }
+
+    synchronized void setHierarchy(Set<String> superclassNames, Set<String> directInterfaceNames, Set<String> interfaceNames, Set<String> annotationNames) {
+        this.superclassNames = Collections.unmodifiableSet(new LinkedHashSet<>(superclassNames));
+        this.directInterfaceNames = Collections.unmodifiableSet(new LinkedHashSet<>(directInterfaceNames));
+        this.interfaceNames = Collections.unmodifiableSet(new LinkedHashSet<>(interfaceNames));
+        this.annotationNames = Collections.unmodifiableSet(new LinkedHashSet<>(annotationNames));
+    }
+
+    private synchronized void resolveHierarchy() {
+        if (superclassNames == null) {
+            if (javaClass != null) {
+                new TypeHierarchy().index(this);
+            } else {
+                setHierarchy(Set.of(), Set.of(), Set.of(), Set.of());
+            }
+        }
     }
 
     public boolean isAbstractClass() {
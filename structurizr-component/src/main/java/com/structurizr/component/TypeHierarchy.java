@@ -0,0 +1,131 @@
+package com.structurizr.component;
+
+import org.apache.bcel.classfile.AnnotationEntry;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the (transitive) superclasses and interfaces of types, along with their type-level annotations.
+ * Each class in the hierarchy is resolved once, so indexing a type repository is linear in the number of types,
+ * and matchers can subsequently answer "extends" and "implements" questions with a set lookup.
+ *
+ * Supertypes are found in the type repository first, and then via the BCEL repository of the JavaClass
+ * (e.g. for library and JDK classes). Supertypes that can't be found are still recorded by name,
+ * but their own supertypes are unknown.
+ */
+final class TypeHierarchy {
+
+    private static final Log log = LogFactory.getLog(TypeHierarchy.class);
+
+    private static final String JAVA_LANG_OBJECT = "java.lang.Object";
+
+    private final TypeRepository typeRepository;
+    private final Map<String, Supertypes> supertypesByClassName = new HashMap<>();
+
+    TypeHierarchy() {
+        this(null);
+    }
+
+    TypeHierarchy(TypeRepository typeRepository) {
+        this.typeRepository = typeRepository;
+    }
+
+    /**
+     * Indexes all types (with an underlying JavaClass) in the type repository.
+     */
+    void index() {
+        for (Type type : typeRepository.getTypes()) {
+            if (type.getJavaClass() != null) {
+                index(type);
+            }
+        }
+    }
+
+    void index(Type type) {
+        JavaClass javaClass = type.getJavaClass();
+        Supertypes supertypes = resolve(javaClass);
+
+        Set<String> annotationNames = new LinkedHashSet<>();
+        for (AnnotationEntry annotationEntry : javaClass.getAnnotationEntries()) {
+            annotationNames.add(toClassName(annotationEntry.getAnnotationType()));
+        }
+
+        type.setHierarchy(supertypes.superclassNames, Set.of(javaClass.getInterfaceNames()), supertypes.interfaceNames, annotationNames);
+    }
+
+    private Supertypes resolve(JavaClass javaClass) {
+        Supertypes supertypes = supertypesByClassName.get(javaClass.getClassName());
+        if (supertypes != null) {
+            return supertypes;
+        }
+
+        supertypes = new Supertypes();
+
+        // registered before resolving supertypes, to stop a (malformed) cyclic hierarchy from recursing forever
+        supertypesByClassName.put(javaClass.getClassName(), supertypes);
+
+        if (!JAVA_LANG_OBJECT.equals(javaClass.getClassName())) {
+            String superclassName = javaClass.getSuperclassName();
+            Supertypes supertypesOfSuperclass = resolve(superclassName, javaClass);
+
+            supertypes.superclassNames.add(superclassName);
+            supertypes.superclassNames.addAll(supertypesOfSuperclass.superclassNames);
+            supertypes.interfaceNames.addAll(supertypesOfSuperclass.interfaceNames);
+        }
+
+        for (String interfaceName : javaClass.getInterfaceNames()) {
+            supertypes.interfaceNames.add(interfaceName);
+            supertypes.interfaceNames.addAll(resolve(interfaceName, javaClass).interfaceNames);
+        }
+
+        return supertypes;
+    }
+
+    private Supertypes resolve(String className, JavaClass subclass) {
+        Supertypes supertypes = supertypesByClassName.get(className);
+        if (supertypes != null) {
+            return supertypes;
+        }
+
+        if (typeRepository != null) {
+            Type type = typeRepository.getType(className);
+            if (type != null && type.getJavaClass() != null) {
+                return resolve(type.getJavaClass());
+            }
+        }
+
+        try {
+            return resolve(subclass.getRepository().loadClass(className));
+        } catch (ClassNotFoundException e) {
+            log.debug("Cannot find " + className + " (referenced by " + subclass.getClassName() + ")");
+        }
+
+        supertypes = new Supertypes();
+        supertypesByClassName.put(className, supertypes);
+
+        return supertypes;
+    }
+
+    private static String toClassName(String signature) {
+        // e.g. Lcom/example/Annotation; -> com.example.Annotation
+        if (signature.startsWith("L") && signature.endsWith(";")) {
+            signature = signature.substring(1, signature.length() - 1);
+        }
+
+        return signature.replace('/', '.');
+    }
+
+    private static final class Supertypes {
+
+        private final Set<String> superclassNames = new LinkedHashSet<>();
+        private final Set<String> interfaceNames = new LinkedHashSet<>();
+
+    }
+
+}
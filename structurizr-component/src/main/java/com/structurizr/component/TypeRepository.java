@@ -1,22 +1,65 @@
 package com.structurizr.component;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 
+/**
+ * Holds the set of types found by a component finder, indexed by fully qualified name and by package name.
+ */
 public final class TypeRepository {
 
-    private final Set<Type> types = new LinkedHashSet<>();
+    private final Map<String, Type> typesByName = new LinkedHashMap<>();
+    private final NavigableMap<String, Set<Type>> typesByPackage = new TreeMap<>();
 
     public void add(Type type) {
-        this.types.add(type);
+        if (!typesByName.containsKey(type.getFullyQualifiedName())) {
+            typesByName.put(type.getFullyQualifiedName(), type);
+            typesByPackage.computeIfAbsent(packageNameOf(type), k -> new LinkedHashSet<>()).add(type);
+        }
     }
 
     public Set<Type> getTypes() {
-        return new LinkedHashSet<>(types);
+        return new LinkedHashSet<>(typesByName.values());
     }
 
     Type getType(String fullyQualifiedClassName) {
-        return types.stream().filter(t -> t.getFullyQualifiedName().equals(fullyQualifiedClassName)).findFirst().orElse(null);
+        return typesByName.get(fullyQualifiedClassName);
+    }
+
+    /**
+     * Gets the types in the specified package (i.e. not including subpackages).
+     *
+     * @param packageName   a package name
+     * @return  a Set of Type objects (empty if there are none)
+     */
+    public Set<Type> getTypesInPackage(String packageName) {
+        Set<Type> types = typesByPackage.get(packageName);
+        if (types == null) {
+            return new LinkedHashSet<>();
+        }
+
+        return new LinkedHashSet<>(types);
+    }
+
+    /**
+     * Gets the types whose package name starts with the specified package name.
+     *
+     * @param packageName   a package name
+     * @return  a Set of Type objects (empty if there are none)
+     */
+    public Set<Type> getTypesUnderPackage(String packageName) {
+        Set<Type> types = new LinkedHashSet<>();
+        for (Set<Type> typesInPackage : typesByPackage.subMap(packageName, true, packageName + Character.MAX_VALUE, true).values()) {
+            types.addAll(typesInPackage);
+        }
+
+        return types;
+    }
+
+    private static String packageNameOf(Type type) {
+        String fullyQualifiedName = type.getFullyQualifiedName();
+        int index = fullyQualifiedName.lastIndexOf(".");
+
+        return index > -1 ? fullyQualifiedName.substring(0, index) : "";
     }
 
-}
\ No newline at end of file
+}
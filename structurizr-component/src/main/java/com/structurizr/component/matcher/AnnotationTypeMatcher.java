@@ -2,7 +2,6 @@ package com.structurizr.component.matcher;
 
 import com.structurizr.component.Type;
 import com.structurizr.util.StringUtils;
-import org.apache.bcel.classfile.AnnotationEntry;
 
 import java.lang.annotation.Annotation;
 
@@ -11,14 +10,14 @@ import java.lang.annotation.Annotation;
  */
 public class AnnotationTypeMatcher implements TypeMatcher {
 
-    private final String annotationType;
+    private final String annotationName;
 
     public AnnotationTypeMatcher(String annotationType) {
         if (StringUtils.isNullOrEmpty(annotationType)) {
             throw new IllegalArgumentException("An annotation type must be supplied");
         }
 
-        this.annotationType = "L" + annotationType.replace(".", "/") + ";";
+        this.annotationName = annotationType;
     }
 
     public AnnotationTypeMatcher(Class<? extends Annotation> annotation) {
@@ -26,7 +25,7 @@ public class AnnotationTypeMatcher implements TypeMatcher {
             throw new IllegalArgumentException("An annotation must be supplied");
         }
 
-        this.annotationType = "L" + annotation.getCanonicalName().replace(".", "/") + ";";
+        this.annotationName = annotation.getCanonicalName();
     }
 
     @Override
@@ -39,20 +38,13 @@ public class AnnotationTypeMatcher implements TypeMatcher {
             return false;
         }
 
-        AnnotationEntry[] annotationEntries = type.getJavaClass().getAnnotationEntries();
-        for (AnnotationEntry annotationEntry : annotationEntries) {
-            if (annotationType.equals(annotationEntry.getAnnotationType())) {
-                return true;
-            }
-        }
-
-        return false;
+        return type.getAnnotationNames().contains(annotationName);
     }
 
     @Override
     public String toString() {
         return "AnnotationTypeMatcher{" +
-                "annotationType='" + annotationType + '\'' +
+                "annotationType='L" + annotationName.replace(".", "/") + ";" + '\'' +
                 '}';
     }
 
@@ -2,21 +2,12 @@ package com.structurizr.component.matcher;
 
 import com.structurizr.component.Type;
 import com.structurizr.util.StringUtils;
-import org.apache.bcel.classfile.JavaClass;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * Matches types where the type extends the specified class.
+ * Matches types where the type extends the specified class (directly or indirectly).
  */
 public class ExtendsTypeMatcher implements TypeMatcher {
 
-    private static final Log log = LogFactory.getLog(ExtendsTypeMatcher.class);
-
     private final String className;
 
     public ExtendsTypeMatcher(String className) {
@@ -37,15 +28,7 @@ public class ExtendsTypeMatcher implements TypeMatcher {
             return false;
         }
 
-        JavaClass javaClass = type.getJavaClass();
-        try {
-            Set<String> superClasses = Stream.of(javaClass.getSuperClasses()).map(JavaClass::getClassName).collect(Collectors.toSet());
-            return superClasses.contains(className);
-        } catch (ClassNotFoundException e) {
-            log.warn("Cannot find super classes of " + type.getFullyQualifiedName(), e);
-        }
-
-        return false;
+        return type.getSuperclassNames().contains(className);
     }
 
     @Override
@@ -2,27 +2,34 @@ package com.structurizr.component.matcher;
 
 import com.structurizr.component.Type;
 import com.structurizr.util.StringUtils;
-import org.apache.bcel.classfile.JavaClass;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import java.util.Set;
 
 /**
- * Matches types where the type implements the specified interface.
+ * Matches types where the type directly implements the specified interface, or optionally where the interface is
+ * implemented via a superclass or another interface.
  */
 public class ImplementsTypeMatcher implements TypeMatcher {
 
-    private static final Log log = LogFactory.getLog(ImplementsTypeMatcher.class);
-
     private final String interfaceName;
+    private final boolean includeInherited;
 
     public ImplementsTypeMatcher(String interfaceName) {
+        this(interfaceName, false);
+    }
+
+    /**
+     * Creates a matcher for the specified interface.
+     *
+     * @param interfaceName     the fully qualified name of the interface
+     * @param includeInherited  true to also match interfaces implemented via superclasses and other interfaces,
+     *                          false to only match interfaces that are directly implemented
+     */
+    public ImplementsTypeMatcher(String interfaceName, boolean includeInherited) {
         if (StringUtils.isNullOrEmpty(interfaceName)) {
             throw new IllegalArgumentException("A fully qualified interface name must be supplied");
         }
 
         this.interfaceName = interfaceName;
+        this.includeInherited = includeInherited;
     }
 
     @Override
@@ -35,15 +42,18 @@ public class ImplementsTypeMatcher implements TypeMatcher {
             return false;
         }
 
-        JavaClass javaClass = type.getJavaClass();
-        Set<String> interfaceNames = Set.of(javaClass.getInterfaceNames());
-        return interfaceNames.contains(interfaceName);
+        if (includeInherited) {
+            return type.getInterfaceNames().contains(interfaceName);
+        } else {
+            return type.getDirectInterfaceNames().contains(interfaceName);
+        }
     }
 
     @Override
     public String toString() {
         return "ImplementsTypeMatcher{" +
                 "interfaceName='" + interfaceName + '\'' +
+                (includeInherited ? ", includeInherited=true" : "") +
                 '}';
     }
 
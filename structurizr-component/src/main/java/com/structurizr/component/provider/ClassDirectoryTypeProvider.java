@@ -8,11 +8,19 @@ import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * A type repository that uses Apache Commons BCEL to load Java classes from a local directory.
+ * A type repository that uses Apache Commons BCEL to load Java classes from a local directory (recursively).
+ * Class files are parsed in parallel, and types are returned in the order of their (sorted) file paths.
  */
 public final class ClassDirectoryTypeProvider implements TypeProvider {
 
@@ -38,39 +46,32 @@ public final class ClassDirectoryTypeProvider implements TypeProvider {
     }
 
     public Set<Type> getTypes() {
-        Set<Type> types = new LinkedHashSet<>();
-
-        Set<File> files = findClassFiles(directory);
-        for (File file : files) {
-            ClassParser parser = new ClassParser(file.getAbsolutePath());
-            try {
-                JavaClass javaClass = parser.parse();
-                types.add(new Type(javaClass));
-            } catch (IOException e) {
-                log.warn(e);
-            }
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            files = paths
+                    .filter(path -> path.getFileName().toString().endsWith(CLASS_FILE_EXTENSION) && Files.isRegularFile(path))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Could not find class files in " + directory.getAbsolutePath(), e);
+            return new LinkedHashSet<>();
         }
 
-        return types;
+        return files.parallelStream()
+                .map(this::parse)
+                .filter(Objects::nonNull)
+                .map(Type::new)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    private Set<File> findClassFiles(File path) {
-        Set<File> classFiles = new LinkedHashSet<>();
-        if (path.isDirectory()) {
-            File[] files = path.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    classFiles.addAll(findClassFiles(file));
-                }
-            }
-        } else {
-            if (path.getName().endsWith(CLASS_FILE_EXTENSION)) {
-                classFiles.add(path);
-            }
+    private JavaClass parse(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return new ClassParser(in, path.toString()).parse();
+        } catch (IOException e) {
+            log.warn("Could not parse " + path, e);
         }
 
-        return classFiles;
+        return null;
     }
 
-
 }
\ No newline at end of file
@@ -8,13 +8,19 @@ import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Enumeration;
+import java.io.InputStream;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.jar.JarEntry;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * A type repository that uses Apache Commons BCEL to load Java classes from a local JAR file.
+ * The JAR file is opened once, and class files are parsed in parallel; types are returned in the
+ * order that they appear in the JAR file.
  */
 public final class ClassJarFileTypeProvider implements TypeProvider {
 
@@ -28,34 +34,31 @@ public final class ClassJarFileTypeProvider implements TypeProvider {
     }
 
     public Set<Type> getTypes() {
-        Set<Type> types = new LinkedHashSet<>();
-        java.util.jar.JarFile jar = null;
-        try {
-            jar = new java.util.jar.JarFile(jarFile);
-            Enumeration<JarEntry> entries = jar.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (!entry.getName().endsWith(CLASS_FILE_EXTENSION)) {
-                    continue;
-                }
-
-                ClassParser parser = new ClassParser(jarFile.getAbsolutePath(), entry.getName());
-                JavaClass javaClass = parser.parse();
-                types.add(new Type(javaClass));
-            }
+        try (ZipFile zip = new ZipFile(jarFile)) {
+            List<? extends ZipEntry> entries = zip.stream()
+                    .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(CLASS_FILE_EXTENSION))
+                    .collect(Collectors.toList());
+
+            return entries.parallelStream()
+                    .map(entry -> parse(zip, entry))
+                    .filter(Objects::nonNull)
+                    .map(Type::new)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        } catch (IOException e) {
+            log.warn("Could not read " + jarFile.getAbsolutePath(), e);
+        }
+
+        return new LinkedHashSet<>();
+    }
+
+    private JavaClass parse(ZipFile zip, ZipEntry entry) {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return new ClassParser(in, entry.getName()).parse();
         } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (jar != null) {
-                try {
-                    jar.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
+            log.warn("Could not parse " + entry.getName() + " in " + jarFile.getAbsolutePath(), e);
         }
 
-        return types;
+        return null;
     }
 
-}
\ No newline at end of file
+}
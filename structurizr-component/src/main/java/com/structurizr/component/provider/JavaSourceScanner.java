@@ -0,0 +1,380 @@
+package com.structurizr.component.provider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A lightweight alternative to parsing Java source code with JavaParser, when only the names and Javadoc
+ * comments of classes and interfaces are needed. The source code is tokenized just enough to track comments,
+ * string/character literals and nested blocks; method bodies and expressions are skipped rather than parsed.
+ *
+ * This follows the same rules as the JavaParser based implementation: only class and interface declarations
+ * that aren't nested inside another class or interface (or a local class) are reported, and a Javadoc comment
+ * is only associated with the declaration that immediately follows it (annotations and modifiers may appear in between).
+ */
+final class JavaSourceScanner {
+
+    private static final String PACKAGE_KEYWORD = "package";
+    private static final String CLASS_KEYWORD = "class";
+    private static final String INTERFACE_KEYWORD = "interface";
+    private static final String ENUM_KEYWORD = "enum";
+    private static final String RECORD_KEYWORD = "record";
+
+    private final String source;
+    private final int length;
+    private int position = 0;
+    private int lineIndex = 0;
+    private int line = 1;
+
+    private String packageName;
+    private String packageJavadoc;
+    private final List<Declaration> declarations = new ArrayList<>();
+
+    private JavaSourceScanner(String source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    static JavaSourceScanner scan(String source) {
+        JavaSourceScanner scanner = new JavaSourceScanner(source);
+        scanner.scan();
+
+        return scanner;
+    }
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Gets the Javadoc comment (if any) associated with the compilation unit (i.e. the first comment in the file,
+     * preceding the package declaration), as used in package-info.java files.
+     */
+    String getPackageJavadoc() {
+        return packageJavadoc;
+    }
+
+    List<Declaration> getDeclarations() {
+        return declarations;
+    }
+
+    private void scan() {
+        // each entry represents an open block: the name of a (non-local) type, or "" for any other block
+        Deque<String> blocks = new ArrayDeque<>();
+        Deque<Integer> parenthesisDepths = new ArrayDeque<>();
+        int parenthesisDepth = 0;
+
+        // classes and interfaces nested inside another class or interface are not reported
+        Deque<Boolean> classOrInterfaceBlocks = new ArrayDeque<>();
+        int classOrInterfaceDepth = 0;
+
+        // the Javadoc comment that will be associated with the next declaration, and whether that declaration has started
+        String javadoc = null;
+        int javadocEndLine = 0;
+        boolean declarationStarted = false;
+        boolean firstComment = true;
+        String firstJavadoc = null;
+
+        String previousToken = null;
+        String typeName = null;
+        String typeJavadoc = null;
+        boolean typeIsClassOrInterface = false;
+
+        while (position < length) {
+            char c = source.charAt(position);
+
+            if (Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+
+            if (c == '/' && (peek(1) == '/' || peek(1) == '*')) {
+                String comment = null;
+                if (peek(1) == '/') {
+                    skipToEndOfLine();
+                } else {
+                    int end = source.indexOf("*/", position + 2);
+                    if (end == -1) {
+                        end = length;
+                    }
+
+                    if (peek(2) == '*' && end > position + 2) {
+                        comment = source.substring(position + 3, end);
+                    }
+                    position = Math.min(end + 2, length);
+                }
+
+                if (firstComment) {
+                    firstJavadoc = comment;
+                    firstComment = false;
+                }
+
+                // comments inside a declaration (e.g. between annotations) don't replace its Javadoc comment
+                if (!declarationStarted) {
+                    javadoc = comment;
+                    javadocEndLine = lineOf(position);
+                }
+                continue;
+            }
+
+            if (!declarationStarted) {
+                // like JavaParser, a comment isn't associated with a declaration that starts more than one line later
+                if (javadoc != null && lineOf(position) - javadocEndLine > 1) {
+                    javadoc = null;
+                }
+                declarationStarted = true;
+            }
+
+            if (c == '"') {
+                skipStringLiteral();
+                previousToken = "\"";
+            } else if (c == '\'') {
+                skipCharacterLiteral();
+                previousToken = "'";
+            } else if (Character.isJavaIdentifierStart(c)) {
+                String word = readIdentifier();
+
+                if (PACKAGE_KEYWORD.equals(word) && blocks.isEmpty() && packageName == null) {
+                    // JavaParser associates the first comment in the file with the compilation unit
+                    packageJavadoc = firstJavadoc;
+                    packageName = readQualifiedName();
+                    previousToken = word;
+                    continue;
+                }
+
+                if (typeName == null && !".".equals(previousToken) && isTypeKeyword(word)) {
+                    int mark = position;
+                    skipWhitespaceAndComments();
+                    if (position < length && Character.isJavaIdentifierStart(source.charAt(position))) {
+                        String name = readIdentifier();
+                        boolean isRecord = RECORD_KEYWORD.equals(word);
+                        if (!isRecord || nextNonWhitespaceIs('(', '<')) {
+                            typeName = name;
+                            typeJavadoc = javadoc;
+                            typeIsClassOrInterface = (CLASS_KEYWORD.equals(word) || INTERFACE_KEYWORD.equals(word)) && !"@".equals(previousToken);
+                            previousToken = name;
+                            continue;
+                        }
+                    }
+                    position = mark;
+                }
+
+                previousToken = word;
+            } else {
+                position++;
+
+                if (c == '(') {
+                    parenthesisDepth++;
+                } else if (c == ')') {
+                    parenthesisDepth--;
+                } else if (c == '{') {
+                    boolean endOfDeclaration = parenthesisDepth == 0;
+                    if (typeName != null && parenthesisDepth == 0) {
+                        String qualifiedName = qualifiedName(blocks, typeName);
+                        if (qualifiedName != null && typeIsClassOrInterface && classOrInterfaceDepth == 0) {
+                            declarations.add(new Declaration(qualifiedName, typeJavadoc));
+                        }
+                        blocks.push(qualifiedName != null ? typeName : "");
+                        classOrInterfaceBlocks.push(typeIsClassOrInterface);
+                        if (typeIsClassOrInterface) {
+                            classOrInterfaceDepth++;
+                        }
+                        typeName = null;
+                        typeJavadoc = null;
+                    } else {
+                        blocks.push("");
+                        classOrInterfaceBlocks.push(false);
+                    }
+                    parenthesisDepths.push(parenthesisDepth);
+                    parenthesisDepth = 0;
+
+                    if (endOfDeclaration) {
+                        javadoc = null;
+                        declarationStarted = false;
+                    }
+                } else if (c == '}') {
+                    if (!blocks.isEmpty()) {
+                        blocks.pop();
+                        if (classOrInterfaceBlocks.pop()) {
+                            classOrInterfaceDepth--;
+                        }
+                        parenthesisDepth = parenthesisDepths.pop();
+                    }
+
+                    if (parenthesisDepth == 0) {
+                        javadoc = null;
+                        declarationStarted = false;
+                    }
+                } else if (c == ';' && parenthesisDepth == 0) {
+                    typeName = null;
+                    javadoc = null;
+                    declarationStarted = false;
+                }
+
+                previousToken = String.valueOf(c);
+            }
+        }
+    }
+
+    private int lineOf(int index) {
+        if (index < lineIndex) {
+            lineIndex = 0;
+            line = 1;
+        }
+
+        while (lineIndex < index && lineIndex < length) {
+            if (source.charAt(lineIndex) == '\n') {
+                line++;
+            }
+            lineIndex++;
+        }
+
+        return line;
+    }
+
+    private boolean isTypeKeyword(String word) {
+        return CLASS_KEYWORD.equals(word) || INTERFACE_KEYWORD.equals(word) || ENUM_KEYWORD.equals(word) || RECORD_KEYWORD.equals(word);
+    }
+
+    private String qualifiedName(Deque<String> blocks, String name) {
+        StringBuilder buf = new StringBuilder();
+        if (packageName != null) {
+            buf.append(packageName).append('.');
+        }
+
+        // blocks are iterated from the innermost outwards
+        List<String> outerTypes = new ArrayList<>(blocks);
+        for (int i = outerTypes.size() - 1; i >= 0; i--) {
+            String outerType = outerTypes.get(i);
+            if (outerType.isEmpty()) {
+                // a local class, or a class nested inside one
+                return null;
+            }
+            buf.append(outerType).append('.');
+        }
+
+        return buf.append(name).toString();
+    }
+
+    private char peek(int offset) {
+        int index = position + offset;
+        return index < length ? source.charAt(index) : '\0';
+    }
+
+    private boolean nextNonWhitespaceIs(char... chars) {
+        int mark = position;
+        skipWhitespaceAndComments();
+        boolean result = false;
+        if (position < length) {
+            char c = source.charAt(position);
+            for (char ch : chars) {
+                result = result || c == ch;
+            }
+        }
+        position = mark;
+
+        return result;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < length) {
+            char c = source.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '/' && peek(1) == '/') {
+                skipToEndOfLine();
+            } else if (c == '/' && peek(1) == '*') {
+                int end = source.indexOf("*/", position + 2);
+                position = end == -1 ? length : end + 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipToEndOfLine() {
+        while (position < length && source.charAt(position) != '\n' && source.charAt(position) != '\r') {
+            position++;
+        }
+    }
+
+    private void skipStringLiteral() {
+        if (source.startsWith("\"\"\"", position)) {
+            // text block
+            position += 3;
+            while (position < length && !source.startsWith("\"\"\"", position)) {
+                position += source.charAt(position) == '\\' ? 2 : 1;
+            }
+            position = Math.min(position + 3, length);
+        } else {
+            position++;
+            while (position < length && source.charAt(position) != '"' && source.charAt(position) != '\n') {
+                position += source.charAt(position) == '\\' ? 2 : 1;
+            }
+            position = Math.min(position + 1, length);
+        }
+    }
+
+    private void skipCharacterLiteral() {
+        position++;
+        while (position < length && source.charAt(position) != '\'' && source.charAt(position) != '\n') {
+            position += source.charAt(position) == '\\' ? 2 : 1;
+        }
+        position = Math.min(position + 1, length);
+    }
+
+    private String readIdentifier() {
+        int start = position;
+        position++;
+        while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+            position++;
+        }
+
+        return source.substring(start, position);
+    }
+
+    private String readQualifiedName() {
+        StringBuilder buf = new StringBuilder();
+        while (position < length) {
+            skipWhitespaceAndComments();
+            if (position >= length) {
+                break;
+            }
+
+            char c = source.charAt(position);
+            if (Character.isJavaIdentifierStart(c)) {
+                buf.append(readIdentifier());
+            } else if (c == '.') {
+                buf.append(c);
+                position++;
+            } else {
+                break;
+            }
+        }
+
+        return buf.toString();
+    }
+
+    static final class Declaration {
+
+        private final String name;
+        private final String javadoc;
+
+        private Declaration(String name, String javadoc) {
+            this.name = name;
+            this.javadoc = javadoc;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getJavadoc() {
+            return javadoc;
+        }
+
+    }
+
+}
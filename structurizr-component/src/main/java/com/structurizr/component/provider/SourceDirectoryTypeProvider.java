@@ -1,7 +1,10 @@
 package com.structurizr.component.provider;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -11,29 +14,81 @@ import com.structurizr.component.Type;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A type provider that uses JavaParser to read Javadoc comments from source code.
+ * Source files are parsed in parallel (each thread has its own JavaParser instance), and types are returned
+ * in the order of their (sorted) source file paths.
+ *
+ * Optionally:
+ * - the results can be cached on disk, so that only source files that have changed since the previous run are parsed.
+ * - a lightweight scanner can be used instead of JavaParser, which only reads the package, type declaration
+ *   headers and Javadoc comments, skipping everything else (e.g. method bodies).
  */
 public final class SourceDirectoryTypeProvider implements TypeProvider {
 
     private static final Log log = LogFactory.getLog(SourceDirectoryTypeProvider.class);
     private static final String JAVA_FILE_EXTENSION = ".java";
+    private static final String PACKAGE_INFO_JAVA_SOURCE = "package-info.java";
+    private static final String PACKAGE_INFO_SUFFIX = ".package-info";
     private static final int DEFAULT_DESCRIPTION_LENGTH = 60;
 
     private final File directory;
     private final int maximumDescriptionLength;
-    private final Set<Type> types = new LinkedHashSet<>();
+    private final File cacheFile;
+    private final boolean headersOnly;
+
+    private final Charset characterEncoding = createParserConfiguration().getCharacterEncoding();
+    private final ThreadLocal<JavaParser> javaParser = ThreadLocal.withInitial(() -> new JavaParser(createParserConfiguration()));
 
     public SourceDirectoryTypeProvider(File directory) {
         this(directory, DEFAULT_DESCRIPTION_LENGTH);
     }
 
     public SourceDirectoryTypeProvider(File directory, int maximumDescriptionLength) {
+        this(directory, maximumDescriptionLength, null);
+    }
+
+    public SourceDirectoryTypeProvider(File directory, File cacheFile) {
+        this(directory, DEFAULT_DESCRIPTION_LENGTH, cacheFile);
+    }
+
+    public SourceDirectoryTypeProvider(File directory, File cacheFile, boolean headersOnly) {
+        this(directory, DEFAULT_DESCRIPTION_LENGTH, cacheFile, headersOnly);
+    }
+
+    /**
+     * Creates a type provider that caches the types found in each source file.
+     *
+     * @param directory                 the source directory
+     * @param maximumDescriptionLength  the maximum length of type descriptions
+     * @param cacheFile                 the file used to cache types between runs (null to disable caching)
+     */
+    public SourceDirectoryTypeProvider(File directory, int maximumDescriptionLength, File cacheFile) {
+        this(directory, maximumDescriptionLength, cacheFile, false);
+    }
+
+    /**
+     * Creates a type provider.
+     *
+     * @param directory                 the source directory
+     * @param maximumDescriptionLength  the maximum length of type descriptions
+     * @param cacheFile                 the file used to cache types between runs (null to disable caching)
+     * @param headersOnly               true to only scan type declaration headers and Javadoc comments,
+     *                                  false to fully parse source files with JavaParser
+     */
+    public SourceDirectoryTypeProvider(File directory, int maximumDescriptionLength, File cacheFile, boolean headersOnly) {
         if (directory == null) {
             throw new IllegalArgumentException("A directory must be supplied");
         }
@@ -46,81 +101,155 @@ public final class SourceDirectoryTypeProvider implements TypeProvider {
             throw new IllegalArgumentException(directory.getAbsolutePath() + " is not a directory");
         }
 
+        if (cacheFile != null && cacheFile.isDirectory()) {
+            throw new IllegalArgumentException(cacheFile.getAbsolutePath() + " is a directory");
+        }
+
         this.directory = directory;
         this.maximumDescriptionLength = maximumDescriptionLength;
-        StaticJavaParser.getParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
+        this.cacheFile = cacheFile;
+        this.headersOnly = headersOnly;
     }
 
     @Override
     public Set<Type> getTypes() {
-        parse(directory, maximumDescriptionLength);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            files = paths
+                    .filter(path -> path.getFileName().toString().endsWith(JAVA_FILE_EXTENSION) && Files.isRegularFile(path))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Could not find source files in " + directory.getAbsolutePath(), e);
+            return new LinkedHashSet<>();
+        }
+
+        SourceTypeCache cache = null;
+        if (cacheFile != null) {
+            cache = new SourceTypeCache(cacheFile, maximumDescriptionLength, headersOnly);
+        }
+
+        SourceTypeCache sourceTypeCache = cache;
+        Set<Type> types = files.parallelStream()
+                .map(path -> parse(path.toFile(), sourceTypeCache))
+                .flatMap(Set::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        return new LinkedHashSet<>(types);
+        if (cache != null) {
+            cache.save();
+        }
+
+        return types;
     }
 
-    private void parse(File path, int maximumDescriptionLength) {
-        if (path.isDirectory()) {
-            File[] files = path.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    try {
-                        parse(file, maximumDescriptionLength);
-                    } catch (Exception e) {
-                        log.warn("Error parsing " + file.getAbsolutePath(), e);
-                    }
+    private Set<Type> parse(File path, SourceTypeCache cache) {
+        try {
+            byte[] bytes = Files.readAllBytes(path.toPath());
+
+            String hash = null;
+            if (cache != null) {
+                hash = SourceTypeCache.hash(bytes);
+                Set<Type> typesInFile = cache.get(path.getAbsolutePath(), hash);
+                if (typesInFile != null) {
+                    return typesInFile;
                 }
             }
-        } else {
-            if (path.getName().endsWith(JAVA_FILE_EXTENSION)) {
-                try {
-                    new VoidVisitorAdapter<>() {
-                        @Override
-                        public void visit(ClassOrInterfaceDeclaration n, Object arg) {
-                            if (n.getFullyQualifiedName().isPresent()) {
-                                String fullyQualifiedName = n.getFullyQualifiedName().get();
-                                Type type = new Type(fullyQualifiedName);
-                                type.setSource(path.getAbsolutePath());
-
-                                if (n.getComment().isPresent() && n.getComment().get() instanceof JavadocComment) {
-                                    JavadocComment javadocComment = (JavadocComment) n.getComment().get();
-                                    String description = javadocComment.parse().getDescription().toText();
-
-                                    type.setDescription(new JavadocCommentFilter(maximumDescriptionLength).filterAndTruncate(description));
-                                }
-                                types.add(type);
-                            }
-                        }
-
-                        @Override
-                        public void visit(PackageDeclaration n, Object arg) {
-                            String PACKAGE_INFO_JAVA_SOURCE = "package-info.java";
-                            String PACKAGE_INFO_SUFFIX = ".package-info";
-
-                            if (path.getName().endsWith(PACKAGE_INFO_JAVA_SOURCE)) {
-                                String fullyQualifiedName = n.getName().asString() + PACKAGE_INFO_SUFFIX;
-
-                                Type type = new Type(fullyQualifiedName);
-                                type.setSource(path.getAbsolutePath());
-
-                                Node rootNode = n.findRootNode();
-                                if (rootNode != null && rootNode.getComment().isPresent() && rootNode.getComment().get() instanceof JavadocComment) {
-                                    JavadocComment javadocComment = (JavadocComment)rootNode.getComment().get();
-                                    String description = javadocComment.parse().getDescription().toText();
-
-                                    type.setDescription(new JavadocCommentFilter(maximumDescriptionLength).filterAndTruncate(description));
-                                }
-
-                                types.add(type);
-                            }
-                        }
-                    }.visit(StaticJavaParser.parse(path), null);
-                } catch (IOException e) {
-                    log.warn("Error parsing source code", e);
-                }
+
+            Set<Type> typesInFile;
+            if (headersOnly) {
+                typesInFile = findTypes(path, JavaSourceScanner.scan(new String(bytes, characterEncoding)));
             } else {
-                log.debug("Ignoring " + path.getAbsolutePath());
+                ParseResult<CompilationUnit> result = javaParser.get().parse(new ByteArrayInputStream(bytes));
+                if (!result.isSuccessful() || result.getResult().isEmpty()) {
+                    throw new ParseProblemException(result.getProblems());
+                }
+                typesInFile = findTypes(path, result.getResult().get());
             }
+
+            if (cache != null) {
+                cache.put(path.getAbsolutePath(), hash, typesInFile);
+            }
+
+            return typesInFile;
+        } catch (Exception e) {
+            log.warn("Error parsing " + path.getAbsolutePath(), e);
+        }
+
+        return new LinkedHashSet<>();
+    }
+
+    private static ParserConfiguration createParserConfiguration() {
+        return new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
+    }
+
+    private Set<Type> findTypes(File path, JavaSourceScanner scanner) {
+        Set<Type> typesInFile = new LinkedHashSet<>();
+
+        if (path.getName().endsWith(PACKAGE_INFO_JAVA_SOURCE) && scanner.getPackageName() != null) {
+            typesInFile.add(createType(scanner.getPackageName() + PACKAGE_INFO_SUFFIX, path, scanner.getPackageJavadoc()));
+        }
+
+        for (JavaSourceScanner.Declaration declaration : scanner.getDeclarations()) {
+            typesInFile.add(createType(declaration.getName(), path, declaration.getJavadoc()));
         }
+
+        return typesInFile;
+    }
+
+    private Type createType(String fullyQualifiedName, File path, String javadoc) {
+        Type type = new Type(fullyQualifiedName);
+        type.setSource(path.getAbsolutePath());
+
+        if (javadoc != null) {
+            type.setDescription(describe(new JavadocComment(javadoc)));
+        }
+
+        return type;
+    }
+
+    private String describe(JavadocComment javadocComment) {
+        String description = javadocComment.parse().getDescription().toText();
+
+        return new JavadocCommentFilter(maximumDescriptionLength).filterAndTruncate(description);
+    }
+
+    private Set<Type> findTypes(File path, CompilationUnit compilationUnit) {
+        Set<Type> typesInFile = new LinkedHashSet<>();
+
+        new VoidVisitorAdapter<>() {
+            @Override
+            public void visit(ClassOrInterfaceDeclaration n, Object arg) {
+                if (n.getFullyQualifiedName().isPresent()) {
+                    String fullyQualifiedName = n.getFullyQualifiedName().get();
+                    Type type = new Type(fullyQualifiedName);
+                    type.setSource(path.getAbsolutePath());
+
+                    if (n.getComment().isPresent() && n.getComment().get() instanceof JavadocComment) {
+                        type.setDescription(describe((JavadocComment) n.getComment().get()));
+                    }
+                    typesInFile.add(type);
+                }
+            }
+
+            @Override
+            public void visit(PackageDeclaration n, Object arg) {
+                if (path.getName().endsWith(PACKAGE_INFO_JAVA_SOURCE)) {
+                    String fullyQualifiedName = n.getName().asString() + PACKAGE_INFO_SUFFIX;
+
+                    Type type = new Type(fullyQualifiedName);
+                    type.setSource(path.getAbsolutePath());
+
+                    Node rootNode = n.findRootNode();
+                    if (rootNode != null && rootNode.getComment().isPresent() && rootNode.getComment().get() instanceof JavadocComment) {
+                        type.setDescription(describe((JavadocComment) rootNode.getComment().get()));
+                    }
+
+                    typesInFile.add(type);
+                }
+            }
+        }.visit(compilationUnit, null);
+
+        return typesInFile;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.structurizr.component.provider;
+
+import com.structurizr.component.Type;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An on-disk cache of the types (fully qualified names and descriptions) found in Java source files,
+ * keyed by source file path and the SHA-256 hash of the file content, so that unchanged source files
+ * don't need to be parsed again.
+ *
+ * The cache is only used if it was written with the same settings (maximum description length and parsing mode),
+ * and entries for source files that weren't seen during the last run are removed when the cache is saved.
+ */
+final class SourceTypeCache {
+
+    private static final Log log = LogFactory.getLog(SourceTypeCache.class);
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final int maximumDescriptionLength;
+    private final boolean headersOnly;
+
+    private final Map<String, Entry> previousEntries = new HashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    SourceTypeCache(File file, int maximumDescriptionLength, boolean headersOnly) {
+        if (file == null) {
+            throw new IllegalArgumentException("A cache file must be supplied");
+        }
+
+        this.file = file;
+        this.maximumDescriptionLength = maximumDescriptionLength;
+        this.headersOnly = headersOnly;
+
+        load();
+    }
+
+    static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the types for the specified source file, if it has been cached with the same content hash.
+     *
+     * @param path      the absolute path of the source file
+     * @param hash      the content hash of the source file
+     * @return  a Set of Type objects, or null if the source file needs to be parsed
+     */
+    Set<Type> get(String path, String hash) {
+        Entry entry = previousEntries.get(path);
+        if (entry == null || !entry.hash.equals(hash)) {
+            return null;
+        }
+
+        entries.put(path, entry);
+
+        Set<Type> types = new LinkedHashSet<>();
+        for (int i = 0; i < entry.names.size(); i++) {
+            Type type = new Type(entry.names.get(i));
+            type.setDescription(entry.descriptions.get(i));
+            type.setSource(path);
+            types.add(type);
+        }
+
+        return types;
+    }
+
+    void put(String path, String hash, Set<Type> types) {
+        List<String> names = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        for (Type type : types) {
+            names.add(type.getFullyQualifiedName());
+            descriptions.add(type.getDescription());
+        }
+
+        entries.put(path, new Entry(hash, names, descriptions));
+    }
+
+    void save() {
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            directory.mkdirs();
+
+            File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(VERSION);
+                out.writeInt(maximumDescriptionLength);
+                out.writeBoolean(headersOnly);
+                out.writeInt(entries.size());
+
+                for (String path : new TreeSet<>(entries.keySet())) {
+                    Entry entry = entries.get(path);
+                    out.writeUTF(path);
+                    out.writeUTF(entry.hash);
+                    out.writeInt(entry.names.size());
+                    for (int i = 0; i < entry.names.size(); i++) {
+                        out.writeUTF(entry.names.get(i));
+                        out.writeBoolean(entry.descriptions.get(i) != null);
+                        if (entry.descriptions.get(i) != null) {
+                            out.writeUTF(entry.descriptions.get(i));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile.toPath());
+                throw e;
+            }
+
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write type cache " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION || in.readInt() != maximumDescriptionLength || in.readBoolean() != headersOnly) {
+                log.debug("Ignoring type cache " + file.getAbsolutePath());
+                return;
+            }
+
+            int numberOfEntries = in.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String path = in.readUTF();
+                String hash = in.readUTF();
+                int numberOfTypes = in.readInt();
+
+                List<String> names = new ArrayList<>();
+                List<String> descriptions = new ArrayList<>();
+                for (int j = 0; j < numberOfTypes; j++) {
+                    names.add(in.readUTF());
+                    descriptions.add(in.readBoolean() ? in.readUTF() : null);
+                }
+
+                previousEntries.put(path, new Entry(hash, names, descriptions));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read type cache " + file.getAbsolutePath(), e);
+            previousEntries.clear();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String hash;
+        private final List<String> names;
+        private final List<String> descriptions;
+
+        private Entry(String hash, List<String> names, List<String> descriptions) {
+            this.hash = hash;
+            this.names = names;
+            this.descriptions = descriptions;
+        }
+
+    }
+
+}
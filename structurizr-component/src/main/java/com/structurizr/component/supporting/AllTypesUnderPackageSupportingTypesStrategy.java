@@ -4,7 +4,6 @@ import com.structurizr.component.Type;
 import com.structurizr.component.TypeRepository;
 
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A strategy that finds all referenced types in the same package as the component type.
@@ -15,9 +14,7 @@ public class AllTypesUnderPackageSupportingTypesStrategy implements SupportingTy
     public Set<Type> findSupportingTypes(Type type, TypeRepository typeRepository) {
         String packageName = type.getPackageName();
 
-        return typeRepository.getTypes().stream()
-                    .filter(dependency -> dependency.getPackageName().startsWith(packageName))
-                    .collect(Collectors.toSet());
+        return typeRepository.getTypesUnderPackage(packageName);
     }
 
 }
\ No newline at end of file
@@ -11,6 +11,36 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 public class ComponentFinderBuilderTests {
 
+    @Test
+    void withSession_ThrowsAnException_WhenPassedNull() {
+        try {
+            new ComponentFinderBuilder().withSession(null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("A session must be specified", e.getMessage());
+        }
+    }
+
+    @Test
+    void withDependencyKinds_ThrowsAnException_WhenPassedNoKinds() {
+        try {
+            new ComponentFinderBuilder().withDependencyKinds();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("One or more dependency kinds must be specified", e.getMessage());
+        }
+    }
+
+    @Test
+    void withListener_ThrowsAnException_WhenPassedNull() {
+        try {
+            new ComponentFinderBuilder().withListener(null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("A listener must be specified", e.getMessage());
+        }
+    }
+
     @Test
     void build_ThrowsAnException_WhenAContainerHasNotBeenSpecified() {
         try {
@@ -0,0 +1,52 @@
+package com.structurizr.component;
+
+import com.structurizr.Workspace;
+import com.structurizr.component.matcher.NameSuffixTypeMatcher;
+import com.structurizr.model.Container;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentFinderMetricsTests {
+
+    private static final File classes = new File("build/classes/java/test/com/structurizr/component/componentFinder");
+
+    @Test
+    void getSummary() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+        ComponentFinderMetrics metrics = new ComponentFinderMetrics();
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(classes)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .withListener(metrics)
+                .build()
+                .findComponents();
+
+        String summary = metrics.getSummary();
+        assertTrue(summary.startsWith("Types loaded: 3 types ("));
+        assertTrue(summary.contains(" - classes:" + classes.getAbsoluteFile().toPath().normalize() + ": 3 types ("));
+        assertTrue(summary.contains("Type hierarchy resolved: 3 types ("));
+        assertTrue(summary.contains("Components found: 2 components ("));
+        assertTrue(summary.contains(" - ComponentFinderStrategy{typeMatcher=NameSuffixTypeMatcher{suffix='Controller'}, typeFilter=DefaultTypeFilter{}}: 1 components from 3 types, 0 supporting types (matching "));
+        assertTrue(summary.contains("Component dependencies found: 1 relationships ("));
+        assertTrue(summary.contains("Components visited: 2 components ("));
+        assertTrue(summary.contains("Total: "));
+    }
+
+    @Test
+    void getTotalDuration() {
+        ComponentFinderMetrics metrics = new ComponentFinderMetrics();
+        metrics.typesLoaded("classes:/path", 10, Duration.ofMillis(100));
+        metrics.dependenciesFound(10, 5, Duration.ofMillis(20));
+        metrics.componentsFound("Strategy", 10, 2, 3, Duration.ofMillis(3), Duration.ofMillis(4));
+
+        assertEquals(Duration.ofMillis(127), metrics.getTotalDuration());
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.structurizr.component;
+
+import com.structurizr.Workspace;
+import com.structurizr.component.matcher.NameSuffixTypeMatcher;
+import com.structurizr.component.provider.ClassDirectoryTypeProvider;
+import com.structurizr.component.provider.TypeProvider;
+import com.structurizr.model.Container;
+import com.structurizr.model.SoftwareSystem;
+import org.apache.bcel.util.Repository;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentFinderSessionTests {
+
+    private static final File classes = new File("build/classes/java/test/com/structurizr/component/componentFinder");
+
+    @Test
+    void getTypes_OnlyUsesTheTypeProviderOncePerLocation() {
+        AtomicInteger count = new AtomicInteger();
+        TypeProvider typeProvider = () -> {
+            count.incrementAndGet();
+            return new ClassDirectoryTypeProvider(classes).getTypes();
+        };
+
+        ComponentFinderSession session = new ComponentFinderSession();
+        Set<Type> types1 = session.getTypes("classes", typeProvider);
+        Set<Type> types2 = session.getTypes("classes", typeProvider);
+
+        assertEquals(1, count.get());
+        assertEquals(types1, types2);
+
+        // each caller gets its own Type objects, wrapping its own copies of the JavaClass objects
+        Type type1 = types1.iterator().next();
+        Type type2 = types2.iterator().next();
+        assertNotSame(type1, type2);
+        assertNotSame(type1.getJavaClass(), type2.getJavaClass());
+        assertEquals(type1.getJavaClass().getClassName(), type2.getJavaClass().getClassName());
+
+        session.clear();
+        session.getTypes("classes", typeProvider);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    void getTypes_LoadsDifferentLocationsConcurrently() throws Exception {
+        ComponentFinderSession session = new ComponentFinderSession();
+        CountDownLatch location1Loading = new CountDownLatch(1);
+        CountDownLatch location2Loaded = new CountDownLatch(1);
+        AtomicBoolean location2LoadedWhileLoadingLocation1 = new AtomicBoolean();
+
+        // location 1 can only finish loading once location 2 has been loaded by another thread
+        Thread thread = new Thread(() -> session.getTypes("location1", () -> {
+            location1Loading.countDown();
+            try {
+                location2LoadedWhileLoadingLocation1.set(location2Loaded.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return Set.of();
+        }));
+        thread.start();
+        assertTrue(location1Loading.await(5, TimeUnit.SECONDS));
+
+        session.getTypes("location2", () -> {
+            location2Loaded.countDown();
+            return Set.of();
+        });
+        thread.join();
+
+        assertTrue(location2LoadedWhileLoadingLocation1.get());
+    }
+
+    @Test
+    void findComponents_DoesNotShareSourceTypesBetweenComponentFindersWithDifferentOptions() throws Exception {
+        // the body of this source file can't be parsed, but the type declaration header and Javadoc can be scanned
+        File source = Files.createTempDirectory("source").toFile();
+        Files.writeString(new File(source, "ReportController.java").toPath(),
+                "package com.structurizr.component.sharedTypes;\n" +
+                "/** Provides reports. */\n" +
+                "public class ReportController { this is not valid Java }\n");
+        File sharedTypes = new File("build/classes/java/test/com/structurizr/component/sharedTypes");
+
+        SoftwareSystem softwareSystem = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System");
+        Container container1 = softwareSystem.addContainer("Container 1");
+        Container container2 = softwareSystem.addContainer("Container 2");
+        ComponentFinderSession session = new ComponentFinderSession();
+
+        new ComponentFinderBuilder()
+                .forContainer(container1)
+                .withSession(session)
+                .fromClasses(sharedTypes)
+                .fromSource(source, null, true)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .build()
+                .findComponents();
+
+        new ComponentFinderBuilder()
+                .forContainer(container2)
+                .withSession(session)
+                .fromClasses(sharedTypes)
+                .fromSource(source)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .build()
+                .findComponents();
+
+        assertEquals("Provides reports.", container1.getComponentWithName("Report Controller").getDescription());
+
+        // the source was fully parsed (and failed) for the second component finder, rather than being reused
+        assertNull(container2.getComponentWithName("Report Controller").getDescription());
+    }
+
+    @Test
+    void findComponents_ForMultipleContainers() {
+        SoftwareSystem softwareSystem = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System");
+        Container container1 = softwareSystem.addContainer("Container 1");
+        Container container2 = softwareSystem.addContainer("Container 2");
+        ComponentFinderSession session = new ComponentFinderSession();
+
+        new ComponentFinderBuilder()
+                .forContainer(container1)
+                .withSession(session)
+                .fromClasses(classes)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .build()
+                .findComponents();
+
+        new ComponentFinderBuilder()
+                .forContainer(container2)
+                .withSession(session)
+                .fromClasses(classes)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Repository")).build())
+                .build()
+                .findComponents();
+
+        assertEquals(2, container1.getComponents().size());
+        assertTrue(container1.getComponentWithName("Customer Controller").hasEfferentRelationshipWith(container1.getComponentWithName("Customer Service")));
+
+        assertEquals(2, container2.getComponents().size());
+        assertTrue(container2.getComponentWithName("Customer Service").hasEfferentRelationshipWith(container2.getComponentWithName("Customer Repository")));
+    }
+
+    @Test
+    void findComponents_DoesNotModifyTheJavaClassObjectsUsedByAnotherComponentFinder() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+        ComponentFinderSession session = new ComponentFinderSession();
+        String location = "classes:" + classes.getAbsoluteFile().toPath().normalize();
+        Set<Type> types = session.getTypes(location, new ClassDirectoryTypeProvider(classes));
+        Type type = types.iterator().next();
+        Repository repository = type.getJavaClass().getRepository();
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .withSession(session)
+                .fromClasses(classes)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .build()
+                .findComponents();
+
+        assertSame(repository, type.getJavaClass().getRepository());
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.structurizr.component;
+
+import com.structurizr.Workspace;
+import com.structurizr.component.matcher.NameSuffixTypeMatcher;
+import com.structurizr.component.supporting.AllReferencedTypesSupportingTypesStrategy;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentFinderTests {
+
+    private static final File classes = new File("build/classes/java/test/com/structurizr/component/componentFinder");
+
+    @Test
+    void findComponents() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(classes)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Repository")).build())
+                .build()
+                .findComponents();
+
+        assertEquals(3, container.getComponents().size());
+        Component controller = container.getComponentWithName("Customer Controller");
+        Component service = container.getComponentWithName("Customer Service");
+        Component repository = container.getComponentWithName("Customer Repository");
+
+        assertEquals("com.structurizr.component.componentFinder.CustomerController", controller.getProperties().get("component.type"));
+        assertTrue(controller.hasEfferentRelationshipWith(service));
+        assertTrue(service.hasEfferentRelationshipWith(repository)); // via an interface method
+        assertFalse(controller.hasEfferentRelationshipWith(repository));
+        assertFalse(repository.hasEfferentRelationshipWith(service));
+    }
+
+    @Test
+    void findComponents_WhenATypeBelongsToMoreThanOneComponent() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(new File("build/classes/java/test/com/structurizr/component/sharedTypes"))
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).supportedBy(new AllReferencedTypesSupportingTypesStrategy()).build())
+                .build()
+                .findComponents();
+
+        assertEquals(3, container.getComponents().size());
+        Component controller = container.getComponentWithName("Report Controller");
+        Component orderService = container.getComponentWithName("Order Service");
+        Component invoiceService = container.getComponentWithName("Invoice Service");
+
+        // the audit log is a supporting type of both services, so a dependency on it is a dependency on each of them
+        assertTrue(controller.hasEfferentRelationshipWith(orderService));
+        assertTrue(controller.hasEfferentRelationshipWith(invoiceService));
+        assertTrue(orderService.hasEfferentRelationshipWith(invoiceService));
+        assertTrue(invoiceService.hasEfferentRelationshipWith(orderService));
+        assertFalse(orderService.hasEfferentRelationshipWith(controller));
+        assertFalse(invoiceService.hasEfferentRelationshipWith(controller));
+        assertEquals(4, container.getModel().getRelationships().size());
+    }
+
+    @Test
+    void findComponents_WhenOnlyTheHeadersOfSourceFilesAreScanned() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(new File("build/classes/java/test/com/structurizr/component/sharedTypes"))
+                .fromSource(new File("src/test/java/com/structurizr/component/sharedTypes"), null, true)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .build()
+                .findComponents();
+
+        assertEquals("Provides reports.", container.getComponentWithName("Report Controller").getDescription());
+    }
+
+    @Test
+    void findComponents_WhenOnlySignatureDependenciesAreFound() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(classes)
+                .withDependencyKinds(DependencyKind.Signature)
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Controller")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Service")).build())
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new NameSuffixTypeMatcher("Repository")).build())
+                .build()
+                .findComponents();
+
+        Component controller = container.getComponentWithName("Customer Controller");
+        Component service = container.getComponentWithName("Customer Service");
+        Component repository = container.getComponentWithName("Customer Repository");
+
+        // via field types only
+        assertTrue(controller.hasEfferentRelationshipWith(service));
+        assertTrue(service.hasEfferentRelationshipWith(repository));
+        assertFalse(controller.hasEfferentRelationshipWith(repository));
+    }
+
+}
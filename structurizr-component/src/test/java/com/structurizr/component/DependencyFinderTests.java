@@ -0,0 +1,87 @@
+package com.structurizr.component;
+
+import com.structurizr.component.provider.ClassDirectoryTypeProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyFinderTests {
+
+    private static final File classes = new File("build/classes/java/test/com/structurizr/component/dependencyFinder");
+    private static final String PACKAGE_NAME = "com.structurizr.component.dependencyFinder.";
+
+    @Test
+    void findDependencies() {
+        TypeRepository typeRepository = new TypeRepository();
+        for (Type type : new ClassDirectoryTypeProvider(classes).getTypes()) {
+            typeRepository.add(type);
+        }
+
+        Type customerService = typeRepository.getType(PACKAGE_NAME + "CustomerService");
+        new DependencyFinder(typeRepository, EnumSet.allOf(DependencyKind.class)).findDependencies(customerService);
+
+        Type abstractService = typeRepository.getType(PACKAGE_NAME + "AbstractService");
+        Type customerRepository = typeRepository.getType(PACKAGE_NAME + "CustomerRepository");
+        Type customer = typeRepository.getType(PACKAGE_NAME + "Customer");
+        Type order = typeRepository.getType(PACKAGE_NAME + "Order");
+        Type counter = typeRepository.getType(PACKAGE_NAME + "Counter");
+        Type audited = typeRepository.getType(PACKAGE_NAME + "Audited");
+        Type validated = typeRepository.getType(PACKAGE_NAME + "Validated");
+
+        assertEquals(Set.of(abstractService, customerRepository, customer, order, counter, audited, validated), customerService.getDependencies());
+
+        assertEquals(Set.of(abstractService), customerService.getDependencies(DependencyKind.Inheritance));
+        assertEquals(Set.of(customerRepository, order), customerService.getDependencies(DependencyKind.MethodInvocation)); // including constructors, except for those of the superclass
+        assertEquals(Set.of(counter), customerService.getDependencies(DependencyKind.FieldAccess));
+        assertTrue(customerService.getDependencies(DependencyKind.ClassReference).contains(order));
+        assertEquals(Set.of(customerRepository, customer), customerService.getDependencies(DependencyKind.Signature)); // field types, including generics
+        assertEquals(Set.of(audited, validated, order), customerService.getDependencies(DependencyKind.Annotation));
+
+        assertEquals(Set.of(DependencyKind.MethodInvocation, DependencyKind.ClassReference, DependencyKind.Annotation), customerService.getDependencyKinds(order));
+        assertTrue(customerService.getDependencyKinds(typeRepository.getType(PACKAGE_NAME + "Unused")).isEmpty());
+    }
+
+    @Test
+    void findDependencies_OnlyFindsMethodInvocationsFieldAccessesAndClassReferencesByDefault() {
+        TypeRepository typeRepository = new TypeRepository();
+        for (Type type : new ClassDirectoryTypeProvider(classes).getTypes()) {
+            typeRepository.add(type);
+        }
+
+        Type customerService = typeRepository.getType(PACKAGE_NAME + "CustomerService");
+        new DependencyFinder(typeRepository).findDependencies(customerService);
+
+        Type abstractService = typeRepository.getType(PACKAGE_NAME + "AbstractService");
+        Type customerRepository = typeRepository.getType(PACKAGE_NAME + "CustomerRepository");
+        Type order = typeRepository.getType(PACKAGE_NAME + "Order");
+        Type counter = typeRepository.getType(PACKAGE_NAME + "Counter");
+
+        // the abstract superclass is only a dependency via inheritance (including the implicit call to its constructor)
+        assertEquals(Set.of(customerRepository, order, counter), customerService.getDependencies());
+        assertFalse(customerService.getDependencies().contains(abstractService));
+        assertTrue(customerService.getDependencies(DependencyKind.Inheritance).isEmpty());
+        assertTrue(customerService.getDependencies(DependencyKind.Signature).isEmpty());
+        assertTrue(customerService.getDependencies(DependencyKind.Annotation).isEmpty());
+    }
+
+    @Test
+    void findDependencies_DoesNotFindNestedOrEnclosingClassesThatAreNotUsed() {
+        TypeRepository typeRepository = new TypeRepository();
+        for (Type type : new ClassDirectoryTypeProvider(classes).getTypes()) {
+            typeRepository.add(type);
+        }
+
+        Type invoice = typeRepository.getType(PACKAGE_NAME + "Invoice");
+        Type line = typeRepository.getType(PACKAGE_NAME + "Invoice$Line");
+        new DependencyFinder(typeRepository).findDependencies(invoice);
+        new DependencyFinder(typeRepository).findDependencies(line);
+
+        assertTrue(invoice.getDependencies().isEmpty());
+        assertTrue(line.getDependencies().isEmpty());
+    }
+
+}
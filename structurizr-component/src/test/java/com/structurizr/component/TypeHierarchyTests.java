@@ -0,0 +1,53 @@
+package com.structurizr.component;
+
+import org.apache.bcel.classfile.ClassParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeHierarchyTests {
+
+    private static final File classes = new File("build/classes/java/test/com/structurizr/component/typeHierarchy");
+
+    @Test
+    void index() throws Exception {
+        TypeRepository typeRepository = new TypeRepository();
+        for (String name : List.of("Component", "Controller", "WebController", "AbstractController", "CustomerController")) {
+            typeRepository.add(new Type(new ClassParser(new File(classes, name + ".class").getAbsolutePath()).parse()));
+        }
+
+        new TypeHierarchy(typeRepository).index();
+
+        Type type = typeRepository.getType("com.structurizr.component.typeHierarchy.CustomerController");
+        assertEquals(
+                List.of("com.structurizr.component.typeHierarchy.AbstractController", "java.lang.Object"),
+                List.copyOf(type.getSuperclassNames()));
+        assertEquals(
+                Set.of("com.structurizr.component.typeHierarchy.WebController", "com.structurizr.component.typeHierarchy.Controller", "java.io.Serializable"),
+                type.getInterfaceNames());
+        assertEquals(Set.of("java.io.Serializable"), type.getDirectInterfaceNames());
+        assertEquals(
+                Set.of("com.structurizr.component.typeHierarchy.Component"),
+                type.getAnnotationNames());
+
+        type = typeRepository.getType("com.structurizr.component.typeHierarchy.WebController");
+        assertEquals(Set.of("com.structurizr.component.typeHierarchy.Controller"), type.getInterfaceNames());
+        assertEquals(Set.of("com.structurizr.component.typeHierarchy.Controller"), type.getDirectInterfaceNames());
+        assertTrue(type.getAnnotationNames().isEmpty());
+    }
+
+    @Test
+    void getSuperclassNames_WhenThereIsNoUnderlyingJavaClass() {
+        Type type = new Type("com.example.ClassName");
+
+        assertTrue(type.getSuperclassNames().isEmpty());
+        assertTrue(type.getDirectInterfaceNames().isEmpty());
+        assertTrue(type.getInterfaceNames().isEmpty());
+        assertTrue(type.getAnnotationNames().isEmpty());
+    }
+
+}
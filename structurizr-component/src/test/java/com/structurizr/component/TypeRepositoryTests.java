@@ -0,0 +1,72 @@
+package com.structurizr.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeRepositoryTests {
+
+    @Test
+    void add_IgnoresDuplicateTypes() {
+        TypeRepository typeRepository = new TypeRepository();
+        Type type = new Type("com.example.a.A");
+        typeRepository.add(type);
+        typeRepository.add(new Type("com.example.a.A"));
+
+        assertEquals(1, typeRepository.getTypes().size());
+        assertSame(type, typeRepository.getType("com.example.a.A"));
+    }
+
+    @Test
+    void getType() {
+        TypeRepository typeRepository = new TypeRepository();
+        Type type = new Type("com.example.a.A");
+        typeRepository.add(type);
+
+        assertSame(type, typeRepository.getType("com.example.a.A"));
+        assertNull(typeRepository.getType("com.example.a.B"));
+    }
+
+    @Test
+    void getTypesInPackage() {
+        TypeRepository typeRepository = new TypeRepository();
+        Type type1 = new Type("com.example.a.A1");
+        Type type2 = new Type("com.example.a.A2");
+        Type type3 = new Type("com.example.a.internal.AInternal");
+        Type type4 = new Type("DefaultPackageType");
+        typeRepository.add(type1);
+        typeRepository.add(type2);
+        typeRepository.add(type3);
+        typeRepository.add(type4);
+
+        Set<Type> types = typeRepository.getTypesInPackage("com.example.a");
+        assertEquals(2, types.size());
+        assertTrue(types.contains(type1));
+        assertTrue(types.contains(type2));
+
+        assertTrue(typeRepository.getTypesInPackage("com.example.b").isEmpty());
+        assertTrue(typeRepository.getTypesInPackage("").contains(type4));
+    }
+
+    @Test
+    void getTypesUnderPackage() {
+        TypeRepository typeRepository = new TypeRepository();
+        Type type1 = new Type("com.example.a.A");
+        Type type2 = new Type("com.example.a.internal.AInternal");
+        Type type3 = new Type("com.example.b.B");
+        typeRepository.add(type1);
+        typeRepository.add(type2);
+        typeRepository.add(type3);
+
+        Set<Type> types = typeRepository.getTypesUnderPackage("com.example.a");
+        assertEquals(2, types.size());
+        assertTrue(types.contains(type1));
+        assertTrue(types.contains(type2));
+
+        assertEquals(3, typeRepository.getTypesUnderPackage("com.example").size());
+        assertTrue(typeRepository.getTypesUnderPackage("com.example.c").isEmpty());
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.structurizr.component.componentFinder;
+
+class CustomerController {
+
+    private final CustomerService customerService = new CustomerService();
+
+    void getCustomer(String id) {
+        customerService.getCustomer(id);
+    }
+
+}
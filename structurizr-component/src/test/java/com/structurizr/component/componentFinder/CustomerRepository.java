@@ -0,0 +1,7 @@
+package com.structurizr.component.componentFinder;
+
+interface CustomerRepository {
+
+    Object findById(String id);
+
+}
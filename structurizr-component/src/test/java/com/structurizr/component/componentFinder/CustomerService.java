@@ -0,0 +1,11 @@
+package com.structurizr.component.componentFinder;
+
+class CustomerService {
+
+    private CustomerRepository customerRepository;
+
+    Object getCustomer(String id) {
+        return customerRepository.findById(id);
+    }
+
+}
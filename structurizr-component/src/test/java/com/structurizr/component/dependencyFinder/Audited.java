@@ -0,0 +1,7 @@
+package com.structurizr.component.dependencyFinder;
+
+@interface Audited {
+
+    Class<?> value();
+
+}
@@ -0,0 +1,7 @@
+package com.structurizr.component.dependencyFinder;
+
+class Counter {
+
+    static int count;
+
+}
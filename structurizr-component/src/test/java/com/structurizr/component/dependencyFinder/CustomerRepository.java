@@ -0,0 +1,7 @@
+package com.structurizr.component.dependencyFinder;
+
+interface CustomerRepository {
+
+    Customer findById(String id);
+
+}
@@ -0,0 +1,20 @@
+package com.structurizr.component.dependencyFinder;
+
+import java.util.List;
+
+@Audited(Order.class)
+class CustomerService extends AbstractService {
+
+    private CustomerRepository customerRepository;
+    private List<Customer> customers;
+
+    Object findCustomer(@Validated String id) {
+        Counter.count++;
+        return customerRepository.findById(id);
+    }
+
+    Object createOrder() {
+        return new Order();
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.structurizr.component.dependencyFinder;
+
+class Invoice {
+
+    static class Line {
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.structurizr.component.dependencyFinder;
+
+class Order {
+}
@@ -1,6 +1,10 @@
 package com.structurizr.component.matcher;
 
+import com.structurizr.Workspace;
+import com.structurizr.component.ComponentFinderBuilder;
+import com.structurizr.component.ComponentFinderStrategyBuilder;
 import com.structurizr.component.Type;
+import com.structurizr.model.Container;
 import org.apache.bcel.classfile.ClassParser;
 import org.junit.jupiter.api.Test;
 
@@ -51,4 +55,29 @@ public class ImplementsTypeMatcherTests {
         assertTrue(new ImplementsTypeMatcher("com.structurizr.component.matcher.implementsTypeMatcher.Controller").matches(type));
     }
 
-}
\ No newline at end of file
+    @Test
+    void matches_ReturnsFalse_WhenTheInterfaceIsInheritedAndInheritedInterfacesAreNotIncluded() throws Exception {
+        File classes = new File("build/classes/java/test");
+        ClassParser parser = new ClassParser(new File(classes, "com/structurizr/component/matcher/implementsTypeMatcher/InternalCustomerController.class").getAbsolutePath());
+        Type type = new Type(parser.parse());
+
+        assertFalse(new ImplementsTypeMatcher("com.structurizr.component.matcher.implementsTypeMatcher.Controller").matches(type));
+    }
+
+    @Test
+    void matches_ReturnsTrue_WhenTheInterfaceIsInheritedAndInheritedInterfacesAreIncluded() {
+        Container container = new Workspace("Name", "Description").getModel().addSoftwareSystem("Software System").addContainer("Container");
+
+        new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(new File("build/classes/java/test/com/structurizr/component/matcher/implementsTypeMatcher"))
+                .withStrategy(new ComponentFinderStrategyBuilder().matchedBy(new ImplementsTypeMatcher("com.structurizr.component.matcher.implementsTypeMatcher.Controller", true)).build())
+                .build()
+                .findComponents();
+
+        assertEquals(2, container.getComponents().size());
+        assertNotNull(container.getComponentWithName("Customer Controller"));
+        assertNotNull(container.getComponentWithName("Internal Customer Controller"));
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.structurizr.component.matcher.implementsTypeMatcher;
+
+class InternalCustomerController extends CustomerController {
+}
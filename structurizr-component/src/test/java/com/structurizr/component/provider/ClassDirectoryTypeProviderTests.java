@@ -4,6 +4,8 @@ import com.structurizr.component.Type;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,4 +38,14 @@ public class ClassDirectoryTypeProviderTests {
         assertNotNull(types.stream().filter(t -> t.getFullyQualifiedName().equals("com.structurizr.component.provider.ClassDirectoryTypeProviderTests")));
     }
 
+    @Test
+    void getTypes_ReturnsTypesInADeterministicOrder() {
+        TypeProvider typeProvider = new ClassDirectoryTypeProvider(classes);
+
+        List<Type> types1 = new ArrayList<>(typeProvider.getTypes());
+        List<Type> types2 = new ArrayList<>(typeProvider.getTypes());
+
+        assertEquals(types1, types2);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.structurizr.component.provider;
+
+import com.structurizr.component.Type;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassJarFileTypeProviderTests {
+
+    private static final File classes = new File("build/classes/java/test");
+
+    @Test
+    void getTypes() throws Exception {
+        File jarFile = File.createTempFile("structurizr", ".jar");
+        jarFile.deleteOnExit();
+
+        List<String> expectedNames = new ArrayList<>();
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile)); Stream<Path> paths = Files.walk(classes.toPath())) {
+            List<Path> classFiles = paths.filter(p -> p.toString().endsWith(".class")).collect(Collectors.toList());
+            for (Path classFile : classFiles) {
+                String name = classes.toPath().relativize(classFile).toString().replace(File.separatorChar, '/');
+                jar.putNextEntry(new JarEntry(name));
+                jar.write(Files.readAllBytes(classFile));
+                jar.closeEntry();
+
+                expectedNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+
+        Set<Type> types = new ClassJarFileTypeProvider(jarFile).getTypes();
+        List<String> names = types.stream().map(Type::getFullyQualifiedName).collect(Collectors.toList());
+
+        assertTrue(names.contains("com.structurizr.component.provider.ClassJarFileTypeProviderTests"));
+        assertEquals(expectedNames, names); // same order as the JAR file entries
+        types.forEach(type -> assertNotNull(type.getJavaClass()));
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.structurizr.component.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JavaSourceScannerTests {
+
+    @Test
+    void scan_FindsTopLevelClassesAndInterfaces() {
+        JavaSourceScanner scanner = JavaSourceScanner.scan(
+                "package com.example;\n" +
+                "\n" +
+                "import java.util.List;\n" +
+                "\n" +
+                "/**\n" +
+                " * A {@link List} of customers.\n" +
+                " */\n" +
+                "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n" +
+                "public class Customers {\n" +
+                "\n" +
+                "    private String s = \"class Fake {\";\n" +
+                "    private char c = '{';\n" +
+                "    private String t = \"\"\"\n" +
+                "        } class Fake {\n" +
+                "        \"\"\";\n" +
+                "\n" +
+                "    /** Nested classes are ignored. */\n" +
+                "    static class Nested {\n" +
+                "    }\n" +
+                "\n" +
+                "    void method() {\n" +
+                "        Class<?> type = Customers.class;\n" +
+                "        class Local {\n" +
+                "        }\n" +
+                "        Runnable r = () -> { };\n" +
+                "    }\n" +
+                "\n" +
+                "}\n" +
+                "\n" +
+                "interface CustomerRepository {\n" +
+                "}\n");
+
+        assertEquals("com.example", scanner.getPackageName());
+
+        List<JavaSourceScanner.Declaration> declarations = scanner.getDeclarations();
+        assertEquals(2, declarations.size());
+        assertEquals("com.example.Customers", declarations.get(0).getName());
+        assertEquals("A {@link List} of customers.", declarations.get(0).getJavadoc().replaceAll("[\\s*]+", " ").trim());
+        assertEquals("com.example.CustomerRepository", declarations.get(1).getName());
+        assertNull(declarations.get(1).getJavadoc());
+    }
+
+    @Test
+    void scan_FindsClassesNestedInsideEnumsAndRecords() {
+        JavaSourceScanner scanner = JavaSourceScanner.scan(
+                "package com.example;\n" +
+                "enum Status {\n" +
+                "    ACTIVE { void m() { } }, INACTIVE;\n" +
+                "    /** Inside an enum. */\n" +
+                "    class Helper { }\n" +
+                "}\n" +
+                "record Point(int x, int y) {\n" +
+                "    interface Shape { }\n" +
+                "}\n" +
+                "@interface Marker {\n" +
+                "    class Defaults { }\n" +
+                "}\n");
+
+        List<JavaSourceScanner.Declaration> declarations = scanner.getDeclarations();
+        assertEquals(3, declarations.size());
+        assertEquals("com.example.Status.Helper", declarations.get(0).getName());
+        assertEquals("Inside an enum.", declarations.get(0).getJavadoc().trim());
+        assertEquals("com.example.Point.Shape", declarations.get(1).getName());
+        assertEquals("com.example.Marker.Defaults", declarations.get(2).getName());
+    }
+
+    @Test
+    void scan_IgnoresJavadocCommentsThatAreNotImmediatelyBeforeTheDeclaration() {
+        JavaSourceScanner scanner = JavaSourceScanner.scan(
+                "/** Description. */\n" +
+                "\n" +
+                "class A { }\n" +
+                "/** Description. */\n" +
+                "// another comment\n" +
+                "class B { }\n" +
+                "/** Description. */\n" +
+                "@Deprecated /* inside the declaration */\n" +
+                "class C { }\n");
+
+        List<JavaSourceScanner.Declaration> declarations = scanner.getDeclarations();
+        assertEquals(3, declarations.size());
+        assertEquals("A", declarations.get(0).getName());
+        assertNull(declarations.get(0).getJavadoc());
+        assertNull(declarations.get(1).getJavadoc());
+        assertEquals("Description.", declarations.get(2).getJavadoc().trim());
+    }
+
+    @Test
+    void scan_PackageInfo() {
+        JavaSourceScanner scanner = JavaSourceScanner.scan(
+                "/**\n" +
+                " * Customer management.\n" +
+                " */\n" +
+                "@Deprecated\n" +
+                "package com.example.customers;\n");
+
+        assertEquals("com.example.customers", scanner.getPackageName());
+        assertEquals("Customer management.", scanner.getPackageJavadoc().replaceAll("[\\s*]+", " ").trim());
+        assertTrue(scanner.getDeclarations().isEmpty());
+
+        // the first comment in the file is used, as per JavaParser
+        scanner = JavaSourceScanner.scan(
+                "/* Licence */\n" +
+                "/** Customer management. */\n" +
+                "package com.example.customers;\n");
+        assertNull(scanner.getPackageJavadoc());
+    }
+
+}
@@ -4,6 +4,8 @@ import com.structurizr.component.Type;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,4 +38,43 @@ public class SourceDirectoryTypeProviderTests {
         assertNotNull(types.stream().filter(t -> t.getFullyQualifiedName().equals("com.structurizr.component.provider.SourceDirectoryTypeProviderTests")));
     }
 
+    @Test
+    void getTypes_UsesTheCache() throws Exception {
+        File sourceDirectory = Files.createTempDirectory("structurizr").toFile();
+        File cacheFile = new File(Files.createTempDirectory("structurizr").toFile(), "types.cache");
+        File sourceFile = new File(sourceDirectory, "com/example/CustomerService.java");
+        sourceFile.getParentFile().mkdirs();
+        Files.writeString(sourceFile.toPath(), "package com.example;\n\n/**\n * Provides customer information.\n */\npublic class CustomerService {\n}");
+
+        Set<Type> types = new SourceDirectoryTypeProvider(sourceDirectory, cacheFile).getTypes();
+        assertEquals(1, types.size());
+        assertTrue(cacheFile.exists());
+
+        // the cached types are returned when the source file hasn't changed
+        types = new SourceDirectoryTypeProvider(sourceDirectory, cacheFile).getTypes();
+        assertEquals(1, types.size());
+        Type type = types.iterator().next();
+        assertEquals("com.example.CustomerService", type.getFullyQualifiedName());
+        assertEquals("Provides customer information.", type.getDescription());
+        assertEquals(sourceFile.getAbsolutePath(), type.getSource());
+
+        // and the source file is parsed again when it has changed
+        Files.writeString(sourceFile.toPath(), "package com.example;\n\n/**\n * Provides customer data.\n */\npublic class CustomerService {\n}");
+        types = new SourceDirectoryTypeProvider(sourceDirectory, cacheFile).getTypes();
+        assertEquals("Provides customer data.", types.iterator().next().getDescription());
+    }
+
+    @Test
+    void getTypes_WhenOnlyScanningHeaders() {
+        Set<Type> types = new SourceDirectoryTypeProvider(sources, 60, null, false).getTypes();
+        Set<Type> typesFromHeaders = new SourceDirectoryTypeProvider(sources, 60, null, true).getTypes();
+
+        assertEquals(new ArrayList<>(types), new ArrayList<>(typesFromHeaders));
+        for (Type type : types) {
+            Type typeFromHeaders = typesFromHeaders.stream().filter(t -> t.equals(type)).findFirst().get();
+            assertEquals(type.getDescription(), typeFromHeaders.getDescription());
+            assertEquals(type.getSource(), typeFromHeaders.getSource());
+        }
+    }
+
 }
\ No newline at end of file
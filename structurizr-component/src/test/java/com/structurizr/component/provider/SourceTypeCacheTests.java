@@ -0,0 +1,72 @@
+package com.structurizr.component.provider;
+
+import com.structurizr.component.Type;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceTypeCacheTests {
+
+    @Test
+    void get_ReturnsTheCachedTypes_WhenTheHashMatches() throws Exception {
+        File cacheFile = new File(Files.createTempDirectory("structurizr").toFile(), "types.cache");
+
+        Type type1 = new Type("com.example.A");
+        type1.setDescription("Description");
+        Type type2 = new Type("com.example.A.B");
+        Set<Type> types = new LinkedHashSet<>();
+        types.add(type1);
+        types.add(type2);
+
+        SourceTypeCache cache = new SourceTypeCache(cacheFile, 60, false);
+        assertNull(cache.get("/src/com/example/A.java", "1234"));
+        cache.put("/src/com/example/A.java", "1234", types);
+        cache.save();
+
+        cache = new SourceTypeCache(cacheFile, 60, false);
+        assertNull(cache.get("/src/com/example/A.java", "5678"));
+
+        Set<Type> cachedTypes = cache.get("/src/com/example/A.java", "1234");
+        assertEquals(2, cachedTypes.size());
+        Type cachedType1 = cachedTypes.iterator().next();
+        assertEquals("com.example.A", cachedType1.getFullyQualifiedName());
+        assertEquals("Description", cachedType1.getDescription());
+        assertEquals("/src/com/example/A.java", cachedType1.getSource());
+        assertTrue(cachedTypes.contains(type2));
+    }
+
+    @Test
+    void get_ReturnsNull_WhenTheMaximumDescriptionLengthHasChanged() throws Exception {
+        File cacheFile = new File(Files.createTempDirectory("structurizr").toFile(), "types.cache");
+
+        SourceTypeCache cache = new SourceTypeCache(cacheFile, 60, false);
+        cache.put("/src/com/example/A.java", "1234", Set.of(new Type("com.example.A")));
+        cache.save();
+
+        assertNull(new SourceTypeCache(cacheFile, 100, false).get("/src/com/example/A.java", "1234"));
+    }
+
+    @Test
+    void save_RemovesEntriesForSourceFilesThatWereNotSeen() throws Exception {
+        File cacheFile = new File(Files.createTempDirectory("structurizr").toFile(), "types.cache");
+
+        SourceTypeCache cache = new SourceTypeCache(cacheFile, 60, false);
+        cache.put("/src/com/example/A.java", "1234", Set.of(new Type("com.example.A")));
+        cache.put("/src/com/example/B.java", "5678", Set.of(new Type("com.example.B")));
+        cache.save();
+
+        cache = new SourceTypeCache(cacheFile, 60, false);
+        assertNotNull(cache.get("/src/com/example/A.java", "1234"));
+        cache.save();
+
+        cache = new SourceTypeCache(cacheFile, 60, false);
+        assertNotNull(cache.get("/src/com/example/A.java", "1234"));
+        assertNull(cache.get("/src/com/example/B.java", "5678"));
+    }
+
+}
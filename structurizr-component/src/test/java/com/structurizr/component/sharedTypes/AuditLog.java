@@ -0,0 +1,8 @@
+package com.structurizr.component.sharedTypes;
+
+class AuditLog {
+
+    void log(String message) {
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.structurizr.component.sharedTypes;
+
+class InvoiceService {
+
+    private final AuditLog auditLog = new AuditLog();
+
+    void sendInvoice(String id) {
+        auditLog.log("Invoice " + id + " sent");
+    }
+
+}
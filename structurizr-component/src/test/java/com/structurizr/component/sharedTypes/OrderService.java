@@ -0,0 +1,11 @@
+package com.structurizr.component.sharedTypes;
+
+class OrderService {
+
+    private final AuditLog auditLog = new AuditLog();
+
+    void placeOrder(String id) {
+        auditLog.log("Order " + id + " placed");
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.structurizr.component.sharedTypes;
+
+/**
+ * Provides reports.
+ */
+class ReportController {
+
+    private final AuditLog auditLog = new AuditLog();
+
+    void getReport(String id) {
+        auditLog.log("Report " + id + " viewed");
+    }
+
+}
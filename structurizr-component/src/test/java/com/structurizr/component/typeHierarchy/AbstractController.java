@@ -0,0 +1,4 @@
+package com.structurizr.component.typeHierarchy;
+
+abstract class AbstractController implements WebController {
+}
@@ -0,0 +1,7 @@
+package com.structurizr.component.typeHierarchy;
+
+import java.io.Serializable;
+
+@Component
+class CustomerController extends AbstractController implements Serializable {
+}
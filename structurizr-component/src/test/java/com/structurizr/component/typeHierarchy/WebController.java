@@ -0,0 +1,4 @@
+package com.structurizr.component.typeHierarchy;
+
+interface WebController extends Controller {
+}
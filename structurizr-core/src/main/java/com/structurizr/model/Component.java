@@ -54,6 +54,7 @@ public final class Component extends StaticStructureElement implements Documenta
      */
     public void setTechnology(String technology) {
         this.technology = technology;
+        modified();
     }
 
     /**
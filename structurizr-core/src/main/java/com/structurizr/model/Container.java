@@ -64,6 +64,7 @@ public final class Container extends StaticStructureElement implements Documenta
      */
     public void setTechnology(String technology) {
         this.technology = technology;
+        modified();
     }
 
     /**
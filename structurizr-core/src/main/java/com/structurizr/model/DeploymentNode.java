@@ -406,6 +406,7 @@ public final class DeploymentNode extends DeploymentElement {
 
     public void setTechnology(String technology) {
         this.technology = technology;
+        modified();
     }
 
     public String getInstances() {
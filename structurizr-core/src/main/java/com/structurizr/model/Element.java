@@ -31,6 +31,13 @@ public abstract class Element extends ModelItem {
         this.model = model;
     }
 
+    @Override
+    void modified() {
+        if (model != null) {
+            model.modified(this);
+        }
+    }
+
     /**
      * Gets the name of this element.
      *
@@ -69,6 +76,7 @@ public abstract class Element extends ModelItem {
      */
     public void setDescription(String description) {
         this.description = description;
+        modified();
     }
 
     /**
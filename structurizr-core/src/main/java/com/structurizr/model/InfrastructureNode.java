@@ -68,6 +68,7 @@ public final class InfrastructureNode extends DeploymentElement {
 
     public void setTechnology(String technology) {
         this.technology = technology;
+        modified();
     }
 
     @JsonIgnore
@@ -33,6 +33,8 @@ public final class Model implements PropertyHolder {
 
     private Map<String, String> properties = new HashMap<>();
 
+    private final List<ModelListener> listeners = new ArrayList<>();
+
     Model() {
     }
 
@@ -281,6 +283,10 @@ public final class Model implements PropertyHolder {
         elements.add(element);
         element.setModel(this);
         idGenerator.found(element.getId());
+
+        for (ModelListener listener : listeners) {
+            listener.elementAdded(element);
+        }
     }
 
     private void addRelationshipToInternalStructures(Relationship relationship) {
@@ -293,11 +299,19 @@ public final class Model implements PropertyHolder {
         relationships.add(relationship);
         relationship.setModel(this);
         idGenerator.found(relationship.getId());
+
+        for (ModelListener listener : listeners) {
+            listener.relationshipAdded(relationship);
+        }
     }
 
     private void removeRelationshipFromInternalStructures(Relationship relationship) {
         relationshipsById.remove(relationship.getId());
         relationships.remove(relationship);
+
+        for (ModelListener listener : listeners) {
+            listener.relationshipRemoved(relationship);
+        }
     }
 
     /**
@@ -1157,6 +1171,44 @@ public final class Model implements PropertyHolder {
 
         elementsById.remove(element.getId());
         elements.remove(element);
+
+        for (ModelListener listener : listeners) {
+            listener.elementRemoved(element);
+        }
+    }
+
+    /**
+     * Adds a listener, which will be notified when elements and relationships are added, removed or modified.
+     *
+     * @param listener      a ModelListener implementation
+     */
+    public void addListener(@Nonnull ModelListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("A listener must be specified.");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener      a ModelListener implementation
+     */
+    public void removeListener(ModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    void modified(Element element) {
+        for (ModelListener listener : listeners) {
+            listener.elementModified(element);
+        }
+    }
+
+    void modified(Relationship relationship) {
+        for (ModelListener listener : listeners) {
+            listener.relationshipModified(relationship);
+        }
     }
 
 }
\ No newline at end of file
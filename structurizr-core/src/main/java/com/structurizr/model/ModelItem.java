@@ -26,6 +26,11 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
     @JsonIgnore
     public abstract Set<String> getDefaultTags();
 
+    /**
+     * Called after this model item has been modified, to notify any model listeners.
+     */
+    abstract void modified();
+
     /**
      * Gets the ID of this item in the model.
      *
@@ -77,6 +82,8 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
                 this.tags.add(tag.trim());
             }
         }
+
+        modified();
     }
 
     /**
@@ -87,8 +94,9 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
      *                  made to remove required tags, which cannot be removed.
      */
     public boolean removeTag(String tag) {
-        if (tag != null) {
-            return this.tags.remove(tag.trim());
+        if (tag != null && this.tags.remove(tag.trim())) {
+            modified();
+            return true;
         }
         return false;
     }
@@ -144,6 +152,8 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
                 throw new IllegalArgumentException(url + " is not a valid URL.");
             }
         }
+
+        modified();
     }
 
     /**
@@ -171,6 +181,7 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
         }
 
         properties.put(name, value);
+        modified();
     }
 
     void setProperties(Map<String, String> properties) {
@@ -234,6 +245,7 @@ public abstract class ModelItem implements PropertyHolder, Comparable<ModelItem>
 
         Perspective perspective = new Perspective(name, description, value);
         perspectives.add(perspective);
+        modified();
 
         return perspective;
     }
@@ -0,0 +1,62 @@
+package com.structurizr.model;
+
+/**
+ * A listener that is notified when elements and relationships are added to, removed from, or modified in a model
+ * (e.g. to keep derived state up to date without re-reading the whole model after every change).
+ * All methods have an empty default implementation, so implementations only need to override those they need.
+ *
+ * Modifications are reported for changes made via the public API (descriptions, technologies, tags, properties,
+ * perspectives and URLs); changes made while a workspace is being deserialized are not reported.
+ */
+public interface ModelListener {
+
+    /**
+     * Called after an element has been added to the model.
+     *
+     * @param element   the Element that was added
+     */
+    default void elementAdded(Element element) {
+    }
+
+    /**
+     * Called after an element has been removed from the model
+     * (after its relationships have been removed and reported via {@link #relationshipRemoved(Relationship)}).
+     *
+     * @param element   the Element that was removed
+     */
+    default void elementRemoved(Element element) {
+    }
+
+    /**
+     * Called after an element has been modified.
+     *
+     * @param element   the Element that was modified
+     */
+    default void elementModified(Element element) {
+    }
+
+    /**
+     * Called after a relationship has been added to the model.
+     *
+     * @param relationship  the Relationship that was added
+     */
+    default void relationshipAdded(Relationship relationship) {
+    }
+
+    /**
+     * Called after a relationship has been removed from the model.
+     *
+     * @param relationship  the Relationship that was removed
+     */
+    default void relationshipRemoved(Relationship relationship) {
+    }
+
+    /**
+     * Called after a relationship has been modified.
+     *
+     * @param relationship  the Relationship that was modified
+     */
+    default void relationshipModified(Relationship relationship) {
+    }
+
+}
@@ -47,6 +47,13 @@ public final class Relationship extends ModelItem {
         this.model = model;
     }
 
+    @Override
+    void modified() {
+        if (model != null) {
+            model.modified(this);
+        }
+    }
+
     @Override
     public String getCanonicalName() {
         return new CanonicalNameGenerator().generate(this);
@@ -208,6 +208,8 @@ public abstract class ModelView extends View {
             if (addRelationships) {
                 addRelationships(element);
             }
+
+            modified();
         } else {
             throw new IllegalArgumentException("The element named " + element.getName() + " does not exist in the model associated with this view.");
         }
@@ -247,7 +249,9 @@ public abstract class ModelView extends View {
         }
 
         ElementView elementView = new ElementView(element);
-        elementViews.remove(elementView);
+        if (elementViews.remove(elementView)) {
+            modified();
+        }
 
         for (RelationshipView relationshipView : getRelationships()) {
             if (relationshipView.getRelationship().getSource().equals(element) ||
@@ -265,6 +269,7 @@ public abstract class ModelView extends View {
         if (isElementInView(relationship.getSource()) && isElementInView(relationship.getDestination())) {
             RelationshipView relationshipView = new RelationshipView(relationship);
             relationshipViews.add(relationshipView);
+            modified();
 
             return relationshipView;
         }
@@ -284,7 +289,9 @@ public abstract class ModelView extends View {
     public void remove(Relationship relationship) {
         if (relationship != null) {
             RelationshipView relationshipView = new RelationshipView(relationship);
-            relationshipViews.remove(relationshipView);
+            if (relationshipViews.remove(relationshipView)) {
+                modified();
+            }
         }
     }
 
@@ -399,6 +406,12 @@ public abstract class ModelView extends View {
         this.viewSet = viewSet;
     }
 
+    private void modified() {
+        if (viewSet != null) {
+            viewSet.viewModified(this);
+        }
+    }
+
     /**
      * Gets the view set that this view belongs to.
      *
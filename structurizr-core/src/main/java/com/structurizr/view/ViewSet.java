@@ -8,6 +8,7 @@ import com.structurizr.util.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import javax.annotation.Nonnull;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.*;
@@ -46,6 +47,8 @@ public final class ViewSet {
 
     private Configuration configuration = new Configuration();
 
+    private final List<ViewSetListener> listeners = new ArrayList<>();
+
     ViewSet() {
     }
 
@@ -77,6 +80,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         customViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -103,6 +107,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         systemLandscapeViews.add(view);
+        viewAdded(view);
 
         return view;
     }
@@ -132,6 +137,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         systemContextViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -160,6 +166,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         containerViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -188,6 +195,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         componentViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -214,6 +222,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         dynamicViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -249,6 +258,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         dynamicViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -285,6 +295,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         dynamicViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -311,6 +322,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         deploymentViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -339,6 +351,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         deploymentViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -368,6 +381,7 @@ public final class ViewSet {
         filteredView.setOrder(getNextOrder());
         filteredView.setViewSet(this);
         filteredViews.add(filteredView);
+        viewAdded(filteredView);
         return filteredView;
     }
 
@@ -393,6 +407,7 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         imageViews.add(view);
+        viewAdded(view);
         return view;
     }
 
@@ -422,9 +437,44 @@ public final class ViewSet {
         view.setOrder(getNextOrder());
         view.setViewSet(this);
         imageViews.add(view);
+        viewAdded(view);
         return view;
     }
 
+    /**
+     * Adds a listener, which will be notified when views are added or modified.
+     *
+     * @param listener      a ViewSetListener implementation
+     */
+    public void addListener(@Nonnull ViewSetListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("A listener must be specified.");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener      a ViewSetListener implementation
+     */
+    public void removeListener(ViewSetListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void viewAdded(View view) {
+        for (ViewSetListener listener : listeners) {
+            listener.viewAdded(view);
+        }
+    }
+
+    void viewModified(View view) {
+        for (ViewSetListener listener : listeners) {
+            listener.viewModified(view);
+        }
+    }
+
     private void assertThatTheViewKeyIsSpecifiedAndUnique(String key) {
         if (StringUtils.isNullOrEmpty(key)) {
             throw new IllegalArgumentException("A key must be specified.");
@@ -0,0 +1,26 @@
+package com.structurizr.view;
+
+/**
+ * A listener that is notified when views are added to a view set, or when the elements/relationships
+ * included in a view are changed.
+ * All methods have an empty default implementation, so implementations only need to override those they need.
+ */
+public interface ViewSetListener {
+
+    /**
+     * Called after a view has been added to the view set.
+     *
+     * @param view      the View that was added
+     */
+    default void viewAdded(View view) {
+    }
+
+    /**
+     * Called after an element or relationship has been added to or removed from a view.
+     *
+     * @param view      the View that was modified
+     */
+    default void viewModified(View view) {
+    }
+
+}
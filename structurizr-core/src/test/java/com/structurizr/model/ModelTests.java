@@ -3,7 +3,9 @@ package com.structurizr.model;
 import com.structurizr.AbstractWorkspaceTestBase;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -794,4 +796,84 @@ public class ModelTests extends AbstractWorkspaceTestBase {
         assertEquals("ContainerInstance://Default/Deployment Node B/Software System.Container[2]", containerInstanceB2.getCanonicalName());
     }
 
+    @Test
+    void addListener_ThrowsAnException_WhenANullListenerIsSpecified() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            model.addListener(null);
+        });
+    }
+
+    @Test
+    void listeners_AreNotifiedOfChanges() {
+        List<String> events = new ArrayList<>();
+        ModelListener listener = new ModelListener() {
+            @Override
+            public void elementAdded(Element element) {
+                events.add("elementAdded:" + element.getName());
+            }
+
+            @Override
+            public void elementRemoved(Element element) {
+                events.add("elementRemoved:" + element.getName());
+            }
+
+            @Override
+            public void elementModified(Element element) {
+                events.add("elementModified:" + element.getName());
+            }
+
+            @Override
+            public void relationshipAdded(Relationship relationship) {
+                events.add("relationshipAdded:" + relationship.getDescription());
+            }
+
+            @Override
+            public void relationshipRemoved(Relationship relationship) {
+                events.add("relationshipRemoved:" + relationship.getDescription());
+            }
+
+            @Override
+            public void relationshipModified(Relationship relationship) {
+                events.add("relationshipModified:" + relationship.getDescription());
+            }
+        };
+        model.addListener(listener);
+
+        Person user = model.addPerson("User", "Description");
+        SoftwareSystem softwareSystem = model.addSoftwareSystem("Software System", "Description");
+        Container container = softwareSystem.addContainer("Container", "Description", "Technology");
+        Relationship relationship = user.uses(softwareSystem, "Uses");
+        softwareSystem.setDescription("New description");
+        container.setTechnology("Java");
+        relationship.addTags("Tag");
+        relationship.addProperty("Name", "Value");
+
+        assertEquals(List.of(
+                "elementAdded:User",
+                "elementAdded:Software System",
+                "elementAdded:Container",
+                "relationshipAdded:Uses",
+                "elementModified:Software System",
+                "elementModified:Container",
+                "relationshipModified:Uses",
+                "relationshipModified:Uses"
+        ), events);
+
+        events.clear();
+        workspace.trim();
+
+        assertEquals(List.of(
+                "relationshipRemoved:Uses",
+                "elementRemoved:User",
+                "elementRemoved:Container",
+                "elementRemoved:Software System"
+        ), events);
+
+        events.clear();
+        model.removeListener(listener);
+        model.addPerson("Another User", "Description");
+
+        assertTrue(events.isEmpty());
+    }
+
 }
\ No newline at end of file
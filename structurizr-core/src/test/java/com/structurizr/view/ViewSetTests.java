@@ -4,8 +4,10 @@ import com.structurizr.Workspace;
 import com.structurizr.model.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -1076,4 +1078,42 @@ public class ViewSetTests {
         assertSame(ss3, workspace.getViews().getSystemContextViews().stream().filter(v -> v.getKey().equals("SystemContext-003")).findFirst().get().getSoftwareSystem());
     }
 
+    @Test
+    void listeners_AreNotifiedOfChanges() {
+        Workspace workspace = createWorkspace();
+        SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System");
+        Person person = workspace.getModel().getPersonWithName("Person");
+
+        List<String> events = new ArrayList<>();
+        workspace.getViews().addListener(new ViewSetListener() {
+            @Override
+            public void viewAdded(View view) {
+                events.add("viewAdded:" + view.getKey());
+            }
+
+            @Override
+            public void viewModified(View view) {
+                events.add("viewModified:" + view.getKey());
+            }
+        });
+
+        SystemContextView view = workspace.getViews().createSystemContextView(softwareSystem, "SystemContext", "Description");
+        assertEquals(List.of("viewAdded:SystemContext"), events);
+
+        events.clear();
+        view.add(person);
+        assertFalse(events.isEmpty());
+        assertTrue(events.stream().allMatch(e -> e.equals("viewModified:SystemContext")));
+
+        events.clear();
+        view.remove(person);
+        assertFalse(events.isEmpty());
+        assertTrue(events.stream().allMatch(e -> e.equals("viewModified:SystemContext")));
+
+        // removing an element that isn't in the view doesn't modify it
+        events.clear();
+        view.remove(person);
+        assertTrue(events.isEmpty());
+    }
+
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ final class ComponentFinderDslContext extends DslContext {
     ComponentFinderDslContext(StructurizrDslParser dslParser, Container container) {
         this.dslParser = dslParser;
         componentFinderBuilder.forContainer(container);
+
+        // containers often share classes/source (e.g. a modular monolith), so only read and parse them once per workspace
+        componentFinderBuilder.withSession(dslParser.getComponentFinderSession());
     }
 
     @Override
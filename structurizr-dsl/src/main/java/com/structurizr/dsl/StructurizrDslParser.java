@@ -1,6 +1,7 @@
 package com.structurizr.dsl;
 
 import com.structurizr.Workspace;
+import com.structurizr.component.ComponentFinderSession;
 import com.structurizr.model.*;
 import com.structurizr.util.StringUtils;
 import com.structurizr.view.*;
@@ -43,6 +44,7 @@ public final class StructurizrDslParser extends StructurizrDslTokens {
     private final Set<String> parsedTokens = new HashSet<>();
     private final IdentifiersRegister identifiersRegister;
     private final Map<String, NameValuePair> constantsAndVariables;
+    private final ComponentFinderSession componentFinderSession = new ComponentFinderSession();
 
     private final List<String> dslSourceLines = new ArrayList<>();
     private Workspace workspace;
@@ -1133,6 +1135,10 @@ public final class StructurizrDslParser extends StructurizrDslTokens {
         return identifiersRegister;
     }
 
+    ComponentFinderSession getComponentFinderSession() {
+        return componentFinderSession;
+    }
+
     void registerIdentifier(String identifier, Element element) {
         identifiersRegister.register(identifier, element);
         element.addProperty(STRUCTURIZR_DSL_IDENTIFIER_PROPERTY_NAME, identifiersRegister.findIdentifier(element));
@@ -0,0 +1,241 @@
+package com.structurizr.inspection;
+
+import com.structurizr.inspection.documentation.EmbeddedViewMissingInspection;
+import com.structurizr.inspection.documentation.EmbeddedViewWithGeneratedKeyInspection;
+import com.structurizr.inspection.model.*;
+import com.structurizr.inspection.view.*;
+import com.structurizr.inspection.workspace.WorkspaceScopeInspection;
+import com.structurizr.inspection.workspace.WorkspaceToolingInspection;
+import com.structurizr.model.*;
+import com.structurizr.view.ElementStyle;
+import com.structurizr.view.ModelView;
+import com.structurizr.view.View;
+import com.structurizr.view.ViewSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The default set of inspections, created once per inspector and shared between the items they inspect.
+ *
+ * The items to inspect are the workspace-wide inspections (see {@link Scope}), elements (along with their
+ * relationships) and views; {@link #getItems()} returns them in the order that violations are reported.
+ */
+final class DefaultInspections {
+
+    /**
+     * Inspections that apply to the workspace, model, or set of views as a whole (rather than to individual items).
+     */
+    enum Scope {
+        Workspace,
+        Model,
+        Views,
+        SystemContextViews,
+        ContainerViews,
+        ElementStyles
+    }
+
+    private final Inspector inspector;
+
+    private final PersonDescriptionInspection personDescriptionInspection;
+    private final SoftwareSystemDescriptionInspection softwareSystemDescriptionInspection;
+    private final SoftwareSystemDocumentationInspection softwareSystemDocumentationInspection;
+    private final SoftwareSystemDecisionsInspection softwareSystemDecisionsInspection;
+    private final ContainerDescriptionInspection containerDescriptionInspection;
+    private final ContainerTechnologyInspection containerTechnologyInspection;
+    private final ComponentDescriptionInspection componentDescriptionInspection;
+    private final ComponentTechnologyInspection componentTechnologyInspection;
+    private final DeploymentNodeDescriptionInspection deploymentNodeDescriptionInspection;
+    private final DeploymentNodeTechnologyInspection deploymentNodeTechnologyInspection;
+    private final EmptyDeploymentNodeInspection emptyDeploymentNodeInspection;
+    private final InfrastructureNodeDescriptionInspection infrastructureNodeDescriptionInspection;
+    private final InfrastructureNodeTechnologyInspection infrastructureNodeTechnologyInspection;
+    private final EmbeddedViewMissingInspection embeddedViewMissingInspection;
+    private final EmbeddedViewWithGeneratedKeyInspection embeddedViewWithGeneratedKeyInspection;
+    private final DisconnectedElementInspection disconnectedElementInspection;
+    private final ElementNotIncludedInAnyViewsInspection elementNotIncludedInAnyViewsInspection;
+    private final RelationshipDescriptionInspection relationshipDescriptionInspection;
+    private final RelationshipTechnologyInspection relationshipTechnologyInspection;
+
+    private final GeneratedKeyInspection generatedKeyInspection;
+    private final EmptyViewInspection emptyViewInspection;
+    private final ManualLayoutInspection manualLayoutInspection;
+    private final ElementStyleMetadataInspection elementStyleMetadataInspection;
+
+    DefaultInspections(Inspector inspector) {
+        this.inspector = inspector;
+
+        personDescriptionInspection = new PersonDescriptionInspection(inspector);
+        softwareSystemDescriptionInspection = new SoftwareSystemDescriptionInspection(inspector);
+        softwareSystemDocumentationInspection = new SoftwareSystemDocumentationInspection(inspector);
+        softwareSystemDecisionsInspection = new SoftwareSystemDecisionsInspection(inspector);
+        containerDescriptionInspection = new ContainerDescriptionInspection(inspector);
+        containerTechnologyInspection = new ContainerTechnologyInspection(inspector);
+        componentDescriptionInspection = new ComponentDescriptionInspection(inspector);
+        componentTechnologyInspection = new ComponentTechnologyInspection(inspector);
+        deploymentNodeDescriptionInspection = new DeploymentNodeDescriptionInspection(inspector);
+        deploymentNodeTechnologyInspection = new DeploymentNodeTechnologyInspection(inspector);
+        emptyDeploymentNodeInspection = new EmptyDeploymentNodeInspection(inspector);
+        infrastructureNodeDescriptionInspection = new InfrastructureNodeDescriptionInspection(inspector);
+        infrastructureNodeTechnologyInspection = new InfrastructureNodeTechnologyInspection(inspector);
+        embeddedViewMissingInspection = new EmbeddedViewMissingInspection(inspector);
+        embeddedViewWithGeneratedKeyInspection = new EmbeddedViewWithGeneratedKeyInspection(inspector);
+        disconnectedElementInspection = new DisconnectedElementInspection(inspector);
+        elementNotIncludedInAnyViewsInspection = new ElementNotIncludedInAnyViewsInspection(inspector);
+        relationshipDescriptionInspection = new RelationshipDescriptionInspection(inspector);
+        relationshipTechnologyInspection = new RelationshipTechnologyInspection(inspector);
+
+        generatedKeyInspection = new GeneratedKeyInspection(inspector);
+        emptyViewInspection = new EmptyViewInspection(inspector);
+        manualLayoutInspection = new ManualLayoutInspection(inspector);
+        elementStyleMetadataInspection = new ElementStyleMetadataInspection(inspector);
+    }
+
+    DisconnectedElementInspection getDisconnectedElementInspection() {
+        return disconnectedElementInspection;
+    }
+
+    ElementNotIncludedInAnyViewsInspection getElementNotIncludedInAnyViewsInspection() {
+        return elementNotIncludedInAnyViewsInspection;
+    }
+
+    /**
+     * Gets the items to inspect, in the order that violations are reported.
+     *
+     * @return  a List of Scope, Element and View objects
+     */
+    List<Object> getItems() {
+        ViewSet views = inspector.getWorkspace().getViews();
+        List<Object> items = new ArrayList<>();
+
+        items.add(Scope.Workspace);
+        items.add(Scope.Model);
+        items.addAll(inspector.getWorkspace().getModel().getElements());
+
+        items.add(Scope.Views);
+        items.addAll(views.getCustomViews());
+        items.addAll(views.getSystemLandscapeViews());
+        items.add(Scope.SystemContextViews);
+        items.addAll(views.getSystemContextViews());
+        items.add(Scope.ContainerViews);
+        items.addAll(views.getContainerViews());
+        items.addAll(views.getComponentViews());
+        items.addAll(views.getDynamicViews());
+        items.addAll(views.getDeploymentViews());
+        items.addAll(views.getFilteredViews());
+        items.addAll(views.getImageViews());
+        items.add(Scope.ElementStyles);
+
+        return items;
+    }
+
+    /**
+     * Runs the inspections for a single item.
+     *
+     * @param item      a Scope, Element or View object
+     * @return  a List of the results, with null representing an inspection that found no violation
+     */
+    List<Violation> inspect(Object item) {
+        if (item instanceof Scope) {
+            return inspect((Scope)item);
+        } else if (item instanceof Element) {
+            return inspect((Element)item);
+        } else if (item instanceof ModelView) {
+            ModelView view = (ModelView)item;
+            return Arrays.asList(
+                    generatedKeyInspection.run(view),
+                    emptyViewInspection.run(view),
+                    manualLayoutInspection.run(view)
+            );
+        } else if (item instanceof View) {
+            return Collections.singletonList(generatedKeyInspection.run((View)item));
+        }
+
+        throw new IllegalArgumentException("Unable to inspect " + item + ".");
+    }
+
+    private List<Violation> inspect(Scope scope) {
+        switch (scope) {
+            case Workspace:
+                return Arrays.asList(
+                        new WorkspaceToolingInspection(inspector).run(),
+                        new WorkspaceScopeInspection(inspector).run(),
+                        embeddedViewMissingInspection.run(inspector.getWorkspace()),
+                        embeddedViewWithGeneratedKeyInspection.run(inspector.getWorkspace())
+                );
+            case Model:
+                return Arrays.asList(
+                        new EmptyModelInspection(inspector).run(),
+                        new MultipleSoftwareSystemsDetailedInspection(inspector).run()
+                );
+            case Views:
+                return Collections.singletonList(new EmptyViewsInspection(inspector).run());
+            case SystemContextViews:
+                return Collections.singletonList(new SystemContextViewsForMultipleSoftwareSystemsInspection(inspector).run());
+            case ContainerViews:
+                return Collections.singletonList(new ContainerViewsForMultipleSoftwareSystemsInspection(inspector).run());
+            case ElementStyles:
+                List<Violation> violations = new ArrayList<>();
+                for (ElementStyle elementStyle : inspector.getWorkspace().getViews().getConfiguration().getStyles().getElements()) {
+                    violations.add(elementStyleMetadataInspection.run(elementStyle));
+                }
+                return violations;
+            default:
+                throw new IllegalArgumentException("Unable to inspect " + scope + ".");
+        }
+    }
+
+    private List<Violation> inspect(Element element) {
+        List<Violation> violations = new ArrayList<>();
+
+        if (element instanceof Person) {
+            violations.add(personDescriptionInspection.run(element));
+        }
+
+        if (element instanceof SoftwareSystem) {
+            violations.add(softwareSystemDescriptionInspection.run(element));
+            violations.add(softwareSystemDocumentationInspection.run(element));
+            violations.add(softwareSystemDecisionsInspection.run(element));
+            violations.add(embeddedViewMissingInspection.run((SoftwareSystem)element));
+            violations.add(embeddedViewWithGeneratedKeyInspection.run((SoftwareSystem)element));
+        }
+
+        if (element instanceof Container) {
+            violations.add(containerDescriptionInspection.run(element));
+            violations.add(containerTechnologyInspection.run(element));
+            violations.add(embeddedViewMissingInspection.run((Container)element));
+            violations.add(embeddedViewWithGeneratedKeyInspection.run((Container)element));
+        }
+
+        if (element instanceof Component) {
+            violations.add(componentDescriptionInspection.run(element));
+            violations.add(componentTechnologyInspection.run(element));
+            violations.add(embeddedViewMissingInspection.run((Component)element));
+            violations.add(embeddedViewWithGeneratedKeyInspection.run((Component)element));
+        }
+
+        if (element instanceof DeploymentNode) {
+            violations.add(deploymentNodeDescriptionInspection.run(element));
+            violations.add(deploymentNodeTechnologyInspection.run(element));
+            violations.add(emptyDeploymentNodeInspection.run(element));
+        }
+
+        if (element instanceof InfrastructureNode) {
+            violations.add(infrastructureNodeDescriptionInspection.run(element));
+            violations.add(infrastructureNodeTechnologyInspection.run(element));
+        }
+
+        violations.add(disconnectedElementInspection.run(element));
+        violations.add(elementNotIncludedInAnyViewsInspection.run(element));
+
+        for (Relationship relationship : element.getRelationships()) {
+            violations.add(relationshipDescriptionInspection.run(relationship));
+            violations.add(relationshipTechnologyInspection.run(relationship));
+        }
+
+        return violations;
+    }
+
+}
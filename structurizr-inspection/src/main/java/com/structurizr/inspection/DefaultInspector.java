@@ -1,148 +1,65 @@
 package com.structurizr.inspection;
 
 import com.structurizr.Workspace;
-import com.structurizr.inspection.documentation.EmbeddedViewMissingInspection;
-import com.structurizr.inspection.documentation.EmbeddedViewWithGeneratedKeyInspection;
-import com.structurizr.inspection.model.*;
-import com.structurizr.inspection.view.*;
-import com.structurizr.inspection.workspace.WorkspaceScopeInspection;
-import com.structurizr.inspection.workspace.WorkspaceToolingInspection;
-import com.structurizr.model.*;
-import com.structurizr.view.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the default set of inspections against a workspace.
+ *
+ * Each inspection is created once and reused for every element/relationship/view it inspects.
+ * Optionally, elements (along with their relationships) and views can be inspected in parallel; violations are
+ * always reported in the same order, regardless of how the work was divided between threads. Inspecting in parallel
+ * requires the inspections and the severity strategy to be thread-safe (the default inspections and
+ * {@link PropertyBasedSeverityStrategy} are), and the workspace must not be modified while it is being inspected.
+ * See {@link IncrementalInspector} for an inspector that can be kept up to date as the workspace is changed.
+ */
 public class DefaultInspector extends Inspector {
 
-    public DefaultInspector(Workspace workspace) {
-        super(workspace);
+    private final SeverityStrategy severityStrategy = new PropertyBasedSeverityStrategy();
 
-        runWorkspaceInspections();
-        runModelInspections();
-        runViewInspections();
-    }
-
-    private void runWorkspaceInspections() {
-        add(new WorkspaceToolingInspection(this).run());
-        add(new WorkspaceScopeInspection(this).run());
-        add(new EmbeddedViewMissingInspection(this).run(getWorkspace()));
-        add(new EmbeddedViewWithGeneratedKeyInspection(this).run(getWorkspace()));
+    public DefaultInspector(Workspace workspace) {
+        this(workspace, false);
     }
 
-    private void runModelInspections() {
-        add(new EmptyModelInspection(this).run());
-        add(new MultipleSoftwareSystemsDetailedInspection(this).run());
-        ElementNotIncludedInAnyViewsInspection elementNotIncludedInAnyViewsCheck = new ElementNotIncludedInAnyViewsInspection(this);
-        DisconnectedElementInspection disconnectedElementCheck = new DisconnectedElementInspection(this);
-        for (Element element : getWorkspace().getModel().getElements()) {
-            if (element instanceof Person) {
-                add(new PersonDescriptionInspection(this).run(element));
-            }
-
-            if (element instanceof SoftwareSystem) {
-                add(new SoftwareSystemDescriptionInspection(this).run(element));
-                add(new SoftwareSystemDocumentationInspection(this).run(element));
-                add(new SoftwareSystemDecisionsInspection(this).run(element));
-                add(new EmbeddedViewMissingInspection(this).run((SoftwareSystem)element));
-                add(new EmbeddedViewWithGeneratedKeyInspection(this).run((SoftwareSystem)element));
-            }
-
-            if (element instanceof Container) {
-                add(new ContainerDescriptionInspection(this).run(element));
-                add(new ContainerTechnologyInspection(this).run(element));
-                add(new EmbeddedViewMissingInspection(this).run((Container)element));
-                add(new EmbeddedViewWithGeneratedKeyInspection(this).run((Container)element));
-            }
-
-            if (element instanceof Component) {
-                add(new ComponentDescriptionInspection(this).run(element));
-                add(new ComponentTechnologyInspection(this).run(element));
-                add(new EmbeddedViewMissingInspection(this).run((Component)element));
-                add(new EmbeddedViewWithGeneratedKeyInspection(this).run((Component)element));
-            }
-
-            if (element instanceof DeploymentNode) {
-                add(new DeploymentNodeDescriptionInspection(this).run(element));
-                add(new DeploymentNodeTechnologyInspection(this).run(element));
-                add(new EmptyDeploymentNodeInspection(this).run(element));
-            }
-
-            if (element instanceof InfrastructureNode) {
-                add(new InfrastructureNodeDescriptionInspection(this).run(element));
-                add(new InfrastructureNodeTechnologyInspection(this).run(element));
-            }
-
-            add(disconnectedElementCheck.run(element));
-            add(elementNotIncludedInAnyViewsCheck.run(element));
+    /**
+     * Creates an inspector, and inspects the workspace.
+     *
+     * @param workspace     the Workspace to inspect
+     * @param parallel      true to inspect elements and views in parallel, false to inspect them sequentially
+     */
+    public DefaultInspector(Workspace workspace, boolean parallel) {
+        super(workspace);
 
-            for (Relationship relationship : element.getRelationships()) {
-                add(new RelationshipDescriptionInspection(this).run(relationship));
-                add(new RelationshipTechnologyInspection(this).run(relationship));
-            }
-        }
+        DefaultInspections inspections = new DefaultInspections(this);
+        inspect(inspections.getItems(), inspections::inspect, parallel);
     }
 
-    private void runViewInspections() {
-        add(new EmptyViewsInspection(this).run());
-
-        for (CustomView view : getWorkspace().getViews().getCustomViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        for (SystemLandscapeView view : getWorkspace().getViews().getSystemLandscapeViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        add(new SystemContextViewsForMultipleSoftwareSystemsInspection(this).run());
-        for (SystemContextView view : getWorkspace().getViews().getSystemContextViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        add(new ContainerViewsForMultipleSoftwareSystemsInspection(this).run());
-        for (ContainerView view : getWorkspace().getViews().getContainerViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        for (ComponentView view : getWorkspace().getViews().getComponentViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        for (DynamicView view : getWorkspace().getViews().getDynamicViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        for (DeploymentView view : getWorkspace().getViews().getDeploymentViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-            add(new EmptyViewInspection(this).run(view));
-            add(new ManualLayoutInspection(this).run(view));
-        }
-
-        for (FilteredView view : getWorkspace().getViews().getFilteredViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-        }
-
-        for (ImageView view : getWorkspace().getViews().getImageViews()) {
-            add(new GeneratedKeyInspection(this).run(view));
-        }
-
-        for (ElementStyle elementStyle : getWorkspace().getViews().getConfiguration().getStyles().getElements()) {
-            add(new ElementStyleMetadataInspection(this).run(elementStyle));
+    /**
+     * Runs the inspections for each item (optionally in parallel), and then adds the results
+     * in the iteration order of the items.
+     */
+    private <T> void inspect(Collection<T> items, Function<? super T, List<Violation>> inspections, boolean parallel) {
+        List<T> list = new ArrayList<>(items);
+        List<List<Violation>> results = (parallel ? list.parallelStream() : list.stream())
+                .map(inspections)
+                .collect(Collectors.toList());
+
+        for (List<Violation> violations : results) {
+            for (Violation violation : violations) {
+                add(violation);
+            }
         }
     }
 
     @Override
     public SeverityStrategy getSeverityStrategy() {
-        return new PropertyBasedSeverityStrategy();
+        // a single instance per inspector, so that severities are resolved using the same cache
+        return severityStrategy;
     }
 
 }
\ No newline at end of file
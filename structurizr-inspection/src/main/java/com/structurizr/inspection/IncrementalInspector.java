@@ -0,0 +1,235 @@
+package com.structurizr.inspection;
+
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Documentable;
+import com.structurizr.model.*;
+import com.structurizr.view.ModelView;
+import com.structurizr.view.View;
+import com.structurizr.view.ViewSetListener;
+
+import java.util.*;
+
+/**
+ * Runs the same inspections as {@link DefaultInspector}, but keeps the violations up to date as the workspace
+ * is changed, rather than inspecting the whole workspace again after every change.
+ *
+ * The inspector listens for changes to the model and views (see {@link ModelListener} and {@link ViewSetListener}),
+ * and records which elements and views are affected by each change; {@link #update()} then re-runs the inspections
+ * for just those items (along with the workspace-wide inspections), and returns the violations that have been
+ * added and removed. {@link #getViolations()} returns the violations as of the last update, in the same order as
+ * {@link DefaultInspector}.
+ *
+ * Changes that aren't reported by the model/views (e.g. to documentation, terminology, or model/workspace
+ * properties) can be reported by calling {@link #elementModified(Element)}, or by creating a new inspector.
+ * This class is not thread-safe; changes should be made from a single thread.
+ */
+public class IncrementalInspector extends Inspector implements ModelListener, ViewSetListener {
+
+    private final SeverityStrategy severityStrategy = new PropertyBasedSeverityStrategy();
+    private final DefaultInspections inspections;
+
+    private final Map<Object, List<Violation>> violationsByItem = new HashMap<>();
+    private final Set<Object> changedItems = new LinkedHashSet<>();
+    private final Set<Element> modifiedElements = new LinkedHashSet<>();
+
+    public IncrementalInspector(Workspace workspace) {
+        super(workspace);
+
+        inspections = new DefaultInspections(this);
+        for (Object item : inspections.getItems()) {
+            violationsByItem.put(item, inspections.inspect(item));
+        }
+
+        workspace.getModel().addListener(this);
+        workspace.getViews().addListener(this);
+    }
+
+    @Override
+    public void elementAdded(Element element) {
+        changedItems.add(element);
+        if (element.getParent() != null) {
+            // e.g. a deployment node is no longer empty
+            changedItems.add(element.getParent());
+        }
+    }
+
+    @Override
+    public void elementRemoved(Element element) {
+        changedItems.add(element);
+        if (element.getParent() != null) {
+            changedItems.add(element.getParent());
+        }
+    }
+
+    @Override
+    public void elementModified(Element element) {
+        modifiedElements.add(element);
+    }
+
+    @Override
+    public void relationshipAdded(Relationship relationship) {
+        inspections.getDisconnectedElementInspection().relationshipAdded(relationship);
+        changedItems.add(relationship.getSource());
+        changedItems.add(relationship.getDestination());
+    }
+
+    @Override
+    public void relationshipRemoved(Relationship relationship) {
+        inspections.getDisconnectedElementInspection().relationshipRemoved(relationship);
+        changedItems.add(relationship.getSource());
+        changedItems.add(relationship.getDestination());
+    }
+
+    @Override
+    public void relationshipModified(Relationship relationship) {
+        // relationships are inspected along with their source element
+        changedItems.add(relationship.getSource());
+    }
+
+    @Override
+    public void viewAdded(View view) {
+        viewModified(view);
+
+        // documentation may embed the new view
+        for (Element element : getWorkspace().getModel().getElements()) {
+            if (element instanceof Documentable && !((Documentable)element).getDocumentation().isEmpty()) {
+                changedItems.add(element);
+            }
+        }
+    }
+
+    @Override
+    public void viewModified(View view) {
+        changedItems.add(view);
+
+        if (view instanceof ModelView) {
+            for (String elementId : inspections.getElementNotIncludedInAnyViewsInspection().viewChanged((ModelView)view)) {
+                Element element = getWorkspace().getModel().getElement(elementId);
+                if (element != null) {
+                    changedItems.add(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-runs the inspections for the elements and views affected by changes since the last update.
+     *
+     * @return  a ViolationDelta describing the violations that have been added and removed
+     */
+    public ViolationDelta update() {
+        if (!modifiedElements.isEmpty()) {
+            Set<Element> elements = new HashSet<>();
+            for (Element element : modifiedElements) {
+                addWithDescendants(element, elements);
+            }
+            changedItems.addAll(elements);
+
+            // violations for relationships include the (canonical) name of the destination element
+            for (Relationship relationship : getWorkspace().getModel().getRelationships()) {
+                if (elements.contains(relationship.getDestination())) {
+                    changedItems.add(relationship.getSource());
+                }
+            }
+        }
+
+        // these are cheap, and depend upon the workspace as a whole
+        changedItems.addAll(EnumSet.allOf(DefaultInspections.Scope.class));
+
+        ViolationDelta delta = new ViolationDelta();
+        for (Object item : changedItems) {
+            List<Violation> previousViolations = violationsByItem.remove(item);
+            List<Violation> violations = Collections.emptyList();
+            if (exists(item)) {
+                violations = inspections.inspect(item);
+                violationsByItem.put(item, violations);
+            }
+
+            delta.add(previousViolations != null ? previousViolations : Collections.emptyList(), violations);
+        }
+
+        changedItems.clear();
+        modifiedElements.clear();
+
+        return delta;
+    }
+
+    private boolean exists(Object item) {
+        if (item instanceof Element) {
+            Element element = (Element)item;
+            return getWorkspace().getModel().getElement(element.getId()) == element;
+        }
+
+        // views and workspace-wide inspections can't be removed
+        return true;
+    }
+
+    private void addWithDescendants(Element element, Set<Element> elements) {
+        // severities can be set on parent elements, and canonical names include the names of parent elements
+        elements.add(element);
+
+        if (element instanceof SoftwareSystem) {
+            for (Container container : ((SoftwareSystem)element).getContainers()) {
+                addWithDescendants(container, elements);
+            }
+        } else if (element instanceof Container) {
+            elements.addAll(((Container)element).getComponents());
+        } else if (element instanceof DeploymentNode) {
+            DeploymentNode deploymentNode = (DeploymentNode)element;
+            for (DeploymentNode child : deploymentNode.getChildren()) {
+                addWithDescendants(child, elements);
+            }
+            elements.addAll(deploymentNode.getInfrastructureNodes());
+            elements.addAll(deploymentNode.getSoftwareSystemInstances());
+            elements.addAll(deploymentNode.getContainerInstances());
+        }
+    }
+
+    /**
+     * Gets the violations as of the last update.
+     *
+     * @return  a List of Violation objects
+     */
+    @Override
+    public List<Violation> getViolations() {
+        List<Violation> violations = new ArrayList<>();
+        for (Object item : inspections.getItems()) {
+            for (Violation violation : violationsByItem.getOrDefault(item, Collections.emptyList())) {
+                if (violation != null) {
+                    violations.add(violation);
+                }
+            }
+        }
+
+        return violations;
+    }
+
+    /**
+     * Gets the number of inspections that were run, as of the last update.
+     *
+     * @return  the number of inspections
+     */
+    @Override
+    public int getNumberOfInspections() {
+        int numberOfInspections = 0;
+        for (List<Violation> violations : violationsByItem.values()) {
+            numberOfInspections += violations.size();
+        }
+
+        return numberOfInspections;
+    }
+
+    /**
+     * Stops listening for changes to the workspace.
+     */
+    public void close() {
+        getWorkspace().getModel().removeListener(this);
+        getWorkspace().getViews().removeListener(this);
+    }
+
+    @Override
+    public SeverityStrategy getSeverityStrategy() {
+        return severityStrategy;
+    }
+
+}
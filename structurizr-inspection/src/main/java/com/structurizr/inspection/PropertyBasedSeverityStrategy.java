@@ -11,14 +11,26 @@ import com.structurizr.view.View;
 import com.structurizr.view.ViewSet;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A severity strategy that reads severities from properties (e.g. "structurizr.inspection.model.component.description")
+ * on the workspace, model, views configuration, elements and relationships.
+ *
+ * The property names to look for are generated once per inspection type (and source/destination element type,
+ * for relationships) and cached, since they only depend upon the type; property values are always read from the
+ * property holders, so changes to properties are picked up immediately.
+ */
 public class PropertyBasedSeverityStrategy implements SeverityStrategy {
 
     private static final String STRUCTURIZR_INSPECTION_PREFIX = "structurizr.inspection.";
 
+    private final Map<String, List<String>> propertyNamesByType = new ConcurrentHashMap<>();
+    private final Map<String, String> relationshipTypes = new ConcurrentHashMap<>();
+
     public PropertyBasedSeverityStrategy() {
     }
 
@@ -73,14 +85,16 @@ public class PropertyBasedSeverityStrategy implements SeverityStrategy {
         }
 
         String allRelationshipsType = inspection.getType();
-        String specificRelationshipType = inspection.getType();
 
         // convert model.relationship.description to model.relationship[sourceType->destinationType].description
         String sourceType = relationship.getSource().getClass().getSimpleName().toLowerCase();
         String destinationType = relationship.getDestination().getClass().getSimpleName().toLowerCase();
-        specificRelationshipType = allRelationshipsType.replaceFirst(
-                "\\.relationship\\.",
-                String.format(".relationship[%s->%s].", sourceType, destinationType)
+        String specificRelationshipType = relationshipTypes.computeIfAbsent(
+                allRelationshipsType + "/" + sourceType + "/" + destinationType,
+                k -> allRelationshipsType.replaceFirst(
+                        "\\.relationship\\.",
+                        String.format(".relationship[%s->%s].", sourceType, destinationType)
+                )
         );
 
         Severity severity = getSeverityFromProperties(specificRelationshipType, inspection.getWorkspace(), inspection.getWorkspace().getModel(), source.getParent(), source, linkedRelationship, relationship);
@@ -92,15 +106,19 @@ public class PropertyBasedSeverityStrategy implements SeverityStrategy {
     }
 
     protected Severity getSeverityFromProperties(String type, PropertyHolder... propertyHolders) {
-        List<String> types = generatePropertyNames(type);
-        List<PropertyHolder> reversedPropertyHolders = Arrays.asList(propertyHolders);
-        Collections.reverse(reversedPropertyHolders);
+        List<String> types = propertyNamesByType.computeIfAbsent(type, this::generatePropertyNames);
 
-        for (PropertyHolder propertyHolder : reversedPropertyHolders) {
+        // the most specific property holder (i.e. the last) wins
+        for (int i = propertyHolders.length - 1; i >= 0; i--) {
+            PropertyHolder propertyHolder = propertyHolders[i];
             if (propertyHolder != null) {
-                for (String t : types) {
-                    if (propertyHolder.getProperties().containsKey(t)) {
-                        return Severity.valueOf(propertyHolder.getProperties().get(t).toUpperCase());
+                Map<String, String> properties = propertyHolder.getProperties();
+                if (!properties.isEmpty()) {
+                    for (String t : types) {
+                        String severity = properties.get(t);
+                        if (severity != null) {
+                            return Severity.valueOf(severity.toUpperCase());
+                        }
                     }
                 }
             }
@@ -0,0 +1,84 @@
+package com.structurizr.inspection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The violations that have been added and removed as the result of changes to a workspace
+ * (see {@link IncrementalInspector#update()}).
+ */
+public final class ViolationDelta {
+
+    private final List<Violation> added = new ArrayList<>();
+    private final List<Violation> removed = new ArrayList<>();
+
+    ViolationDelta() {
+    }
+
+    /**
+     * Gets the violations that have been found since the last update.
+     *
+     * @return  a List of Violation objects (empty if there are none)
+     */
+    public List<Violation> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    /**
+     * Gets the violations that no longer apply since the last update.
+     *
+     * @return  a List of Violation objects (empty if there are none)
+     */
+    public List<Violation> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Determines whether any violations have been added or removed.
+     *
+     * @return  true if no violations have been added or removed, false otherwise
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    void add(List<Violation> previousViolations, List<Violation> violations) {
+        // violations are compared by their type, severity and message
+        List<String> previous = new ArrayList<>();
+        for (Violation violation : previousViolations) {
+            previous.add(violation != null ? violation.toString() : null);
+        }
+
+        List<String> current = new ArrayList<>();
+        for (Violation violation : violations) {
+            current.add(violation != null ? violation.toString() : null);
+        }
+
+        for (Violation violation : violations) {
+            if (violation != null && !previous.remove(violation.toString())) {
+                added.add(violation);
+            }
+        }
+
+        for (Violation violation : previousViolations) {
+            if (violation != null && !current.remove(violation.toString())) {
+                removed.add(violation);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        for (Violation violation : added) {
+            buf.append("+ ").append(violation).append(System.lineSeparator());
+        }
+        for (Violation violation : removed) {
+            buf.append("- ").append(violation).append(System.lineSeparator());
+        }
+
+        return buf.toString();
+    }
+
+}
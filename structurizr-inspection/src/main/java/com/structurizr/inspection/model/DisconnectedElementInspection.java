@@ -6,22 +6,42 @@ import com.structurizr.model.DeploymentNode;
 import com.structurizr.model.Element;
 import com.structurizr.model.Relationship;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 
 public class DisconnectedElementInspection extends AbstractElementInspection {
 
-    private final Set<String> elementsWithRelationships = new HashSet<>();
+    // the number of relationships to/from each element, by element ID
+    private final Map<String, Integer> numberOfRelationships = new HashMap<>();
 
     public DisconnectedElementInspection(Inspector inspector) {
         super(inspector);
 
         for (Relationship relationship : getWorkspace().getModel().getRelationships()) {
-            elementsWithRelationships.add(relationship.getSourceId());
-            elementsWithRelationships.add(relationship.getDestinationId());
+            relationshipAdded(relationship);
         }
     }
 
+    /**
+     * Updates this inspection after a relationship has been added to the model.
+     *
+     * @param relationship      the Relationship that was added
+     */
+    public void relationshipAdded(Relationship relationship) {
+        numberOfRelationships.merge(relationship.getSourceId(), 1, Integer::sum);
+        numberOfRelationships.merge(relationship.getDestinationId(), 1, Integer::sum);
+    }
+
+    /**
+     * Updates this inspection after a relationship has been removed from the model.
+     *
+     * @param relationship      the Relationship that was removed
+     */
+    public void relationshipRemoved(Relationship relationship) {
+        numberOfRelationships.computeIfPresent(relationship.getSourceId(), (id, n) -> n > 1 ? n - 1 : null);
+        numberOfRelationships.computeIfPresent(relationship.getDestinationId(), (id, n) -> n > 1 ? n - 1 : null);
+    }
+
     @Override
     protected Violation inspect(Element element) {
         if (element instanceof DeploymentNode) {
@@ -29,7 +49,7 @@ public class DisconnectedElementInspection extends AbstractElementInspection {
             return noViolation();
         }
 
-        if (!elementsWithRelationships.contains(element.getId())) {
+        if (!numberOfRelationships.containsKey(element.getId())) {
             return violation("The " + terminologyFor(element).toLowerCase() + " \"" + nameOf(element) + "\" is disconnected - add a relationship to/from it, or consider removing it from the model.");
         }
 
@@ -41,4 +61,4 @@ public class DisconnectedElementInspection extends AbstractElementInspection {
         return "model.element.disconnected";
     }
 
-}
\ No newline at end of file
+}
@@ -7,29 +7,64 @@ import com.structurizr.view.ElementView;
 import com.structurizr.view.ModelView;
 import com.structurizr.view.View;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class ElementNotIncludedInAnyViewsInspection extends AbstractElementInspection {
 
-    private final Set<String> elementsInViews = new HashSet<>();
+    // the IDs of the elements included on each view, and the number of views that each element is included on
+    private final Map<ModelView, Set<String>> elementsByView = new HashMap<>();
+    private final Map<String, Integer> numberOfViews = new HashMap<>();
 
     public ElementNotIncludedInAnyViewsInspection(Inspector inspector) {
         super(inspector);
 
         for (View view : getWorkspace().getViews().getViews()) {
             if (view instanceof ModelView) {
-                ModelView modelView = (ModelView)view;
-                for (ElementView elementView : modelView.getElements()) {
-                    elementsInViews.add(elementView.getId());
-                }
+                viewChanged((ModelView)view);
             }
         }
     }
 
+    /**
+     * Updates this inspection after a view has been added, or the elements included on a view have changed.
+     *
+     * @param view      the ModelView that was added/changed
+     * @return  the IDs of the elements that have been added to or removed from the view
+     */
+    public Set<String> viewChanged(ModelView view) {
+        Set<String> elementIds = new HashSet<>();
+        for (ElementView elementView : view.getElements()) {
+            elementIds.add(elementView.getId());
+        }
+
+        Set<String> previousElementIds = elementsByView.getOrDefault(view, new HashSet<>());
+        elementsByView.put(view, elementIds);
+
+        Set<String> changes = new LinkedHashSet<>();
+        for (String elementId : elementIds) {
+            if (!previousElementIds.contains(elementId)) {
+                numberOfViews.merge(elementId, 1, Integer::sum);
+                changes.add(elementId);
+            }
+        }
+
+        for (String elementId : previousElementIds) {
+            if (!elementIds.contains(elementId)) {
+                numberOfViews.computeIfPresent(elementId, (id, n) -> n > 1 ? n - 1 : null);
+                changes.add(elementId);
+            }
+        }
+
+        return changes;
+    }
+
     @Override
     protected Violation inspect(Element element) {
-        if (!elementsInViews.contains(element.getId())) {
+        if (!numberOfViews.containsKey(element.getId())) {
             return violation("The " + terminologyFor(element) + " named \"" + element.getName() + "\" is not included on any views - add it to a view.");
         }
 
@@ -41,4 +76,4 @@ public class ElementNotIncludedInAnyViewsInspection extends AbstractElementInspe
         return "model.element.noview";
     }
 
-}
\ No newline at end of file
+}
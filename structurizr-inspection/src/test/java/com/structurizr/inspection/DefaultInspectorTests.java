@@ -2,11 +2,15 @@ package com.structurizr.inspection;
 
 import com.structurizr.Workspace;
 import com.structurizr.dsl.StructurizrDslParser;
+import com.structurizr.model.Element;
+import com.structurizr.model.SoftwareSystem;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -77,4 +81,36 @@ public class DefaultInspectorTests {
         assertEquals(28, violations.stream().filter(v -> v.getSeverity() == Severity.ERROR).count());
     }
 
+    @Test
+    void test_ViolationsAreReportedInADeterministicOrder_WhenInspectingInParallel() {
+        Workspace workspace = new Workspace("Name", "Description");
+        for (int i = 1; i <= 500; i++) {
+            SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System " + i);
+            if (i > 1) {
+                workspace.getModel().getSoftwareSystemWithName("Software System " + (i-1)).uses(softwareSystem, "");
+            }
+        }
+
+        DefaultInspector inspector1 = new DefaultInspector(workspace);
+        DefaultInspector inspector2 = new DefaultInspector(workspace, true);
+
+        // per software system: description, documentation, decisions, 2x embedded views, disconnected, no view
+        // per relationship: description, technology
+        assertEquals(9 + (500 * 7) + (499 * 2), inspector1.getNumberOfInspections());
+        assertEquals(inspector1.getNumberOfInspections(), inspector2.getNumberOfInspections());
+        assertEquals(
+                inspector1.getViolations().stream().map(Violation::toString).collect(Collectors.toList()),
+                inspector2.getViolations().stream().map(Violation::toString).collect(Collectors.toList()));
+
+        // elements are inspected in the order returned by the model
+        List<String> expected = new ArrayList<>();
+        for (Element element : workspace.getModel().getElements()) {
+            expected.add("The software system \"" + element.getName() + "\" is missing a description.");
+        }
+        assertEquals(expected, inspector1.getViolations().stream()
+                .filter(v -> v.getType().equals("model.softwaresystem.description"))
+                .map(Violation::getMessage)
+                .collect(Collectors.toList()));
+    }
+
 }
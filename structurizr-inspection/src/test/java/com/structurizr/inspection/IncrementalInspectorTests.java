@@ -0,0 +1,114 @@
+package com.structurizr.inspection;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.*;
+import com.structurizr.view.ContainerView;
+import com.structurizr.view.SystemContextView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalInspectorTests {
+
+    private List<String> toString(List<Violation> violations) {
+        return violations.stream().map(Violation::toString).collect(Collectors.toList());
+    }
+
+    private void assertSameAsDefaultInspector(Workspace workspace, IncrementalInspector inspector) {
+        DefaultInspector defaultInspector = new DefaultInspector(workspace);
+
+        assertEquals(toString(defaultInspector.getViolations()), toString(inspector.getViolations()));
+        assertEquals(defaultInspector.getNumberOfInspections(), inspector.getNumberOfInspections());
+    }
+
+    @Test
+    void test_InitialViolationsAreTheSameAsTheDefaultInspector() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        softwareSystem.addContainer("Container");
+        user.uses(softwareSystem, "Uses");
+
+        IncrementalInspector inspector = new IncrementalInspector(workspace);
+
+        assertSameAsDefaultInspector(workspace, inspector);
+    }
+
+    @Test
+    void update_ReturnsTheViolationsThatHaveBeenAddedAndRemoved() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User", "A user.");
+        IncrementalInspector inspector = new IncrementalInspector(workspace);
+
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        ViolationDelta delta = inspector.update();
+
+        assertEquals(List.of(
+                "model.softwaresystem.description | ERROR | The software system \"Software System\" is missing a description.",
+                "model.element.disconnected | ERROR | The software system \"Software System\" is disconnected - add a relationship to/from it, or consider removing it from the model.",
+                "model.element.noview | ERROR | The software system named \"Software System\" is not included on any views - add it to a view."
+        ), toString(delta.getAdded()));
+        assertTrue(delta.getRemoved().isEmpty());
+
+        user.uses(softwareSystem, "Uses", "HTTPS");
+        softwareSystem.setDescription("Description");
+        delta = inspector.update();
+
+        assertTrue(delta.getAdded().isEmpty());
+        assertEquals(List.of(
+                "model.element.disconnected | ERROR | The person \"User\" is disconnected - add a relationship to/from it, or consider removing it from the model.",
+                "model.softwaresystem.description | ERROR | The software system \"Software System\" is missing a description.",
+                "model.element.disconnected | ERROR | The software system \"Software System\" is disconnected - add a relationship to/from it, or consider removing it from the model."
+        ), toString(delta.getRemoved()));
+
+        assertTrue(inspector.update().isEmpty());
+    }
+
+    @Test
+    void update_KeepsTheViolationsTheSameAsTheDefaultInspector() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Model model = workspace.getModel();
+        Person user = model.addPerson("User", "A user.");
+        SoftwareSystem softwareSystem = model.addSoftwareSystem("Software System");
+        IncrementalInspector inspector = new IncrementalInspector(workspace);
+
+        Container webApplication = softwareSystem.addContainer("Web Application", "Description");
+        Container database = softwareSystem.addContainer("Database");
+        Component component = webApplication.addComponent("Component");
+        user.uses(webApplication, "Uses");
+        component.uses(database, "");
+        database.setTechnology("PostgreSQL");
+        DeploymentNode deploymentNode = model.addDeploymentNode("Server");
+        inspector.update();
+        assertSameAsDefaultInspector(workspace, inspector);
+
+        SystemContextView systemContextView = workspace.getViews().createSystemContextView(softwareSystem, "SystemContext", "Description");
+        systemContextView.addDefaultElements();
+        ContainerView containerView = workspace.getViews().createContainerView(softwareSystem, null, "Description");
+        containerView.add(webApplication);
+        deploymentNode.add(database);
+        softwareSystem.addProperty("structurizr.inspection.model.container.technology", "warning");
+        inspector.update();
+        assertSameAsDefaultInspector(workspace, inspector);
+
+        containerView.remove(webApplication);
+        workspace.trim();
+        inspector.update();
+        assertSameAsDefaultInspector(workspace, inspector);
+    }
+
+    @Test
+    void close_StopsListeningForChanges() {
+        Workspace workspace = new Workspace("Name", "Description");
+        IncrementalInspector inspector = new IncrementalInspector(workspace);
+        inspector.close();
+
+        workspace.getModel().addPerson("User");
+
+        assertTrue(inspector.update().getAdded().stream().noneMatch(v -> v.getMessage().contains("User")));
+    }
+
+}
@@ -61,6 +61,15 @@ public class PropertyBasedSeverityStrategyTests {
         assertEquals(Severity.WARNING, severityStrategy.getSeverity(inspection, workspace));
     }
 
+    @Test
+    void getSeverityForWorkspace_WhenPropertiesChangeAfterTheSeverityHasBeenResolved() {
+        inspection = new WorkspaceScopeInspection(inspector);
+        assertEquals(Severity.ERROR, severityStrategy.getSeverity(inspection, workspace));
+
+        workspace.addProperty("structurizr.inspection." + inspection.getType(), "warning");
+        assertEquals(Severity.WARNING, severityStrategy.getSeverity(inspection, workspace));
+    }
+
     @Test
     void getSeverityForComponent() {
         inspection = new ComponentDescriptionInspection(inspector);
@@ -0,0 +1,386 @@
+package com.structurizr.neo4j;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.*;
+import com.structurizr.util.StringUtils;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Loads the elements and relationships in a workspace into Neo4j, using the same graph structure as
+ * {@link SimpleLoader} (nodes labelled "Element", connected by "HAS_RELATIONSHIP_WITH" relationships),
+ * but with more properties per node/relationship.
+ *
+ * Constraints/indexes are created first, and then elements and relationships are sent in batches
+ * (as parameters to an UNWIND statement), each batch in its own transaction.
+ * Since values are sent as parameters rather than being embedded in the Cypher, names/descriptions don't need
+ * escaping, and Neo4j can reuse the same query plan for every batch.
+ *
+ * Each node has the following properties, where present: id, name, type, description, technology, tags,
+ * url, parent (the ID of the parent element), environment (for deployment elements), and instanceOf
+ * (the ID of the software system/container, for software system/container instances).
+ * Each relationship has: id, role (the description, or "uses"), description, technology, tags, url,
+ * interactionStyle and linkedRelationshipId. The properties of elements and relationships are added too,
+ * unless they have the same name as one of the above.
+ * Nodes and relationships also have a hash of the above, which is used by {@link #sync(Workspace, Driver, String)}
+ * to find the elements and relationships that have changed since the workspace was last loaded/synced.
+ *
+ * Nodes and relationships are tagged with a scope (a "workspace" property), and element IDs are unique per scope,
+ * so that more than one workspace can be loaded into the same database. Everything this loader reads, writes and
+ * deletes is limited to the scope being loaded/synced. By default, the scope is the workspace ID; since workspaces
+ * created in code or parsed from DSL all have an ID of 0, either set the ID ({@link Workspace#setId(long)}) or
+ * specify a scope explicitly.
+ */
+public class BatchLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    static final String ELEMENT_ID_CONSTRAINT = "CREATE CONSTRAINT element_workspace_id IF NOT EXISTS FOR (n:Element) REQUIRE (n.workspace, n.id) IS UNIQUE";
+    static final String RELATIONSHIP_ID_INDEX = "CREATE INDEX relationship_workspace_id IF NOT EXISTS FOR ()-[r:HAS_RELATIONSHIP_WITH]-() ON (r.workspace, r.id)";
+
+    static final String CREATE_ELEMENTS = """
+            UNWIND $rows AS row
+            CREATE (n:Element)
+            SET n += row.properties,
+                n.workspace = $workspace, n.id = row.id, n.name = row.name, n.type = row.type, n.description = row.description,
+                n.technology = row.technology, n.tags = row.tags, n.url = row.url, n.parent = row.parent,
+                n.environment = row.environment, n.instanceOf = row.instanceOf, n.hash = row.hash""";
+
+    static final String CREATE_RELATIONSHIPS = """
+            UNWIND $rows AS row
+            MATCH (source:Element { workspace: $workspace, id: row.source }), (destination:Element { workspace: $workspace, id: row.destination })
+            CREATE (source)-[r:HAS_RELATIONSHIP_WITH]->(destination)
+            SET r += row.properties,
+                r.workspace = $workspace, r.id = row.id, r.role = row.role, r.description = row.description, r.technology = row.technology,
+                r.tags = row.tags, r.url = row.url, r.interactionStyle = row.interactionStyle,
+                r.linkedRelationshipId = row.linkedRelationshipId, r.hash = row.hash""";
+
+    static final String FIND_ELEMENTS = "MATCH (n:Element { workspace: $workspace }) WHERE n.id IS NOT NULL RETURN n.id AS id, n.hash AS hash";
+    static final String FIND_RELATIONSHIPS = "MATCH ()-[r:HAS_RELATIONSHIP_WITH { workspace: $workspace }]->() WHERE r.id IS NOT NULL RETURN r.id AS id, r.hash AS hash";
+
+    // SET n = ... replaces all existing properties, so that properties removed from an element are removed from the node
+    static final String MERGE_ELEMENTS = """
+            UNWIND $rows AS row
+            MERGE (n:Element { workspace: $workspace, id: row.id })
+            SET n = row.properties,
+                n.workspace = $workspace, n.id = row.id, n.name = row.name, n.type = row.type, n.description = row.description,
+                n.technology = row.technology, n.tags = row.tags, n.url = row.url, n.parent = row.parent,
+                n.environment = row.environment, n.instanceOf = row.instanceOf, n.hash = row.hash""";
+
+    static final String MERGE_RELATIONSHIPS = """
+            UNWIND $rows AS row
+            MATCH (source:Element { workspace: $workspace, id: row.source }), (destination:Element { workspace: $workspace, id: row.destination })
+            MERGE (source)-[r:HAS_RELATIONSHIP_WITH { workspace: $workspace, id: row.id }]->(destination)
+            SET r = row.properties,
+                r.workspace = $workspace, r.id = row.id, r.role = row.role, r.description = row.description, r.technology = row.technology,
+                r.tags = row.tags, r.url = row.url, r.interactionStyle = row.interactionStyle,
+                r.linkedRelationshipId = row.linkedRelationshipId, r.hash = row.hash""";
+
+    static final String DELETE_ELEMENTS = """
+            UNWIND $rows AS row
+            MATCH (n:Element { workspace: $workspace, id: row.id })
+            DETACH DELETE n""";
+
+    static final String DELETE_RELATIONSHIPS = """
+            UNWIND $rows AS row
+            MATCH ()-[r:HAS_RELATIONSHIP_WITH { workspace: $workspace, id: row.id }]->()
+            DELETE r""";
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Gets the maximum number of elements/relationships sent in each batch.
+     *
+     * @return  the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of elements/relationships sent in each batch (and therefore in each transaction).
+     *
+     * @param batchSize     the batch size (default 1000)
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be a positive integer.");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the elements and relationships in the specified workspace into the specified database,
+     * scoped by the workspace ID.
+     *
+     * @param workspace     the Workspace to load (which must have a non-zero ID)
+     * @param driver        a Neo4j Driver
+     * @param database      the name of the database
+     */
+    public void load(Workspace workspace, Driver driver, String database) {
+        load(workspace, driver, database, getScope(workspace));
+    }
+
+    /**
+     * Loads the elements and relationships in the specified workspace into the specified database.
+     *
+     * @param workspace     the Workspace to load
+     * @param driver        a Neo4j Driver
+     * @param database      the name of the database
+     * @param scope         identifies the nodes/relationships belonging to this workspace (e.g. a workspace key)
+     */
+    public void load(Workspace workspace, Driver driver, String database, String scope) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("A workspace must be specified.");
+        }
+
+        if (driver == null) {
+            throw new IllegalArgumentException("A driver must be specified.");
+        }
+
+        if (StringUtils.isNullOrEmpty(scope)) {
+            throw new IllegalArgumentException("A scope must be specified.");
+        }
+
+        try (Session session = driver.session(SessionConfig.builder().withDatabase(database).build())) {
+            createSchema(session);
+
+            write(session, CREATE_ELEMENTS, scope, toRows(workspace.getModel().getElements()));
+            write(session, CREATE_RELATIONSHIPS, scope, toRelationshipRows(workspace.getModel().getRelationships()));
+        }
+    }
+
+    /**
+     * Synchronises the specified database with the elements and relationships in the specified workspace,
+     * scoped by the workspace ID (see {@link #sync(Workspace, Driver, String, String)}).
+     *
+     * @param workspace     the Workspace to sync (which must have a non-zero ID)
+     * @param driver        a Neo4j Driver
+     * @param database      the name of the database
+     * @return  a SyncResult describing the number of elements/relationships written and deleted
+     */
+    public SyncResult sync(Workspace workspace, Driver driver, String database) {
+        return sync(workspace, driver, database, getScope(workspace));
+    }
+
+    /**
+     * Synchronises the specified database with the elements and relationships in the specified workspace,
+     * so that repeated syncs don't create duplicate nodes/relationships.
+     * Only the elements and relationships that have been added, changed or removed since the workspace was last
+     * loaded/synced are written (matched by scope and element/relationship ID), so the cost of a sync is
+     * proportional to the number of changes. Nodes/relationships that don't belong to the scope
+     * (including those loaded by {@link SimpleLoader}, which don't have one) are never modified or deleted.
+     *
+     * @param workspace     the Workspace to sync
+     * @param driver        a Neo4j Driver
+     * @param database      the name of the database
+     * @param scope         identifies the nodes/relationships belonging to this workspace (e.g. a workspace key)
+     * @return  a SyncResult describing the number of elements/relationships written and deleted
+     */
+    public SyncResult sync(Workspace workspace, Driver driver, String database, String scope) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("A workspace must be specified.");
+        }
+
+        if (driver == null) {
+            throw new IllegalArgumentException("A driver must be specified.");
+        }
+
+        if (StringUtils.isNullOrEmpty(scope)) {
+            throw new IllegalArgumentException("A scope must be specified.");
+        }
+
+        try (Session session = driver.session(SessionConfig.builder().withDatabase(database).build())) {
+            createSchema(session);
+
+            Diff elements = diff(toRows(workspace.getModel().getElements()), findHashes(session, FIND_ELEMENTS, scope));
+            Diff relationships = diff(toRelationshipRows(workspace.getModel().getRelationships()), findHashes(session, FIND_RELATIONSHIPS, scope));
+
+            // relationships are removed first, because deleting an element also deletes its relationships
+            write(session, DELETE_RELATIONSHIPS, scope, relationships.removed);
+            write(session, DELETE_ELEMENTS, scope, elements.removed);
+            write(session, MERGE_ELEMENTS, scope, elements.changed);
+            write(session, MERGE_RELATIONSHIPS, scope, relationships.changed);
+
+            return new SyncResult(elements.changed.size(), elements.removed.size(), relationships.changed.size(), relationships.removed.size());
+        }
+    }
+
+    private String getScope(Workspace workspace) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("A workspace must be specified.");
+        }
+
+        // every workspace created in code or parsed from DSL has an ID of 0, so they would all share (and delete) the same data
+        if (workspace.getId() <= 0) {
+            throw new IllegalArgumentException("The workspace must have an ID (see Workspace.setId), or a scope must be specified.");
+        }
+
+        return String.valueOf(workspace.getId());
+    }
+
+    private void createSchema(Session session) {
+        // schema changes can't be made in the same transaction as writes
+        session.run(ELEMENT_ID_CONSTRAINT).consume();
+        session.run(RELATIONSHIP_ID_INDEX).consume();
+    }
+
+    private Map<String, String> findHashes(Session session, String query, String scope) {
+        return toHashes(session.run(query, Map.of("workspace", scope)).list());
+    }
+
+    static Map<String, String> toHashes(List<Record> records) {
+        Map<String, String> hashes = new HashMap<>();
+        for (Record record : records) {
+            Value id = record.get("id");
+            if (id.isNull()) {
+                // not created by this loader, so there's nothing to match it against
+                continue;
+            }
+
+            Value hash = record.get("hash");
+            hashes.put(id.asString(), hash.isNull() ? null : hash.asString());
+        }
+
+        return hashes;
+    }
+
+    /**
+     * Compares the rows for the current workspace with the hashes of the nodes/relationships in the database (by ID).
+     */
+    static Diff diff(List<Map<String, Object>> rows, Map<String, String> hashes) {
+        Diff diff = new Diff();
+        Set<String> ids = new HashSet<>();
+
+        for (Map<String, Object> row : rows) {
+            String id = (String)row.get("id");
+            ids.add(id);
+
+            if (!hashes.containsKey(id) || !row.get("hash").equals(hashes.get(id))) {
+                diff.changed.add(row);
+            }
+        }
+
+        for (String id : hashes.keySet()) {
+            if (!ids.contains(id)) {
+                diff.removed.add(Map.of("id", id));
+            }
+        }
+
+        return diff;
+    }
+
+    static final class Diff {
+
+        final List<Map<String, Object>> changed = new ArrayList<>();
+        final List<Map<String, Object>> removed = new ArrayList<>();
+
+    }
+
+    private void write(Session session, String query, String scope, List<Map<String, Object>> rows) {
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            Map<String, Object> parameters = Map.of(
+                    "workspace", scope,
+                    "rows", rows.subList(i, Math.min(i + batchSize, rows.size())));
+
+            // executeWrite retries the transaction on transient errors (e.g. leader switches)
+            session.executeWrite(tx -> tx.run(query, parameters).consume());
+        }
+    }
+
+    List<Map<String, Object>> toRows(Collection<Element> elements) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        for (Element element : elements) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", element.getId());
+            row.put("name", element.getName());
+            row.put("type", element.getClass().getSimpleName().toLowerCase());
+            row.put("description", emptyToNull(element.getDescription()));
+            row.put("technology", emptyToNull(technologyOf(element)));
+            row.put("tags", new ArrayList<>(element.getTagsAsSet()));
+            row.put("url", emptyToNull(element.getUrl()));
+            row.put("parent", element.getParent() != null ? element.getParent().getId() : null);
+            row.put("properties", new TreeMap<>(element.getProperties()));
+
+            if (element instanceof DeploymentElement) {
+                row.put("environment", ((DeploymentElement)element).getEnvironment());
+            }
+
+            if (element instanceof SoftwareSystemInstance) {
+                row.put("instanceOf", ((SoftwareSystemInstance)element).getSoftwareSystemId());
+            } else if (element instanceof ContainerInstance) {
+                row.put("instanceOf", ((ContainerInstance)element).getContainerId());
+            }
+
+            row.put("hash", hash(row));
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    List<Map<String, Object>> toRelationshipRows(Collection<Relationship> relationships) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        for (Relationship relationship : relationships) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", relationship.getId());
+            row.put("source", relationship.getSourceId());
+            row.put("destination", relationship.getDestinationId());
+            row.put("role", !StringUtils.isNullOrEmpty(relationship.getDescription()) ? relationship.getDescription() : "uses");
+            row.put("description", emptyToNull(relationship.getDescription()));
+            row.put("technology", emptyToNull(relationship.getTechnology()));
+            row.put("tags", new ArrayList<>(relationship.getTagsAsSet()));
+            row.put("url", emptyToNull(relationship.getUrl()));
+            row.put("interactionStyle", relationship.getInteractionStyle() != null ? relationship.getInteractionStyle().name() : null);
+            row.put("linkedRelationshipId", emptyToNull(relationship.getLinkedRelationshipId()));
+            row.put("properties", new TreeMap<>(relationship.getProperties()));
+            row.put("hash", hash(row));
+
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    private String technologyOf(Element element) {
+        if (element instanceof Container) {
+            return ((Container)element).getTechnology();
+        } else if (element instanceof Component) {
+            return ((Component)element).getTechnology();
+        } else if (element instanceof DeploymentNode) {
+            return ((DeploymentNode)element).getTechnology();
+        } else if (element instanceof InfrastructureNode) {
+            return ((InfrastructureNode)element).getTechnology();
+        }
+
+        return null;
+    }
+
+    private String hash(Map<String, Object> row) {
+        try {
+            // the properties are in a TreeMap, so this is the same for the same values
+            String values = new TreeMap<>(row).toString();
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(values.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String emptyToNull(String s) {
+        return StringUtils.isNullOrEmpty(s) ? null : s;
+    }
+
+}
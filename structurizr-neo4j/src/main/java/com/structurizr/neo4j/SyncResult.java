@@ -0,0 +1,62 @@
+package com.structurizr.neo4j;
+
+/**
+ * The number of elements and relationships written and deleted by {@link BatchLoader#sync(com.structurizr.Workspace, org.neo4j.driver.Driver, String)}.
+ */
+public final class SyncResult {
+
+    private final int numberOfElementsWritten;
+    private final int numberOfElementsDeleted;
+    private final int numberOfRelationshipsWritten;
+    private final int numberOfRelationshipsDeleted;
+
+    SyncResult(int numberOfElementsWritten, int numberOfElementsDeleted, int numberOfRelationshipsWritten, int numberOfRelationshipsDeleted) {
+        this.numberOfElementsWritten = numberOfElementsWritten;
+        this.numberOfElementsDeleted = numberOfElementsDeleted;
+        this.numberOfRelationshipsWritten = numberOfRelationshipsWritten;
+        this.numberOfRelationshipsDeleted = numberOfRelationshipsDeleted;
+    }
+
+    /**
+     * Gets the number of elements that were added or changed.
+     *
+     * @return  the number of elements written
+     */
+    public int getNumberOfElementsWritten() {
+        return numberOfElementsWritten;
+    }
+
+    /**
+     * Gets the number of elements that were removed.
+     *
+     * @return  the number of elements deleted
+     */
+    public int getNumberOfElementsDeleted() {
+        return numberOfElementsDeleted;
+    }
+
+    /**
+     * Gets the number of relationships that were added or changed.
+     *
+     * @return  the number of relationships written
+     */
+    public int getNumberOfRelationshipsWritten() {
+        return numberOfRelationshipsWritten;
+    }
+
+    /**
+     * Gets the number of relationships that were removed.
+     *
+     * @return  the number of relationships deleted
+     */
+    public int getNumberOfRelationshipsDeleted() {
+        return numberOfRelationshipsDeleted;
+    }
+
+    @Override
+    public String toString() {
+        return "Elements: " + numberOfElementsWritten + " written, " + numberOfElementsDeleted + " deleted; " +
+                "relationships: " + numberOfRelationshipsWritten + " written, " + numberOfRelationshipsDeleted + " deleted";
+    }
+
+}
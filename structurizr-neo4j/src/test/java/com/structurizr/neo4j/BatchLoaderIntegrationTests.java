@@ -0,0 +1,237 @@
+package com.structurizr.neo4j;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.testcontainers.containers.Neo4jContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Cypher generated by the BatchLoader against a real Neo4j database, via Testcontainers
+ * (these tests are skipped if Docker isn't available).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class BatchLoaderIntegrationTests {
+
+    private static final String DATABASE = "neo4j";
+
+    @Container
+    private static final Neo4jContainer<?> neo4j = new Neo4jContainer<>("neo4j:5").withoutAuthentication();
+
+    private static Driver driver;
+
+    @BeforeAll
+    static void connect() {
+        driver = GraphDatabase.driver(neo4j.getBoltUrl(), AuthTokens.none());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        driver.close();
+    }
+
+    @BeforeEach
+    void deleteAll() {
+        try (Session session = driver.session()) {
+            session.run("MATCH (n) DETACH DELETE n").consume();
+        }
+    }
+
+    @Test
+    void load() {
+        Workspace workspace = createWorkspace();
+
+        new BatchLoader().load(workspace, driver, DATABASE);
+
+        try (Session session = driver.session()) {
+            Record user = session.run("MATCH (n:Element { name: 'User' }) RETURN n.id AS id, n.type AS type, n.description AS description, n.tags AS tags").single();
+            assertEquals(workspace.getModel().getPersonWithName("User").getId(), user.get("id").asString());
+            assertEquals("person", user.get("type").asString());
+            assertEquals("A user with \"quotes\" and 'apostrophes'.", user.get("description").asString());
+            assertEquals(List.of("Element", "Person"), user.get("tags").asList());
+
+            Record softwareSystem = session.run("MATCH (n:Element { name: 'Software System' }) RETURN n.`Owner` AS owner").single();
+            assertEquals("Team A", softwareSystem.get("owner").asString());
+
+            Record relationship = session.run("MATCH (:Element { name: 'User' })-[r:HAS_RELATIONSHIP_WITH]->(:Element { name: 'Software System' }) RETURN r.role AS role, r.technology AS technology").single();
+            assertEquals("Uses", relationship.get("role").asString());
+            assertEquals("HTTPS", relationship.get("technology").asString());
+        }
+    }
+
+    @Test
+    void load_SendsElementsAndRelationshipsInBatches() {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.setId(1);
+        SoftwareSystem previous = null;
+        for (int i = 1; i <= 25; i++) {
+            SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System " + i);
+            if (previous != null) {
+                previous.uses(softwareSystem, "Uses");
+            }
+            previous = softwareSystem;
+        }
+
+        BatchLoader loader = new BatchLoader();
+        loader.setBatchSize(10);
+        loader.load(workspace, driver, DATABASE);
+
+        assertEquals(25, count("MATCH (n:Element) RETURN count(n) AS count"));
+        assertEquals(24, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() RETURN count(r) AS count"));
+    }
+
+    @Test
+    void sync() {
+        BatchLoader loader = new BatchLoader();
+
+        // the first sync writes everything
+        SyncResult result = loader.sync(createWorkspace(), driver, DATABASE);
+        assertEquals(2, result.getNumberOfElementsWritten());
+        assertEquals(1, result.getNumberOfRelationshipsWritten());
+
+        // syncing the same workspace again doesn't write anything, or create duplicates
+        result = loader.sync(createWorkspace(), driver, DATABASE);
+        assertEquals(0, result.getNumberOfElementsWritten());
+        assertEquals(0, result.getNumberOfRelationshipsWritten());
+        assertEquals(2, count("MATCH (n:Element) RETURN count(n) AS count"));
+        assertEquals(1, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() RETURN count(r) AS count"));
+
+        // only the changed element is written
+        Workspace workspace = createWorkspace();
+        workspace.getModel().getSoftwareSystemWithName("Software System").setDescription("New description");
+        result = loader.sync(workspace, driver, DATABASE);
+        assertEquals(1, result.getNumberOfElementsWritten());
+        assertEquals(0, result.getNumberOfRelationshipsWritten());
+        try (Session session = driver.session()) {
+            assertEquals("New description", session.run("MATCH (n:Element { name: 'Software System' }) RETURN n.description AS description").single().get("description").asString());
+        }
+
+        // elements and relationships that have been removed from the workspace are deleted
+        workspace = new Workspace("Name", "Description");
+        workspace.setId(1);
+        workspace.getModel().addPerson("User", "A user with \"quotes\" and 'apostrophes'.");
+        result = loader.sync(workspace, driver, DATABASE);
+        assertEquals(0, result.getNumberOfElementsWritten());
+        assertEquals(1, result.getNumberOfElementsDeleted());
+        assertEquals(1, result.getNumberOfRelationshipsDeleted());
+        assertEquals(1, count("MATCH (n:Element) RETURN count(n) AS count"));
+        assertEquals(0, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() RETURN count(r) AS count"));
+    }
+
+    @Test
+    void sync_DoesNotModifyOrDeleteTheDataOfAnotherWorkspace() {
+        BatchLoader loader = new BatchLoader();
+        Workspace workspace1 = createWorkspace();
+        Workspace workspace2 = createWorkspace();
+        workspace2.setId(2);
+
+        loader.sync(workspace1, driver, DATABASE);
+        SyncResult result = loader.sync(workspace2, driver, DATABASE);
+        assertEquals(2, result.getNumberOfElementsWritten());
+        assertEquals(1, result.getNumberOfRelationshipsWritten());
+        assertEquals(4, count("MATCH (n:Element) RETURN count(n) AS count"));
+        assertEquals(2, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() RETURN count(r) AS count"));
+
+        // removing everything from workspace 2 leaves workspace 1 as it was
+        Workspace emptyWorkspace = new Workspace("Name", "Description");
+        emptyWorkspace.setId(2);
+        result = loader.sync(emptyWorkspace, driver, DATABASE);
+        assertEquals(2, result.getNumberOfElementsDeleted());
+        assertEquals(1, result.getNumberOfRelationshipsDeleted());
+        assertEquals(2, count("MATCH (n:Element { workspace: '1' }) RETURN count(n) AS count"));
+        assertEquals(1, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH { workspace: '1' }]->() RETURN count(r) AS count"));
+        assertEquals(0, count("MATCH (n:Element { workspace: '2' }) RETURN count(n) AS count"));
+    }
+
+    @Test
+    void sync_ThrowsAnException_WhenTheWorkspaceDoesNotHaveAnId() {
+        BatchLoader loader = new BatchLoader();
+        loader.sync(createWorkspace(), driver, DATABASE);
+
+        // workspaces created in code or parsed from DSL have an ID of 0, so syncing one must not delete another's data
+        Workspace workspace = new Workspace("Name", "Description");
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> loader.sync(workspace, driver, DATABASE));
+        assertEquals("The workspace must have an ID (see Workspace.setId), or a scope must be specified.", e.getMessage());
+        e = assertThrowsExactly(IllegalArgumentException.class, () -> loader.load(workspace, driver, DATABASE));
+        assertEquals("The workspace must have an ID (see Workspace.setId), or a scope must be specified.", e.getMessage());
+
+        e = assertThrowsExactly(IllegalArgumentException.class, () -> loader.sync(workspace, driver, DATABASE, ""));
+        assertEquals("A scope must be specified.", e.getMessage());
+
+        assertEquals(2, count("MATCH (n:Element) RETURN count(n) AS count"));
+        assertEquals(1, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() RETURN count(r) AS count"));
+    }
+
+    @Test
+    void sync_DoesNotModifyOrDeleteTheDataOfAnotherScope_WhenTheWorkspacesDoNotHaveAnId() {
+        BatchLoader loader = new BatchLoader();
+        Workspace workspace1 = createWorkspace();
+        workspace1.setId(0);
+        Workspace workspace2 = createWorkspace();
+        workspace2.setId(0);
+
+        loader.sync(workspace1, driver, DATABASE, "workspace-a");
+        loader.sync(workspace2, driver, DATABASE, "workspace-b");
+        assertEquals(4, count("MATCH (n:Element) RETURN count(n) AS count"));
+
+        SyncResult result = loader.sync(new Workspace("Name", "Description"), driver, DATABASE, "workspace-b");
+        assertEquals(2, result.getNumberOfElementsDeleted());
+        assertEquals(1, result.getNumberOfRelationshipsDeleted());
+        assertEquals(2, count("MATCH (n:Element { workspace: 'workspace-a' }) RETURN count(n) AS count"));
+        assertEquals(1, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH { workspace: 'workspace-a' }]->() RETURN count(r) AS count"));
+        assertEquals(0, count("MATCH (n:Element { workspace: 'workspace-b' }) RETURN count(n) AS count"));
+    }
+
+    @Test
+    void sync_IgnoresDataLoadedBySimpleLoader() {
+        new SimpleLoader().load(createWorkspace(), driver, DATABASE);
+        assertEquals(2, count("MATCH (n:Element) RETURN count(n) AS count"));
+
+        // the element IDs are the same, but the nodes/relationships loaded by the SimpleLoader don't have a workspace ID
+        BatchLoader loader = new BatchLoader();
+        SyncResult result = loader.sync(createWorkspace(), driver, DATABASE);
+        assertEquals(2, result.getNumberOfElementsWritten());
+        assertEquals(1, result.getNumberOfRelationshipsWritten());
+
+        Workspace emptyWorkspace = new Workspace("Name", "Description");
+        emptyWorkspace.setId(1);
+        result = loader.sync(emptyWorkspace, driver, DATABASE);
+        assertEquals(2, result.getNumberOfElementsDeleted());
+        assertEquals(1, result.getNumberOfRelationshipsDeleted());
+        assertEquals(2, count("MATCH (n:Element) WHERE n.workspace IS NULL RETURN count(n) AS count"));
+        assertEquals(1, count("MATCH ()-[r:HAS_RELATIONSHIP_WITH]->() WHERE r.workspace IS NULL RETURN count(r) AS count"));
+        assertEquals(2, count("MATCH (n:Element) RETURN count(n) AS count"));
+    }
+
+    private Workspace createWorkspace() {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.setId(1);
+        Person user = workspace.getModel().addPerson("User", "A user with \"quotes\" and 'apostrophes'.");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System", "Description");
+        softwareSystem.addProperty("Owner", "Team A");
+        user.uses(softwareSystem, "Uses", "HTTPS");
+
+        return workspace;
+    }
+
+    private int count(String query) {
+        try (Session session = driver.session()) {
+            return session.run(query).single().get("count").asInt();
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.structurizr.neo4j;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchLoaderTests {
+
+    @Test
+    void setBatchSize_ThrowsAnException_WhenANonPositiveNumberIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new BatchLoader().setBatchSize(0));
+        assertEquals("The batch size must be a positive integer.", e.getMessage());
+    }
+
+    @Test
+    void load_ThrowsAnException_WhenANullWorkspaceIsSpecified() {
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new BatchLoader().load(null, null, "neo4j"));
+        assertEquals("A workspace must be specified.", e.getMessage());
+    }
+
+    @Test
+    void load_ThrowsAnException_WhenTheWorkspaceDoesNotHaveAnId() {
+        Workspace workspace = new Workspace("Name", "Description");
+
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new BatchLoader().load(workspace, null, "neo4j"));
+        assertEquals("The workspace must have an ID (see Workspace.setId), or a scope must be specified.", e.getMessage());
+    }
+
+    @Test
+    void sync_ThrowsAnException_WhenTheWorkspaceDoesNotHaveAnId() {
+        Workspace workspace = new Workspace("Name", "Description");
+
+        IllegalArgumentException e = assertThrowsExactly(IllegalArgumentException.class, () -> new BatchLoader().sync(workspace, null, "neo4j"));
+        assertEquals("The workspace must have an ID (see Workspace.setId), or a scope must be specified.", e.getMessage());
+    }
+
+    @Test
+    void toRows() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System", "Description with \"quotes\" and 'apostrophes'");
+        Container container = softwareSystem.addContainer("Container", "Description", "Java");
+        container.addTags("Tag");
+        container.addProperty("Name", "Value");
+        DeploymentNode deploymentNode = workspace.getModel().addDeploymentNode("Live", "Server", "Description", "Ubuntu");
+        ContainerInstance containerInstance = deploymentNode.add(container);
+
+        List<Map<String, Object>> rows = new BatchLoader().toRows(List.of(softwareSystem, container, containerInstance));
+
+        Map<String, Object> row = rows.get(0);
+        assertEquals(softwareSystem.getId(), row.get("id"));
+        assertEquals("Software System", row.get("name"));
+        assertEquals("softwaresystem", row.get("type"));
+        assertEquals("Description with \"quotes\" and 'apostrophes'", row.get("description"));
+        assertNull(row.get("technology"));
+        assertNull(row.get("parent"));
+        assertEquals(List.of("Element", "Software System"), row.get("tags"));
+
+        row = rows.get(1);
+        assertEquals("Java", row.get("technology"));
+        assertEquals(softwareSystem.getId(), row.get("parent"));
+        assertEquals(List.of("Element", "Container", "Tag"), row.get("tags"));
+        assertEquals(Map.of("Name", "Value"), row.get("properties"));
+
+        row = rows.get(2);
+        assertEquals("containerinstance", row.get("type"));
+        assertEquals(deploymentNode.getId(), row.get("parent"));
+        assertEquals("Live", row.get("environment"));
+        assertEquals(container.getId(), row.get("instanceOf"));
+    }
+
+    @Test
+    void toRelationshipRows() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System");
+        Relationship uses = user.uses(softwareSystem, "Uses", "HTTPS", InteractionStyle.Synchronous);
+        Relationship noDescription = softwareSystem.delivers(user, "");
+
+        List<Map<String, Object>> rows = new BatchLoader().toRelationshipRows(List.of(uses, noDescription));
+
+        Map<String, Object> row = rows.get(0);
+        assertEquals(uses.getId(), row.get("id"));
+        assertEquals(user.getId(), row.get("source"));
+        assertEquals(softwareSystem.getId(), row.get("destination"));
+        assertEquals("Uses", row.get("role"));
+        assertEquals("Uses", row.get("description"));
+        assertEquals("HTTPS", row.get("technology"));
+        assertEquals("Synchronous", row.get("interactionStyle"));
+        assertEquals(List.of("Relationship", "Synchronous"), row.get("tags"));
+
+        row = rows.get(1);
+        assertEquals("uses", row.get("role"));
+        assertNull(row.get("description"));
+    }
+
+    @Test
+    void toRows_GeneratesTheSameHash_WhenAnElementHasNotChanged() {
+        Workspace workspace = new Workspace("Name", "Description");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System", "Description");
+        softwareSystem.addProperty("Name 1", "Value 1");
+        softwareSystem.addProperty("Name 2", "Value 2");
+
+        BatchLoader loader = new BatchLoader();
+        String hash = (String)loader.toRows(List.of(softwareSystem)).get(0).get("hash");
+        assertEquals(hash, loader.toRows(List.of(softwareSystem)).get(0).get("hash"));
+
+        softwareSystem.setDescription("New description");
+        assertNotEquals(hash, loader.toRows(List.of(softwareSystem)).get(0).get("hash"));
+    }
+
+    @Test
+    void diff() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person unchanged = workspace.getModel().addPerson("Unchanged");
+        Person changed = workspace.getModel().addPerson("Changed");
+        Person added = workspace.getModel().addPerson("Added");
+        Person loadedBySimpleLoader = workspace.getModel().addPerson("Loaded by SimpleLoader");
+
+        BatchLoader loader = new BatchLoader();
+        List<Map<String, Object>> rows = loader.toRows(List.of(unchanged, changed, added, loadedBySimpleLoader));
+
+        Map<String, String> hashes = new HashMap<>();
+        hashes.put(unchanged.getId(), (String)rows.get(0).get("hash"));
+        hashes.put(changed.getId(), "previous-hash");
+        hashes.put(loadedBySimpleLoader.getId(), null);
+        hashes.put("removed", "hash");
+
+        BatchLoader.Diff diff = BatchLoader.diff(rows, hashes);
+
+        assertEquals(List.of(rows.get(1), rows.get(2), rows.get(3)), diff.changed);
+        assertEquals(List.of(Map.of("id", "removed")), diff.removed);
+    }
+
+}